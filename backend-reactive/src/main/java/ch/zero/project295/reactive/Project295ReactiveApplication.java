@@ -0,0 +1,13 @@
+package ch.zero.project295.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class Project295ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(Project295ReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,150 @@
+package ch.zero.project295.reactive.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ch.zero.project295.reactive.dto.NoteDTO;
+import ch.zero.project295.reactive.dto.NoteView;
+import ch.zero.project295.reactive.repository.ReactiveNoteRepository;
+import ch.zero.project295.reactive.util.ApiResponse;
+import ch.zero.project295.reactive.util.CursorPaging;
+import ch.zero.project295.reactive.util.ETags;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking versions of the note read endpoints of the MVC backend's NoteController.
+ * <p>
+ * Same paths, parameters, status codes, headers and JSON. No request holds a thread while it waits for the
+ * database, so thousands of concurrent connections only cost memory. Writes stay with the MVC backend.
+ * </p>
+ */
+@RestController
+@RequestMapping("/note")
+public class ReactiveNoteController {
+
+    private final ReactiveNoteRepository noteRepository;
+
+    public ReactiveNoteController(ReactiveNoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    /**
+     * Retrieves a page of notes, with optional filters for categoryId and userId.
+     * With view=summary the body is replaced by a short preview and is not read from the database.
+     * The page carries an ETag; a matching If-None-Match is answered with 304.
+     *
+     * @param categoryId Optional category ID to filter notes by category.
+     * @param userId Optional user ID to filter notes by owner.
+     * @param view Optional set of fields, full (default) or summary.
+     * @param limit Optional page size, defaults to {@link CursorPaging#DEFAULT_LIMIT}.
+     * @param after Optional cursor of the previous page.
+     * @param ifNoneMatch Optional ETag of the page the client already has.
+     * @return the page of notes, or a 404 status if a filter does not exist
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<List<NoteDTO>>>> getAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                                                                       @RequestParam(value = "userId", required = false) Long userId,
+                                                                       @RequestParam(value = "view", required = false) String view,
+                                                                       @RequestParam(value = "limit", required = false) Integer limit,
+                                                                       @RequestParam(value = "after", required = false) String after,
+                                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        NoteView noteView = NoteView.fromParameter(view);
+        int pageSize = CursorPaging.resolveLimit(limit);
+        CursorPaging.NoteKey afterKey = CursorPaging.decodeNoteCursor(after);
+
+        Mono<ResponseEntity<ApiResponse<List<NoteDTO>>>> page = noteRepository.findPage(userId, categoryId, noteView,
+                        afterKey.getModifiedDate(), afterKey.getNoteId(), pageSize + 1)
+                .collectList()
+                .map(notes -> {
+                    String etag = ETags.ofPage(noteView.name(), notes.stream()
+                            .map(note -> new long[] {note.getNoteId(), note.getVersion()})
+                            .toList());
+                    if (ETags.isNotModified(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    String nextCursor = null;
+                    List<NoteDTO> pageNotes = notes;
+                    if (CursorPaging.hasNextPage(notes, pageSize)) {
+                        pageNotes = CursorPaging.trimToPage(notes, pageSize);
+                        NoteDTO lastNote = pageNotes.get(pageNotes.size() - 1);
+                        nextCursor = CursorPaging.encodeNoteCursor(lastNote.getModifiedDate(), lastNote.getNoteId());
+                    }
+                    return ResponseEntity.ok().eTag(etag)
+                            .body(new ApiResponse<>(true, "Successfully retrieved notes", pageNotes, nextCursor));
+                });
+
+        return missingFilter(userId, categoryId)
+                .map(message -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<List<NoteDTO>>(false, message, null)))
+                .switchIfEmpty(page);
+    }
+
+    /**
+     * Streams all notes as newline-delimited JSON, with optional filters for categoryId and userId.
+     * Selected by requesting the application/x-ndjson media type on GET /note. Rows are read from the
+     * database only as fast as the client consumes the response.
+     *
+     * @param categoryId Optional category ID to filter notes by category.
+     * @param userId Optional user ID to filter notes by owner.
+     * @return the stream of notes, or an ApiResponse with a 404 status if a filter does not exist
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> streamAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                                                       @RequestParam(value = "userId", required = false) Long userId) {
+        return missingFilter(userId, categoryId)
+                .map(message -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body((Object) new ApiResponse<Void>(false, message, null)))
+                .defaultIfEmpty(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(noteRepository.streamAll(userId, categoryId)));
+    }
+
+    /**
+     * Retrieves a note by its ID.
+     * The note carries its version as ETag; a matching If-None-Match is answered with 304.
+     *
+     * @param id the ID of the note to retrieve
+     * @param ifNoneMatch Optional ETag of the note the client already has
+     * @return the note if found, a 304 status if unchanged, or a 404 status if not found
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<NoteDTO>>> getNoteById(@PathVariable long id,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return noteRepository.findById(id)
+                .map(noteDTO -> {
+                    String etag = ETags.ofVersion(noteDTO.getVersion());
+                    if (ETags.isNotModified(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<ApiResponse<NoteDTO>>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag)
+                            .body(new ApiResponse<>(true, "Note with ID " + id + " found successfully", noteDTO));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
+    }
+
+    /**
+     * Checks the optional filters, the category first, like the MVC backend.
+     *
+     * @return the error message of the first filter that does not exist, or empty if all exist
+     */
+    private Mono<String> missingFilter(Long userId, Long categoryId) {
+        Mono<String> missingCategory = categoryId == null ? Mono.empty() : noteRepository.categoryExists(categoryId)
+                .filter(exists -> !exists)
+                .map(exists -> "Category with ID " + categoryId + " not found");
+        Mono<String> missingUser = userId == null ? Mono.empty() : noteRepository.userExists(userId)
+                .filter(exists -> !exists)
+                .map(exists -> "User with ID " + userId + " not found");
+        return missingCategory.switchIfEmpty(missingUser);
+    }
+}
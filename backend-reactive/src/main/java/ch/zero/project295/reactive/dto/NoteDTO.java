@@ -0,0 +1,105 @@
+package ch.zero.project295.reactive.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Represents the Data Transfer Object for Note, read-only.
+ * Serializes to the same JSON as {@code ch.zero.project295.dto.NoteDTO} of the MVC backend.
+ * Summary listings carry a short preview instead of the body; whichever of the two is missing is left out of the JSON.
+ */
+public class NoteDTO {
+
+    private long noteId;
+
+    private String noteTitle;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String noteBody;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String notePreview;
+
+    private LocalDateTime createdDate;
+
+    private LocalDateTime modifiedDate;
+
+    private long version;
+
+    private long userId;
+
+    private long categoryId;
+
+    public long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(long noteId) {
+        this.noteId = noteId;
+    }
+
+    public String getNoteTitle() {
+        return noteTitle;
+    }
+
+    public void setNoteTitle(String noteTitle) {
+        this.noteTitle = noteTitle;
+    }
+
+    public String getNoteBody() {
+        return noteBody;
+    }
+
+    public void setNoteBody(String noteBody) {
+        this.noteBody = noteBody;
+    }
+
+    public String getNotePreview() {
+        return notePreview;
+    }
+
+    public void setNotePreview(String notePreview) {
+        this.notePreview = notePreview;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public LocalDateTime getModifiedDate() {
+        return modifiedDate;
+    }
+
+    public void setModifiedDate(LocalDateTime modifiedDate) {
+        this.modifiedDate = modifiedDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
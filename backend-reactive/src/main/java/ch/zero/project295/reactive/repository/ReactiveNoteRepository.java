@@ -0,0 +1,156 @@
+package ch.zero.project295.reactive.repository;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import ch.zero.project295.reactive.dto.NoteDTO;
+import ch.zero.project295.reactive.dto.NoteView;
+import ch.zero.project295.reactive.util.NoteBodyCodec;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads notes with the non-blocking R2DBC driver.
+ * <p>
+ * Runs the same SQL as the projections of the MVC backend: plain columns of the note table, the body only
+ * for the FULL view, no joins. Rows are mapped to DTOs as the driver emits them, so a Flux returned here
+ * only reads as many rows from the connection as its subscriber has requested.
+ * </p>
+ */
+@Repository
+public class ReactiveNoteRepository {
+
+    private static final String COLUMNS = "note_id, note_title, created_date, modified_date, version, user_id, category_id";
+    private static final String BODY_COLUMNS = "note_body, note_body_deflated";
+    private static final String AFTER_KEY = " where (modified_date > :afterDate or (modified_date = :afterDate and note_id > :afterId))";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveNoteRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a page of notes after the given sort key, ordered by modification date and ID.
+     *
+     * @param userId     optional user ID to filter by owner
+     * @param categoryId optional category ID to filter by category
+     * @param view       the fields to read
+     * @param afterDate  the modification date of the last note of the previous page
+     * @param afterId    the ID of the last note of the previous page
+     * @param limit      the maximum number of notes
+     * @return the notes of the page
+     */
+    public Flux<NoteDTO> findPage(Long userId, Long categoryId, NoteView view, LocalDateTime afterDate, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(", ").append(textColumn(view)).append(" from note");
+        sql.append(AFTER_KEY);
+        if (userId != null) {
+            sql.append(" and user_id = :userId");
+        }
+        if (categoryId != null) {
+            sql.append(" and category_id = :categoryId");
+        }
+        sql.append(" order by modified_date, note_id limit :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("afterDate", afterDate)
+                .bind("afterId", afterId)
+                .bind("limit", limit);
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        if (categoryId != null) {
+            spec = spec.bind("categoryId", categoryId);
+        }
+        return spec.map(row -> toNote(row, view)).all();
+    }
+
+    /**
+     * Streams every note matching the optional filters, ordered by ID.
+     *
+     * @param userId     optional user ID to filter by owner
+     * @param categoryId optional category ID to filter by category
+     * @return the notes, read from the database as they are requested
+     */
+    public Flux<NoteDTO> streamAll(Long userId, Long categoryId) {
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(", ").append(BODY_COLUMNS).append(" from note where 1 = 1");
+        if (userId != null) {
+            sql.append(" and user_id = :userId");
+        }
+        if (categoryId != null) {
+            sql.append(" and category_id = :categoryId");
+        }
+        sql.append(" order by note_id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        if (categoryId != null) {
+            spec = spec.bind("categoryId", categoryId);
+        }
+        return spec.map(row -> toNote(row, NoteView.FULL)).all();
+    }
+
+    /**
+     * Finds a note by its ID.
+     *
+     * @param noteId the ID of the note
+     * @return the note, or empty if there is none
+     */
+    public Mono<NoteDTO> findById(long noteId) {
+        return databaseClient.sql("select " + COLUMNS + ", " + BODY_COLUMNS + " from note where note_id = :noteId")
+                .bind("noteId", noteId)
+                .map(row -> toNote(row, NoteView.FULL))
+                .one();
+    }
+
+    /**
+     * Checks whether a user exists.
+     *
+     * @param userId the ID of the user
+     * @return true if the user exists
+     */
+    public Mono<Boolean> userExists(long userId) {
+        return exists("select 1 from user where user_id = :id", userId);
+    }
+
+    /**
+     * Checks whether a category exists.
+     *
+     * @param categoryId the ID of the category
+     * @return true if the category exists
+     */
+    public Mono<Boolean> categoryExists(long categoryId) {
+        return exists("select 1 from category where category_id = :id", categoryId);
+    }
+
+    private Mono<Boolean> exists(String sql, long id) {
+        return databaseClient.sql(sql).bind("id", id).map(row -> true).first().defaultIfEmpty(false);
+    }
+
+    private static String textColumn(NoteView view) {
+        return view == NoteView.SUMMARY ? "note_preview" : BODY_COLUMNS;
+    }
+
+    private static NoteDTO toNote(Readable row, NoteView view) {
+        NoteDTO note = new NoteDTO();
+        note.setNoteId(row.get("note_id", Long.class));
+        note.setNoteTitle(row.get("note_title", String.class));
+        if (view == NoteView.SUMMARY) {
+            note.setNotePreview(row.get("note_preview", String.class));
+        } else {
+            note.setNoteBody(NoteBodyCodec.decode(row.get("note_body", String.class), row.get("note_body_deflated", ByteBuffer.class)));
+        }
+        note.setCreatedDate(row.get("created_date", LocalDateTime.class));
+        note.setModifiedDate(row.get("modified_date", LocalDateTime.class));
+        note.setVersion(row.get("version", Long.class));
+        note.setUserId(row.get("user_id", Long.class));
+        note.setCategoryId(row.get("category_id", Long.class));
+        return note;
+    }
+}
@@ -0,0 +1,50 @@
+package ch.zero.project295.reactive.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A generic API response wrapper used to standardize responses for the API.
+ * <p>
+ * Same JSON as {@code ch.zero.project295.util.ApiResponse} of the MVC backend, so clients can switch
+ * between the two without changes. Paged list responses additionally carry the cursor of the next page,
+ * which is omitted when there is none.
+ * </p>
+ *
+ * @param <T> The type of the response data
+ */
+public class ApiResponse<T> {
+
+    private boolean success;
+    private String message;
+    private T data;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public ApiResponse(boolean success, String message, T data) {
+        this.success = success;
+        this.message = message;
+        this.data = data;
+    }
+
+    public ApiResponse(boolean success, String message, T data, String nextCursor) {
+        this(success, message, data);
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,128 @@
+package ch.zero.project295.reactive.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Utility class for keyset (cursor) pagination of the note listing.
+ * <p>
+ * Uses the same limits and cursor encoding as {@code ch.zero.project295.util.CursorPaging} of the MVC backend,
+ * so a cursor returned by one can be passed to the other.
+ * </p>
+ */
+public class CursorPaging {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * The sort key of a note, (modifiedDate, noteId), used as the position of a note cursor.
+     */
+    public static class NoteKey {
+
+        /**
+         * Position before the first note, used when no cursor is given.
+         */
+        public static final NoteKey START = new NoteKey(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+        private final LocalDateTime modifiedDate;
+        private final long noteId;
+
+        public NoteKey(LocalDateTime modifiedDate, long noteId) {
+            this.modifiedDate = modifiedDate;
+            this.noteId = noteId;
+        }
+
+        public LocalDateTime getModifiedDate() {
+            return modifiedDate;
+        }
+
+        public long getNoteId() {
+            return noteId;
+        }
+    }
+
+    /**
+     * Validates the requested page size and applies the default and the upper bound.
+     *
+     * @param limit the requested page size, may be null
+     * @return the page size to use
+     * @throws IllegalArgumentException if the limit is smaller than 1
+     */
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Cuts the rows fetched with one row more than the page size down to the page size.
+     *
+     * @param rows     the fetched rows
+     * @param pageSize the page size
+     * @return the rows of the page
+     */
+    public static <T> List<T> trimToPage(List<T> rows, int pageSize) {
+        return rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    }
+
+    /**
+     * Tells whether another page follows the rows fetched with one row more than the page size.
+     *
+     * @param rows     the fetched rows
+     * @param pageSize the page size
+     * @return true if there are more rows after this page
+     */
+    public static boolean hasNextPage(List<?> rows, int pageSize) {
+        return rows.size() > pageSize;
+    }
+
+    /**
+     * Encodes the sort key of a note into an opaque cursor.
+     *
+     * @param modifiedDate the modification date of the last note of the page
+     * @param noteId       the ID of the last note of the page
+     * @return the cursor
+     */
+    public static String encodeNoteCursor(LocalDateTime modifiedDate, long noteId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((modifiedDate + SEPARATOR + noteId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a note cursor.
+     *
+     * @param cursor the cursor, may be null
+     * @return the decoded sort key, or {@link NoteKey#START} if no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static NoteKey decodeNoteCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return NoteKey.START;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw invalidCursor();
+            }
+            return new NoteKey(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static IllegalArgumentException invalidCursor() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
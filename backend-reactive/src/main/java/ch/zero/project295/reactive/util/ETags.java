@@ -0,0 +1,67 @@
+package ch.zero.project295.reactive.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Utility class for the strong ETags of notes and for evaluating the If-None-Match request header against them.
+ * <p>
+ * Computes the same values as {@code ch.zero.project295.util.ETags} of the MVC backend: the version of a note,
+ * or a hash of the IDs and versions of the notes on a page.
+ * </p>
+ */
+public class ETags {
+
+    /**
+     * Builds the ETag of a single note.
+     *
+     * @param version the version of the note
+     * @return the quoted ETag
+     */
+    public static String ofVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Builds the ETag of a page of notes.
+     *
+     * @param variant        distinguishes representations of the same rows, such as the view
+     * @param idsAndVersions pairs of note ID and version, in page order
+     * @return the quoted ETag
+     */
+    public static String ofPage(String variant, List<long[]> idsAndVersions) {
+        byte[] variantBytes = variant.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(variantBytes.length + idsAndVersions.size() * 2 * Long.BYTES);
+        buffer.put(variantBytes);
+        for (long[] idAndVersion : idsAndVersions) {
+            buffer.putLong(idAndVersion[0]).putLong(idAndVersion[1]);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(buffer.array()) + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header, using the weak comparison required for it.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etag        the current ETag
+     * @return true if the client already has the current representation and a 304 can be sent
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package ch.zero.project295.reactive.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Turns exceptions of the read endpoints into the same ApiResponse errors as the MVC backend.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    /**
+     * Handles illegal arguments such as a malformed cursor or an unknown view.
+     *
+     * @param ex the IllegalArgumentException
+     * @return a ResponseEntity with status 400 and the message of the exception
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, ex.getMessage(), null));
+    }
+
+    /**
+     * Handles request parameters that cannot be converted, such as a non-numeric ID.
+     *
+     * @param ex the ServerWebInputException
+     * @return a ResponseEntity with status 400
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiResponse<String>> handleServerWebInputException(ServerWebInputException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, ex.getReason(), null));
+    }
+
+    /**
+     * Handles all other exceptions, providing a simple fallback for unexpected errors.
+     *
+     * @param ex the Exception
+     * @return a ResponseEntity with status 500 and a generic error message
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<String>> handleGeneralException(Exception ex) {
+        logger.error("Unexpected error", ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse<>(false, "An unexpected error occurred", null));
+    }
+}
@@ -0,0 +1,64 @@
+package ch.zero.project295.reactive.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses note bodies as stored by the NoteBodyCodec of the MVC backend, which stores long bodies
+ * zlib-compressed in the note_body_deflated column and leaves note_body empty.
+ * This module only reads notes, so it only decompresses. The column is read as a ByteBuffer,
+ * which the MySQL and H2 drivers both support for BLOB columns.
+ */
+public final class NoteBodyCodec {
+
+    private NoteBodyCodec() {
+    }
+
+    /**
+     * Returns the body of a note from its two body columns.
+     *
+     * @param noteBody         the value of the note_body column, may be null
+     * @param noteBodyDeflated the value of the note_body_deflated column, null if the body is stored plain
+     * @return the body
+     * @throws IllegalStateException if the compressed body cannot be decompressed
+     */
+    public static String decode(String noteBody, ByteBuffer noteBodyDeflated) {
+        if (noteBodyDeflated == null) {
+            return noteBody;
+        }
+        byte[] compressed = new byte[noteBodyDeflated.remaining()];
+        noteBodyDeflated.get(compressed);
+        return decompress(compressed);
+    }
+
+    /**
+     * Decompresses a stored body.
+     *
+     * @param compressed the value of the note_body_deflated column
+     * @return the body
+     * @throws IllegalStateException if the stored body cannot be decompressed
+     */
+    public static String decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed note body");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed note body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
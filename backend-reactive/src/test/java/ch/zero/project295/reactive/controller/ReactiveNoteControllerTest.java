@@ -0,0 +1,189 @@
+package ch.zero.project295.reactive.controller;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import ch.zero.project295.reactive.dto.NoteDTO;
+import ch.zero.project295.reactive.dto.NoteView;
+import ch.zero.project295.reactive.repository.ReactiveNoteRepository;
+import ch.zero.project295.reactive.util.CursorPaging;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit tests for the ReactiveNoteController class.
+ * <p>
+ * These tests validate that the endpoints answer with the same status codes, headers and JSON
+ * as the NoteController of the MVC backend.
+ * </p>
+ */
+@WebFluxTest(ReactiveNoteController.class)
+class ReactiveNoteControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveNoteRepository noteRepository;
+
+    /**
+     * Test the JSON of a page of notes, including the cursor of the next page.
+     */
+    @Test
+    void getAllNotes_Success() {
+        // Arrange
+        Mockito.when(noteRepository.findPage(ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(NoteView.FULL),
+                        ArgumentMatchers.any(), ArgumentMatchers.eq(0L), ArgumentMatchers.eq(2)))
+                .thenReturn(Flux.just(note(1L), note(2L)));
+
+        // Act & Assert
+        webTestClient.get().uri("/note?limit=1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(true)
+                .jsonPath("$.message").isEqualTo("Successfully retrieved notes")
+                .jsonPath("$.data.length()").isEqualTo(1)
+                .jsonPath("$.data[0].noteId").isEqualTo(1)
+                .jsonPath("$.data[0].noteBody").isEqualTo("Body 1")
+                .jsonPath("$.data[0].notePreview").doesNotExist()
+                .jsonPath("$.data[0].createdDate").isEqualTo("2024-11-01T12:00:00")
+                .jsonPath("$.data[0].version").isEqualTo(4)
+                .jsonPath("$.nextCursor").isEqualTo(CursorPaging.encodeNoteCursor(LocalDateTime.of(2024, 11, 1, 12, 0), 1L));
+    }
+
+    /**
+     * Test that a page matching the If-None-Match header is answered with 304.
+     */
+    @Test
+    void getAllNotes_NotModified() {
+        // Arrange
+        Mockito.when(noteRepository.findPage(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> Flux.just(note(1L)));
+        String etag = webTestClient.get().uri("/note").exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        // Act & Assert
+        webTestClient.get().uri("/note").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * Test that a missing category filter is answered with 404.
+     */
+    @Test
+    void getAllNotes_CategoryNotFound() {
+        // Arrange
+        Mockito.when(noteRepository.categoryExists(7L)).thenReturn(Mono.just(false));
+        Mockito.when(noteRepository.findPage(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(Flux.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/note?categoryId=7").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Category with ID 7 not found");
+    }
+
+    /**
+     * Test that a malformed cursor is answered with 400.
+     */
+    @Test
+    void getAllNotes_InvalidCursor() {
+        webTestClient.get().uri("/note?after=not-a-cursor").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid cursor");
+    }
+
+    /**
+     * Test that the stream writes one JSON object per line.
+     */
+    @Test
+    void streamAllNotes_WritesNdjson() {
+        // Arrange
+        Mockito.when(noteRepository.streamAll(null, null)).thenReturn(Flux.just(note(1L), note(2L)));
+
+        // Act & Assert
+        webTestClient.get().uri("/note").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> org.junit.jupiter.api.Assertions.assertEquals(2, body.trim().split("\n").length));
+    }
+
+    /**
+     * Test that a missing user filter of the stream is answered with a JSON 404.
+     */
+    @Test
+    void streamAllNotes_UserNotFound() {
+        // Arrange
+        Mockito.when(noteRepository.userExists(5L)).thenReturn(Mono.just(false));
+        Mockito.when(noteRepository.streamAll(null, 5L)).thenReturn(Flux.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/note?userId=5").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User with ID 5 not found");
+    }
+
+    /**
+     * Test that a note is returned with its version as ETag.
+     */
+    @Test
+    void getNoteById_Success() {
+        // Arrange
+        Mockito.when(noteRepository.findById(1L)).thenReturn(Mono.just(note(1L)));
+
+        // Act & Assert
+        webTestClient.get().uri("/note/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"")
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Note with ID 1 found successfully")
+                .jsonPath("$.data.noteTitle").isEqualTo("Note 1");
+    }
+
+    /**
+     * Test that a missing note is answered with 404.
+     */
+    @Test
+    void getNoteById_NotFound() {
+        // Arrange
+        Mockito.when(noteRepository.findById(9L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/note/9").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false)
+                .jsonPath("$.message").isEqualTo("Note with ID 9 not found")
+                .jsonPath("$.data").isEmpty();
+    }
+
+    private static NoteDTO note(long noteId) {
+        NoteDTO note = new NoteDTO();
+        note.setNoteId(noteId);
+        note.setNoteTitle("Note " + noteId);
+        note.setNoteBody("Body " + noteId);
+        note.setCreatedDate(LocalDateTime.of(2024, 11, 1, 12, 0));
+        note.setModifiedDate(LocalDateTime.of(2024, 11, 1, 12, 0));
+        note.setVersion(4);
+        note.setUserId(1);
+        note.setCategoryId(2);
+        return note;
+    }
+}
@@ -0,0 +1,130 @@
+package ch.zero.project295.reactive.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import ch.zero.project295.reactive.dto.NoteDTO;
+import ch.zero.project295.reactive.dto.NoteView;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+/**
+ * Tests for the ReactiveNoteRepository class against an in-memory H2 database.
+ * <p>
+ * These tests validate the keyset paging, the summary view, the filters of the stream and the existence checks.
+ * </p>
+ */
+@DataR2dbcTest
+@Import(ReactiveNoteRepository.class)
+class ReactiveNoteRepositoryTest {
+
+    private static final LocalDateTime MODIFIED = LocalDateTime.of(2024, 11, 1, 12, 0);
+
+    /**
+     * {@code "Compressed body. ".repeat(100)} as compressed by the NoteBodyCodec of the MVC backend.
+     */
+    private static final String DEFLATED_BODY = "780173cecf2d284a2d2e4e4d5148ca4fa9d453701e15180d8fd1e4309a1b460b83d1b27070d40d00dba86b43";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveNoteRepository noteRepository;
+
+    @BeforeEach
+    void setUp() {
+        Flux.concat(
+                databaseClient.sql("delete from note").then(),
+                databaseClient.sql("delete from category").then(),
+                databaseClient.sql("delete from user").then(),
+                databaseClient.sql("insert into user (user_id, username, email, password) values (1, 'user1', 'a@b.ch', 'secret'), (2, 'user2', 'c@d.ch', 'secret')").then(),
+                databaseClient.sql("insert into category (category_id, category_name, user_id) values (1, 'First', 1), (2, 'Second', 2)").then(),
+                databaseClient.sql("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, version, user_id, category_id) values"
+                        + " (1, 'One', 'Body one', 'Preview one', :modified, :modified, 0, 1, 1),"
+                        + " (2, 'Two', 'Body two', 'Preview two', :modified, :modified, 3, 1, 1),"
+                        + " (3, 'Three', 'Body three', 'Preview three', :modified, :later, 0, 2, 2)")
+                        .bind("modified", MODIFIED)
+                        .bind("later", MODIFIED.plusMinutes(1))
+                        .then())
+                .blockLast();
+    }
+
+    /**
+     * Test that a page continues after the sort key of the previous page.
+     */
+    @Test
+    void findPage_SeeksAfterKey() {
+        StepVerifier.create(noteRepository.findPage(null, null, NoteView.FULL, MODIFIED, 1L, 10).map(NoteDTO::getNoteId))
+                .expectNext(2L, 3L)
+                .verifyComplete();
+    }
+
+    /**
+     * Test that the summary view reads the preview instead of the body.
+     */
+    @Test
+    void findPage_SummaryView_ReadsPreview() {
+        NoteDTO note = noteRepository.findPage(1L, 1L, NoteView.SUMMARY, LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1).blockFirst();
+
+        assertEquals("Preview one", note.getNotePreview());
+        assertNull(note.getNoteBody());
+    }
+
+    /**
+     * Test that the stream applies the filters and is ordered by ID.
+     */
+    @Test
+    void streamAll_FiltersByUser() {
+        List<Long> noteIds = noteRepository.streamAll(1L, null).map(NoteDTO::getNoteId).collectList().block();
+
+        assertEquals(List.of(1L, 2L), noteIds);
+    }
+
+    /**
+     * Test that a note is found with all its columns.
+     */
+    @Test
+    void findById_ReadsAllColumns() {
+        NoteDTO note = noteRepository.findById(2L).block();
+
+        assertEquals("Body two", note.getNoteBody());
+        assertEquals(3L, note.getVersion());
+        assertEquals(MODIFIED, note.getModifiedDate());
+        assertEquals(1L, note.getCategoryId());
+    }
+
+    /**
+     * Test that a body stored compressed by the MVC backend is returned decompressed.
+     */
+    @Test
+    void findById_DecompressesBody() {
+        databaseClient.sql("update note set note_body = '', note_body_deflated = :deflated where note_id = 1")
+                .bind("deflated", HexFormat.of().parseHex(DEFLATED_BODY))
+                .then().block();
+
+        assertEquals("Compressed body. ".repeat(100), noteRepository.findById(1L).block().getNoteBody());
+        assertEquals("Compressed body. ".repeat(100), noteRepository.findPage(1L, 1L, NoteView.FULL,
+                LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 1).blockFirst().getNoteBody());
+    }
+
+    /**
+     * Test that the existence checks tell existing and missing rows apart.
+     */
+    @Test
+    void exists_ChecksRows() {
+        assertTrue(noteRepository.userExists(2L).block());
+        assertFalse(noteRepository.userExists(99L).block());
+        assertTrue(noteRepository.categoryExists(1L).block());
+        assertFalse(noteRepository.categoryExists(99L).block());
+    }
+}
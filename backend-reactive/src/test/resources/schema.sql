@@ -0,0 +1,26 @@
+create table user (
+    user_id bigint auto_increment primary key,
+    username varchar(255),
+    email varchar(255),
+    password varchar(255)
+);
+
+create table category (
+    category_id bigint auto_increment primary key,
+    category_name varchar(255),
+    version bigint default 0,
+    user_id bigint not null references user (user_id)
+);
+
+create table note (
+    note_id bigint primary key,
+    note_title varchar(255),
+    note_body mediumtext,
+    note_body_deflated mediumblob,
+    note_preview varchar(255),
+    created_date timestamp,
+    modified_date timestamp,
+    version bigint default 0,
+    user_id bigint not null references user (user_id),
+    category_id bigint not null references category (category_id)
+);
@@ -0,0 +1,45 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ch.zero.project295.Project295Application;
+
+/**
+ * Starts the application for the benchmarks of the data access paths.
+ * <p>
+ * The application runs without web server against a new in-memory H2 database in MySQL mode,
+ * with the search index in memory. H2 runs in process, so the numbers leave out the network round trip
+ * that every statement costs against MySQL.
+ * </p>
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application.
+     *
+     * @param properties additional properties, such as {@code spring.cache.type=none}
+     * @return the running application, to be closed in the tear down of the benchmark
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        SpringApplication application = new SpringApplication(Project295Application.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";MODE=MySQL;NON_KEYWORDS=USER",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--note.search.index-path="));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+}
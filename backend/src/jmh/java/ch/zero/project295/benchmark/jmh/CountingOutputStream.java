@@ -0,0 +1,29 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.OutputStream;
+
+/**
+ * Discards what is written and only counts the bytes, so serialization is measured without buffering the output.
+ */
+final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    void reset() {
+        count = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.zero.project295.controller.NoteController;
+import ch.zero.project295.dto.NoteDTO;
+
+/**
+ * Compares POST /note with and without the user and category lookup caches.
+ * <p>
+ * The application runs once with the Caffeine caches and once with {@code spring.cache.type=none}.
+ * Each operation creates a note for the next of the seeded users, so after the warmup
+ * every lookup is a cache hit.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupCacheBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private NoteController noteController;
+    private long notes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.cache.type=" + cacheType);
+        seed(context.getBean(JdbcTemplate.class));
+        noteController = context.getBean(NoteController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> createNote() {
+        long note = notes++;
+        NoteDTO request = new NoteDTO();
+        request.setNoteTitle("Note " + note);
+        request.setNoteBody("Body of note " + note);
+        request.setUserId(note % USERS + 1);
+        request.setCategoryId(note % USERS + 1);
+        return noteController.createNote(request);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[] {userId, "user" + userId, "user" + userId + "@example.com", "secret!" + userId});
+            categories.add(new Object[] {userId, "Category " + userId, userId});
+        }
+        jdbcTemplate.batchUpdate("insert into user (user_id, username, email, password) values (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into category (category_id, category_name, user_id) values (?, ?, ?)", categories);
+    }
+}
@@ -0,0 +1,98 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.zero.project295.controller.NoteController;
+import ch.zero.project295.dto.NoteBatchDTO;
+import ch.zero.project295.dto.NoteDTO;
+
+/**
+ * Compares creating notes one request at a time with creating them through POST /note/batch.
+ * <p>
+ * Each operation creates the same notes through one of the two controller methods. H2 runs in process,
+ * so every statement is cheap; against MySQL each saved statement is a saved network round trip
+ * and {@code rewriteBatchedStatements} folds a batch into a single multi-row insert.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteBatchInsertBenchmark {
+
+    private static final int USERS = 10;
+    private static final int NOTES = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private NoteController noteController;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        seed(context.getBean(JdbcTemplate.class));
+        noteController = context.getBean(NoteController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleInserts() {
+        for (NoteDTO note : notes()) {
+            noteController.createNote(note);
+        }
+        return NOTES;
+    }
+
+    @Benchmark
+    public int batchInsert() {
+        NoteBatchDTO request = new NoteBatchDTO();
+        request.setNotes(notes());
+        return noteController.createNotes(request).getBody().getData().size();
+    }
+
+    private static List<NoteDTO> notes() {
+        List<NoteDTO> notes = new ArrayList<>(NOTES);
+        for (int i = 0; i < NOTES; i++) {
+            NoteDTO note = new NoteDTO();
+            note.setNoteTitle("Note " + i);
+            note.setNoteBody("Body of note " + i);
+            note.setUserId(i % USERS + 1);
+            note.setCategoryId(i % USERS + 1);
+            notes.add(note);
+        }
+        return notes;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[] {userId, "user" + userId, "user" + userId + "@example.com", "secret!" + userId});
+            categories.add(new Object[] {userId, "Category " + userId, userId});
+        }
+        jdbcTemplate.batchUpdate("insert into user (user_id, username, email, password) values (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into category (category_id, category_name, user_id) values (?, ?, ?)", categories);
+    }
+}
@@ -0,0 +1,71 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import ch.zero.project295.dto.NoteBatchDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Measures reading a request body into NoteDTOs and validating them, as POST /note/batch does:
+ * Jackson deserialization of a {@link NoteBatchDTO} followed by Bean Validation of the batch and every note.
+ * A payload of one note corresponds to the body of POST /note.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteDeserializationBenchmark {
+
+    @Param({"1x100", "100x100", "10000x100", "100000x100", "1x10000", "100x10000", "10000x10000", "1x1000000", "100x1000000"})
+    public String payload;
+
+    private ObjectReader reader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(NoteBatchDTO.class);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        NoteBatchDTO batch = new NoteBatchDTO();
+        batch.setNotes(NotePayloads.noteDTOs(payload));
+        json = objectMapper.writeValueAsBytes(batch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public int readAndValidateNotes() throws IOException {
+        NoteBatchDTO batch = reader.readValue(json);
+        return validator.validate(batch).size();
+    }
+}
@@ -0,0 +1,77 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.util.EntityMapper;
+
+/**
+ * Measures the entity to DTO mapping of {@link EntityMapper#toNoteDTOList}.
+ * <p>
+ * {@link #toNoteDTOListWithConsoleLines} is the mapping as it was before the mapper stopped printing
+ * two System.out lines per note. The lines go to a stream built like System.out (auto flush, small buffer)
+ * on /dev/null, so it is the cheapest possible console; a terminal or a container log pipe is slower.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteMappingBenchmark {
+
+    @Param({"1x100", "100x100", "10000x100", "100000x100", "1x10000", "100x10000", "10000x10000", "1x1000000", "100x1000000"})
+    public String payload;
+
+    private List<Note> notes;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        notes = NotePayloads.notes(payload);
+        console = new PrintStream(new BufferedOutputStream(new FileOutputStream("/dev/null"), 128), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        console.close();
+    }
+
+    @Benchmark
+    public List<NoteDTO> toNoteDTOList() {
+        return EntityMapper.toNoteDTOList(notes);
+    }
+
+    @Benchmark
+    public List<NoteDTO> toNoteDTOListWithConsoleLines() {
+        List<NoteDTO> noteDTOs = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            NoteDTO noteDTO = EntityMapper.toNoteDTO(note);
+            console.println("User ID set to: " + note.getUserId());
+            console.println("Category ID set to: " + note.getCategoryId());
+            noteDTOs.add(noteDTO);
+        }
+        return noteDTOs;
+    }
+}
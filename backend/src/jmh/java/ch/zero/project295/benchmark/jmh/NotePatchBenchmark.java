@@ -0,0 +1,93 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.zero.project295.controller.NoteController;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.model.Note;
+
+/**
+ * Compares updating title, body and category of a note through the three PUT endpoints
+ * with a single PATCH /note/{id}.
+ * <p>
+ * Each operation changes all three fields of the next note, cycling through the seeded notes,
+ * so every update writes new values.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotePatchBenchmark {
+
+    private static final int NOTES = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private NoteController noteController;
+    private long updates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        seed(context.getBean(JdbcTemplate.class));
+        noteController = context.getBean(NoteController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> threePuts() {
+        long update = updates++;
+        long noteId = update % NOTES + 1;
+        noteController.updateNoteTitle(noteId, Map.of("noteTitle", "Title " + update), null, null);
+        noteController.updateNoteBody(noteId, Map.of("noteBody", "Body " + update), null, null);
+        return noteController.updateNoteCategory(noteId, Map.of("categoryId", update / NOTES % 2 + 1), null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> onePatch() {
+        long update = updates++;
+        NotePatchDTO request = new NotePatchDTO();
+        request.setNoteTitle("Title " + update);
+        request.setNoteBody("Body " + update);
+        request.setCategoryId(update / NOTES % 2 + 1);
+        return noteController.patchNote(update % NOTES + 1, request, null, null);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into user (user_id, username, email, password) values (1, 'user1', 'user1@example.com', 'secret!1')");
+        jdbcTemplate.update("insert into category (category_id, category_name, user_id) values (1, 'First', 1), (2, 'Second', 1)");
+        List<Object[]> notes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (long noteId = 1; noteId <= NOTES; noteId++) {
+            notes.add(new Object[] {noteId, "Note " + noteId, "Body", Note.previewOf("Body"), now, now, 1L, 1L});
+        }
+        jdbcTemplate.batchUpdate("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, user_id, category_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", notes);
+    }
+}
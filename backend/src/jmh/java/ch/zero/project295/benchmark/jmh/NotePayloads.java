@@ -0,0 +1,62 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.model.Category;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.model.User;
+import ch.zero.project295.util.EntityMapper;
+
+/**
+ * Builds the note lists the benchmarks run on.
+ * <p>
+ * A payload is written as {@code <notes>x<body length>}, e.g. {@code 10000x100} for ten thousand notes
+ * with bodies of 100 characters. The benchmarks cover lists of 1 to 100000 notes and bodies of 100 characters
+ * to 1 MB, but not every combination: 100000 notes of 1 MB would be 100 GB of JSON per operation.
+ * All notes of a payload share one body string, so building a payload costs little memory.
+ * </p>
+ */
+final class NotePayloads {
+
+    private NotePayloads() {
+    }
+
+    static int noteCount(String payload) {
+        return Integer.parseInt(payload.substring(0, payload.indexOf('x')));
+    }
+
+    static int bodyLength(String payload) {
+        return Integer.parseInt(payload.substring(payload.indexOf('x') + 1));
+    }
+
+    static List<Note> notes(String payload) {
+        String body = "a".repeat(bodyLength(payload));
+        LocalDateTime now = LocalDateTime.of(2024, 11, 1, 12, 0);
+        User user = new User();
+        user.setUserId(1L);
+        Category category = new Category();
+        category.setCategoryId(2L);
+
+        int count = noteCount(payload);
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Note note = new Note();
+            note.setNoteId(i + 1);
+            note.setNoteTitle("Note " + i);
+            note.setNoteBody(body);
+            note.setCreatedDate(now);
+            note.setModifiedDate(now.plusSeconds(i));
+            note.setUser(user);
+            note.setCategory(category);
+            notes.add(note);
+        }
+        return notes;
+    }
+
+    static List<NoteDTO> noteDTOs(String payload) {
+        return EntityMapper.toNoteDTOList(notes(payload));
+    }
+}
@@ -0,0 +1,135 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NoteView;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.repository.NoteRepository;
+import ch.zero.project295.util.EntityMapper;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares the entity read path with the DTO projection read path of the note listing,
+ * in the full and in the summary view.
+ * <p>
+ * Each operation reads one page of notes per user, in a read-only transaction. The entity path loads
+ * the notes as entities and maps them, as the listing did before the projections; against MySQL it also
+ * pays a round trip for every additional select, which H2 in process does not show.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteReadPathBenchmark {
+
+    private static final int USERS = 200;
+    private static final int CATEGORIES_PER_USER = 5;
+    private static final int NOTES_PER_USER = 500;
+    private static final int BODY_LENGTH = 230;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        seed(context.getBean(JdbcTemplate.class));
+        noteRepository = context.getBean(NoteRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<NoteDTO> entityPath() {
+        return transaction.execute(status -> {
+            List<NoteDTO> notes = new ArrayList<>();
+            for (long userId = 1; userId <= USERS; userId++) {
+                List<Note> page = entityManager.createQuery("select n from Note n where n.user.userId = :userId"
+                                + " order by n.modifiedDate, n.noteId", Note.class)
+                        .setParameter("userId", userId)
+                        .setMaxResults(NOTES_PER_USER)
+                        .getResultList();
+                notes.addAll(EntityMapper.toNoteDTOList(page));
+                entityManager.clear();
+            }
+            return notes;
+        });
+    }
+
+    @Benchmark
+    public List<NoteDTO> projectionPath() {
+        return transaction.execute(status -> pages(NoteView.FULL));
+    }
+
+    @Benchmark
+    public List<NoteDTO> summaryView() {
+        return transaction.execute(status -> pages(NoteView.SUMMARY));
+    }
+
+    private List<NoteDTO> pages(NoteView view) {
+        List<NoteDTO> notes = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            notes.addAll(noteRepository.findPage(userId, null, view, LocalDateTime.of(1970, 1, 1, 0, 0), 0L,
+                    Limit.of(NOTES_PER_USER)));
+        }
+        return notes;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        List<Object[]> notes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long categoryId = 1;
+        long noteId = 1;
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[] {userId, "user" + userId, "user" + userId + "@example.com", "secret!" + userId});
+            long firstCategory = categoryId;
+            for (int i = 0; i < CATEGORIES_PER_USER; i++) {
+                categories.add(new Object[] {categoryId++, "Category " + i, userId});
+            }
+            for (int i = 0; i < NOTES_PER_USER; i++) {
+                String body = "Body of note " + i + " ".repeat(BODY_LENGTH);
+                notes.add(new Object[] {noteId++, "Note " + i, body, Note.previewOf(body), now, now.plusSeconds(i),
+                        userId, firstCategory + i % CATEGORIES_PER_USER});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into user (user_id, username, email, password) values (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("insert into category (category_id, category_name, user_id) values (?, ?, ?)", categories);
+        jdbcTemplate.batchUpdate("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, user_id, category_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", notes);
+    }
+}
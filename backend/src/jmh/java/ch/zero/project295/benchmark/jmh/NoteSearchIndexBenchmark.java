@@ -0,0 +1,115 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.store.FSDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import ch.zero.project295.service.NoteSearchIndex;
+
+/**
+ * Measures the query latency of the {@link NoteSearchIndex} with a large number of synthetic notes.
+ * <p>
+ * Words are drawn from a skewed distribution over a synthetic vocabulary, so queries hit
+ * a realistic mix of common and rare terms. The index is built once per fork, which takes a while
+ * for a million notes; the sample mode reports the p50 and p99 of the single queries.
+ * </p>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteSearchIndexBenchmark {
+
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int USERS = 10_000;
+    private static final int WORDS_PER_TITLE = 4;
+    private static final int WORDS_PER_BODY = 60;
+
+    @Param({"100000", "1000000"})
+    public int noteCount;
+
+    private final Random random = new Random(42);
+    private String[] vocabulary;
+    private Path indexPath;
+    private NoteSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        vocabulary = vocabulary(random);
+        indexPath = Files.createTempDirectory("note-index-benchmark");
+        index = new NoteSearchIndex(FSDirectory.open(indexPath));
+        for (long noteId = 1; noteId <= noteCount; noteId++) {
+            index.index(noteId, random.nextInt(USERS), text(WORDS_PER_TITLE), text(WORDS_PER_BODY));
+        }
+        index.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        FileSystemUtils.deleteRecursively(indexPath);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchResult singleTerm() {
+        return index.search(text(1).trim(), null, 0, 20);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchResult twoTerms() {
+        return index.search(text(2).trim(), null, 0, 20);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchResult prefix() {
+        String term = text(1).trim();
+        return index.search(term.substring(0, Math.min(3, term.length())), null, 0, 20);
+    }
+
+    @Benchmark
+    public NoteSearchIndex.SearchResult singleTermUserScope() {
+        return index.search(text(1).trim(), (long) random.nextInt(USERS), 0, 20);
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        return vocabulary;
+    }
+
+    private String text(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            text.append(vocabulary[(int) (skewed * vocabulary.length)]).append(' ');
+        }
+        return text.toString();
+    }
+}
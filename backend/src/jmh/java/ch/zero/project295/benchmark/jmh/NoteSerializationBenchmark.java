@@ -0,0 +1,56 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.util.ApiResponse;
+
+/**
+ * Measures the Jackson serialization of the {@code ApiResponse<List<NoteDTO>>} returned by GET /note,
+ * with an ObjectMapper built like the one of the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteSerializationBenchmark {
+
+    @Param({"1x100", "100x100", "10000x100", "100000x100", "1x10000", "100x10000", "10000x10000", "1x1000000", "100x1000000"})
+    public String payload;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<NoteDTO>> response;
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        response = new ApiResponse<>(true, "Successfully retrieved notes", NotePayloads.noteDTOs(payload));
+    }
+
+    @Benchmark
+    public long writeNoteList() throws IOException {
+        out.reset();
+        writer.writeValue(out, response);
+        return out.getCount();
+    }
+}
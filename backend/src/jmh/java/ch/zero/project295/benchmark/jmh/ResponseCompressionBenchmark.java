@@ -0,0 +1,94 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ch.zero.project295.compression.PrecompressedResponseFilter;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.util.ApiResponse;
+
+/**
+ * Measures the CPU cost of gzipping a GET /note page against serving it from the cache of
+ * {@link PrecompressedResponseFilter}, and prints the bytes saved per level during setup.
+ * <p>
+ * The bodies are built from random words, because the repeated characters of {@link NotePayloads}
+ * would compress far better than real notes. A payload is written like there, e.g. {@code 50x2000}
+ * for a page of 50 notes with bodies of 2000 characters.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseCompressionBenchmark {
+
+    private static final String[] WORDS = {"meeting", "project", "the", "and", "deadline", "review", "notes",
+            "customer", "release", "to", "of", "backend", "frontend", "database", "query", "a", "with", "next",
+            "week", "team", "feedback", "draft", "budget", "plan", "is", "for", "on", "todo", "done", "bug"};
+
+    @Param({"1x2000", "50x200", "50x2000", "500x2000"})
+    public String payload;
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private byte[] json;
+    private String key;
+    private final Cache<String, byte[]> cache = Caffeine.newBuilder().maximumSize(1000).build();
+
+    @Setup
+    public void setUp() throws Exception {
+        json = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(
+                new ApiResponse<>(true, "Successfully retrieved notes", noteDTOs(payload)));
+        key = "application/json /note?userId=1 \"" + payload + "\"";
+        cache.put(key, PrecompressedResponseFilter.gzip(json, level));
+        int compressed = cache.getIfPresent(key).length;
+        System.out.printf("%n%s level %d: %d bytes of JSON, %d gzipped, %.1f%% saved%n",
+                payload, level, json.length, compressed, 100.0 * (json.length - compressed) / json.length);
+    }
+
+    @Benchmark
+    public int gzip() {
+        return PrecompressedResponseFilter.gzip(json, level).length;
+    }
+
+    @Benchmark
+    public int cached() {
+        return cache.getIfPresent(key).length;
+    }
+
+    private static List<NoteDTO> noteDTOs(String payload) {
+        Random random = new Random(42);
+        List<NoteDTO> notes = NotePayloads.noteDTOs(payload);
+        List<NoteDTO> result = new ArrayList<>(notes.size());
+        for (NoteDTO note : notes) {
+            StringBuilder body = new StringBuilder(NotePayloads.bodyLength(payload) + 16);
+            while (body.length() < NotePayloads.bodyLength(payload)) {
+                body.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ".\n" : " ");
+            }
+            note.setNoteBody(body.toString());
+            result.add(note);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package ch.zero.project295.benchmark.jmh;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ch.zero.project295.config.CborConfig;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.util.ApiResponse;
+
+/**
+ * Compares JSON and CBOR for the {@code ApiResponse<List<NoteDTO>>} returned by GET /note:
+ * the time to write and to read it, and the size of the payload, which is printed during setup.
+ * The CBOR mapper is the one of {@link CborConfig}, with dates as epoch milliseconds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"1x100", "100x100", "10000x100", "100x10000"})
+    public String payload;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponse<List<NoteDTO>> response;
+    private byte[] encoded;
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = format.equals("cbor")
+                ? CborConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json())
+                : Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        reader = objectMapper.readerFor(new TypeReference<ApiResponse<List<NoteDTO>>>() { });
+        response = new ApiResponse<>(true, "Successfully retrieved notes", NotePayloads.noteDTOs(payload));
+        encoded = writer.writeValueAsBytes(response);
+        System.out.printf("%n%s as %s: %d bytes%n", payload, format, encoded.length);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        out.reset();
+        writer.writeValue(out, response);
+        return out.getCount();
+    }
+
+    @Benchmark
+    public ApiResponse<List<NoteDTO>> read() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,201 @@
+package ch.zero.project295.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import ch.zero.project295.controller.ChangeFeedController;
+import ch.zero.project295.util.ETags;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gzips JSON and CBOR responses that carry a strong ETag once and serves the cached bytes to every later request
+ * for the same URL and ETag, so repeated reads of an unchanged note or page cost no compression.
+ * <p>
+ * The ETag identifies the representation (a note at a version, a page by the IDs and versions on it),
+ * and the URL and content type hold what selects it, so the cache never needs to be invalidated:
+ * a change produces a new ETag and the old entry ages out of the cache, which is bounded by
+ * {@code note.compression.cache.max-size}. All other responses are compressed by the server itself
+ * ({@code server.compression.*}), which leaves responses alone that already have a Content-Encoding.
+ * </p>
+ * <p>
+ * The gzipped bytes are a representation of their own, so they are sent with the ETag of {@link ETags#ofGzip}.
+ * A client revalidating with that tag is answered by the controller like one with the plain tag,
+ * and its 304 response gets the gzip tag back.
+ * </p>
+ * <p>
+ * The NDJSON streams and the change feed are skipped, because they are written asynchronously after this filter
+ * has returned, and the wrapper that buffers the body would hold them back for the life of the stream.
+ * The change feed is recognized by its path, as it streams for any Accept header, including none or a wildcard.
+ * </p>
+ */
+@Component
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the cache in the {@code cache.*} metrics.
+     */
+    public static final String CACHE_NAME = "compressedResponses";
+
+    private static final String GZIP = "gzip";
+
+    private final Cache<String, byte[]> compressedResponses;
+    private final long minResponseSize;
+    private final int level;
+
+    public PrecompressedResponseFilter(@Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                       @Value("${note.compression.cache.max-size:32MB}") DataSize maxCacheSize,
+                                       @Value("${note.compression.gzip-level:6}") int level,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.minResponseSize = minResponseSize.toBytes();
+        this.level = level;
+        this.compressedResponses = Caffeine.newBuilder()
+                .maximumWeight(maxCacheSize.toBytes())
+                .weigher((String key, byte[] value) -> key.length() + value.length)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, compressedResponses, CACHE_NAME));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                || ChangeFeedController.PATH.equals(request.getRequestURI().substring(request.getContextPath().length()))
+                || (accept != null && (accept.contains(MediaType.APPLICATION_NDJSON_VALUE)
+                        || accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+
+        String etag = responseWrapper.getHeader(HttpHeaders.ETAG);
+        if (responseWrapper.getStatus() == HttpServletResponse.SC_NOT_MODIFIED && etag != null && !etag.startsWith("W/")) {
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && ifNoneMatch.contains(ETags.ofGzip(etag))) {
+                response.setHeader(HttpHeaders.ETAG, ETags.ofGzip(etag));
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK || etag == null || etag.startsWith("W/")
+                || responseWrapper.getContentSize() < minResponseSize || !isCompressible(responseWrapper.getContentType())) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+
+        String query = request.getQueryString();
+        String key = responseWrapper.getContentType() + " " + request.getRequestURI()
+                + (query != null ? "?" + query : "") + " " + etag;
+        byte[] compressed = compressedResponses.get(key, k -> gzip(responseWrapper.getContentAsByteArray(), level));
+        response.setHeader(HttpHeaders.ETAG, ETags.ofGzip(etag));
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    /**
+     * Returns the number of compressed responses in the cache.
+     *
+     * @return the estimated number of cached responses
+     */
+    long cachedResponseCount() {
+        compressedResponses.cleanUp();
+        return compressedResponses.estimatedSize();
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows gzip, that is lists gzip or * without q=0.
+     *
+     * @param acceptEncoding the header value, may be null
+     * @return true if the response may be gzipped
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gzips a response body.
+     *
+     * @param body  the uncompressed body
+     * @param level the Deflate level from 1 (fastest) to 9 (smallest)
+     * @return the gzipped body
+     */
+    public static byte[] gzip(byte[] body, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) || MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ch.zero.project295.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process caches in front of the user and category lookups.
+ * <p>
+ * The caches are Caffeine caches bounded by size and time to live, configured with the
+ * {@code spring.cache.*} properties. Their hit, miss and eviction counts are published as the
+ * {@code cache.gets}, {@code cache.evictions} and {@code cache.size} metrics of /actuator/metrics.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of {@code UserRepository.existsById}, keyed by user ID.
+     */
+    public static final String USER_EXISTS = "userExists";
+
+    /**
+     * Cache of {@code CategoryRepository.existsById}, keyed by category ID.
+     */
+    public static final String CATEGORY_EXISTS = "categoryExists";
+}
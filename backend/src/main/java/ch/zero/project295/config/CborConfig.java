@@ -0,0 +1,125 @@
+package ch.zero.project295.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Lets clients exchange all request and response bodies as CBOR (RFC 8949) instead of JSON,
+ * by sending {@code Accept: application/cbor} or {@code Content-Type: application/cbor}.
+ * <p>
+ * JSON stays the default for requests without an Accept header or with {@code *}{@code /*}, because the
+ * CBOR converter comes after the JSON converter. The CBOR mapper is built from the application's
+ * Jackson settings, but writes dates such as {@code createdDate} and {@code modifiedDate} as integer
+ * milliseconds since 1970-01-01T00:00 instead of ISO strings. The dates are local date-times,
+ * so the milliseconds count in the server's local time, like the strings do; reading accepts both forms.
+ * </p>
+ * <p>
+ * Since every controller response depends on the Accept header, all of them carry {@code Vary: Accept},
+ * so caches keep the JSON and CBOR representations apart. Their ETags differ as well, see {@code ETags}.
+ * </p>
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper cborObjectMapper;
+
+    public CborConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.cborObjectMapper = cborObjectMapper(objectMapperBuilder);
+    }
+
+    /**
+     * Replaces the CBOR converter that Spring registers on its own, whose mapper ignores the application's settings.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2CborHttpMessageConverter cborConverter = new MappingJackson2CborHttpMessageConverter(cborObjectMapper);
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+                converters.set(i, cborConverter);
+                return;
+            }
+        }
+        converters.add(cborConverter);
+    }
+
+    /**
+     * Adds {@code Vary: Accept} to the responses of all controllers, before the handler runs,
+     * so it is also sent with 304 responses and errors.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (handler instanceof HandlerMethod) {
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Builds the ObjectMapper for CBOR bodies.
+     *
+     * @param objectMapperBuilder a builder with the application's Jackson settings, which is changed to CBOR
+     * @return the CBOR ObjectMapper
+     */
+    public static ObjectMapper cborObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper objectMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        // registered last, so it takes precedence over the ISO serializers of the JavaTimeModule
+        objectMapper.registerModule(new SimpleModule("EpochMillisDates")
+                .addSerializer(LocalDateTime.class, new EpochMillisSerializer())
+                .addDeserializer(LocalDateTime.class, new EpochMillisDeserializer()));
+        return objectMapper;
+    }
+
+    private static final class EpochMillisSerializer extends JsonSerializer<LocalDateTime> {
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    private static final class EpochMillisDeserializer extends JsonDeserializer<LocalDateTime> {
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneOffset.UTC);
+            }
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                return LocalDateTime.parse(parser.getText().trim());
+            }
+            return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ch.zero.project295.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import ch.zero.project295.util.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * DataSource that lets at most {@code maxConcurrency} connections be in use at the same time.
+ * <p>
+ * A request that finds all permits taken waits in a fair queue for at most {@code maxWait} and then fails
+ * with a {@link DatabaseBusyException}. With virtual threads, every request gets its own thread, so without
+ * this limit thousands of requests could wait for the connection pool at once. The wait is recorded as the
+ * {@code jdbc.limiter.wait} timer, the {@code jdbc.limiter.waiting} and {@code jdbc.limiter.active} gauges
+ * and the {@code jdbc.limiter.rejected} counter.
+ * </p>
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, Duration maxWait, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWait = maxWait;
+        this.waitTimer = Timer.builder("jdbc.limiter.wait")
+                .description("Time spent waiting for a permit to use a database connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("jdbc.limiter.rejected")
+                .description("Requests that gave up waiting for a database connection")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit to use a database connection")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.limiter.active", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                .description("Database connections in use")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws DatabaseBusyException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("Interrupted while waiting for a database connection");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new DatabaseBusyException("No database connection available within " + maxWait.toMillis() + " ms");
+        }
+    }
+
+    /**
+     * Wraps a connection so that closing it, which hands it back to the pool, also returns the permit.
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
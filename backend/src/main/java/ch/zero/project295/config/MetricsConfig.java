@@ -0,0 +1,42 @@
+package ch.zero.project295.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.zero.project295.metrics.SqlStatementCounter;
+
+/**
+ * Hooks the SQL statement counter into Hibernate.
+ * <p>
+ * All metrics are scraped in Prometheus format from /actuator/prometheus and carry an {@code application} tag.
+ * These names are kept stable for alerting (Prometheus adds unit suffixes such as {@code _seconds}):
+ * </p>
+ * <ul>
+ * <li>{@code http.server.requests}: latency per {@code method}, {@code uri} and {@code status}, with histogram
+ * buckets from 1 ms to 30 s, so percentiles can be aggregated with {@code histogram_quantile}</li>
+ * <li>{@code http.server.requests.statements}: SQL statements per request, by {@code method} and {@code uri}</li>
+ * <li>{@code hibernate.statements}, {@code hibernate.query.executions}, {@code hibernate.entities.loads},
+ * {@code hibernate.flushes}, {@code hibernate.sessions.open}: Hibernate statistics</li>
+ * <li>{@code hikaricp.connections.pending}, {@code hikaricp.connections.acquire},
+ * {@code hikaricp.connections.usage}, {@code hikaricp.connections.active}: connection pool wait and usage</li>
+ * <li>{@code jdbc.limiter.wait}, {@code jdbc.limiter.waiting}, {@code jdbc.limiter.active},
+ * {@code jdbc.limiter.rejected}: the concurrency limit in virtual thread mode, see {@link VirtualThreadConfig}</li>
+ * <li>{@code note.body.compression.encode}, {@code note.body.compression.decode}, {@code note.body.compression.bytes},
+ * {@code note.body.compression.ratio}: cost and effect of the body compression, see {@link NoteBodyCompressionConfig}</li>
+ * <li>{@code note.feed.connections}, {@code note.feed.events}, {@code note.feed.evictions}: open change feed streams,
+ * published changes and clients evicted for falling behind, see {@code ChangeFeedService}</li>
+ * <li>{@code jvm.gc.pause}, {@code jvm.gc.memory.allocated}, {@code jvm.memory.used}: garbage collection
+ * and allocation</li>
+ * <li>{@code cache.gets}, {@code cache.evictions}: see {@link CacheConfig}</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
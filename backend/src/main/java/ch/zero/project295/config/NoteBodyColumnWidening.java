@@ -0,0 +1,43 @@
+package ch.zero.project295.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Widens the note_body column of existing MySQL databases to MEDIUMTEXT.
+ * <p>
+ * The column used to be created as VARCHAR(255), and ddl-auto=update never changes the type of an existing column,
+ * so long bodies would not fit on databases created before.
+ * </p>
+ */
+@Component
+@Order(0)
+public class NoteBodyColumnWidening implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteBodyColumnWidening.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public NoteBodyColumnWidening(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> types = jdbcTemplate.queryForList("select lower(data_type) from information_schema.columns"
+                + " where table_schema = database() and lower(table_name) = 'note' and lower(column_name) = 'note_body'", String.class);
+        if (types.contains("varchar")) {
+            logger.info("Widening note.note_body to MEDIUMTEXT");
+            jdbcTemplate.execute("alter table note modify note_body mediumtext");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ch.zero.project295.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.zero.project295.util.NoteBodyCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the metrics of the {@link NoteBodyCodec}.
+ * <p>
+ * With {@code note.body.compression.enabled} new bodies of at least {@code note.body.compression.threshold}
+ * characters are stored compressed, and {@code NoteBodyReencoder} compresses the existing ones in the background.
+ * Compressed bodies are always read, whether compression is enabled or not.
+ * </p>
+ */
+@Configuration
+public class NoteBodyCompressionConfig {
+
+    /**
+     * Publishes the compression metrics: {@code note.body.compression.encode} and {@code note.body.compression.decode}
+     * count the compressed and decompressed bodies and the time spent on them, {@code note.body.compression.bytes}
+     * the UTF-8 size of the compressed bodies before ({@code stage=uncompressed}) and after ({@code stage=stored})
+     * compression, and {@code note.body.compression.ratio} the quotient of the two.
+     *
+     * @param codec the codec counting the compressed and decompressed bodies
+     * @return the binder registering the metrics
+     */
+    @Bean
+    public MeterBinder noteBodyCompressionMetrics(NoteBodyCodec codec) {
+        return registry -> {
+            FunctionTimer.builder("note.body.compression.encode", codec,
+                            NoteBodyCodec::getCompressedCount, NoteBodyCodec::getCompressSeconds, TimeUnit.SECONDS)
+                    .description("Note bodies compressed and the time spent compressing them")
+                    .register(registry);
+            FunctionTimer.builder("note.body.compression.decode", codec,
+                            NoteBodyCodec::getDecompressedCount, NoteBodyCodec::getDecompressSeconds, TimeUnit.SECONDS)
+                    .description("Note bodies decompressed and the time spent decompressing them")
+                    .register(registry);
+            FunctionCounter.builder("note.body.compression.bytes", codec, NoteBodyCodec::getUncompressedBytes)
+                    .tag("stage", "uncompressed")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("note.body.compression.bytes", codec, NoteBodyCodec::getCompressedBytes)
+                    .tag("stage", "stored")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("note.body.compression.ratio", codec,
+                            counted -> counted.getCompressedBytes() == 0 ? Double.NaN
+                                    : (double) counted.getUncompressedBytes() / counted.getCompressedBytes())
+                    .description("Uncompressed size of the compressed note bodies divided by their stored size")
+                    .register(registry);
+        };
+    }
+}
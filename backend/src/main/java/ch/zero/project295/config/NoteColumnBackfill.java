@@ -0,0 +1,61 @@
+package ch.zero.project295.config;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import ch.zero.project295.repository.NoteRepository;
+
+/**
+ * Fills note columns that were added after notes had already been stored:
+ * the modification date, so older notes are not skipped by the keyset pagination of GET /note,
+ * and the body preview returned by summary listings.
+ * <p>
+ * The notes to fill are looked up first, so a database without such notes, that is every start after the first,
+ * runs no UPDATE at all. The rest are updated in batches of {@value #BATCH_SIZE}, each in its own short transaction,
+ * so a large table is never locked as a whole.
+ * </p>
+ */
+@Component
+public class NoteColumnBackfill implements ApplicationRunner {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteColumnBackfill.class);
+
+    private final NoteRepository noteRepository;
+
+    @Autowired
+    public NoteColumnBackfill(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int modifiedDates = backfill(noteRepository::findIdsWithoutModifiedDate, noteRepository::backfillModifiedDate);
+        int previews = backfill(noteRepository::findIdsWithoutNotePreview, noteRepository::backfillNotePreview);
+        if (modifiedDates > 0 || previews > 0) {
+            logger.info("Backfilled the modification date of {} notes and the preview of {} notes", modifiedDates, previews);
+        }
+    }
+
+    private static int backfill(Function<Limit, List<Long>> findIds, ToIntFunction<List<Long>> update) {
+        int updated = 0;
+        List<Long> noteIds;
+        do {
+            noteIds = findIds.apply(Limit.of(BATCH_SIZE));
+            if (!noteIds.isEmpty()) {
+                updated += update.applyAsInt(noteIds);
+            }
+        } while (noteIds.size() == BATCH_SIZE);
+        return updated;
+    }
+}
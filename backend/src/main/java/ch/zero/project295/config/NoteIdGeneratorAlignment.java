@@ -0,0 +1,53 @@
+package ch.zero.project295.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.zero.project295.model.Note;
+
+/**
+ * Moves the note ID generator past the highest existing note ID.
+ * <p>
+ * Notes used to get their ID from an auto-increment column. The generator table that replaced it
+ * starts at 1, so on databases with existing notes it has to skip the IDs already in use.
+ * </p>
+ * <p>
+ * This runs once all beans are created, so Hibernate has already created the generator table, but before
+ * the web server accepts requests, so no note is created with an ID drawn from the unaligned generator.
+ * </p>
+ */
+@Component
+public class NoteIdGeneratorAlignment implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public NoteIdGeneratorAlignment(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> align());
+    }
+
+    private void align() {
+        Long maxNoteId = jdbcTemplate.queryForObject("select coalesce(max(note_id), 0) from note", Long.class);
+        long nextValue = maxNoteId + 1 + Note.ID_ALLOCATION_SIZE;
+
+        int updated = jdbcTemplate.update("update id_generator set next_val = ? where sequence_name = 'note' and next_val < ?",
+                nextValue, nextValue);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject("select count(*) from id_generator where sequence_name = 'note'", Integer.class);
+            if (rows == 0) {
+                jdbcTemplate.update("insert into id_generator (sequence_name, next_val) values ('note', ?)", nextValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ch.zero.project295.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of the connection pool when requests are served
+ * on virtual threads, which is switched on with {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * On platform threads the Tomcat pool bounds the number of requests waiting for a connection.
+ * On virtual threads nothing does, so the limiter does: {@code note.jdbc.max-concurrency} connections
+ * (default: the maximum pool size) may be in use, and a request waits at most {@code note.jdbc.max-wait}
+ * (default: 2s) before it is answered with 503.
+ * </p>
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSource(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                Binder binder = Binder.get(environment);
+                int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                return new ConcurrencyLimitedDataSource(dataSource,
+                        binder.bind("note.jdbc.max-concurrency", Integer.class).orElse(poolSize),
+                        binder.bind("note.jdbc.max-wait", Duration.class).orElse(Duration.ofSeconds(2)),
+                        meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+            }
+        };
+    }
+}
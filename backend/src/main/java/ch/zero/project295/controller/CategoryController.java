@@ -1,16 +1,26 @@
 package ch.zero.project295.controller;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import ch.zero.project295.dto.CategoryDTO;
+import ch.zero.project295.event.CategoryChangedEvent;
 import ch.zero.project295.repository.CategoryRepository;
-import ch.zero.project295.repository.UserRepository;
 import ch.zero.project295.util.ApiResponse;
+import ch.zero.project295.util.CursorPaging;
+import ch.zero.project295.util.ETags;
 import ch.zero.project295.util.EntityMapper;
+import ch.zero.project295.util.ReferenceNotFoundException;
 import ch.zero.project295.model.Category;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,43 +31,82 @@ import jakarta.validation.Valid;
 public class CategoryController {
 
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CategoryController(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryController(CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Retrieves all categories in the system.
+     * Retrieves a page of categories ordered by ID.
+     * The response carries a nextCursor when more categories follow, and an ETag;
+     * a matching If-None-Match is answered with 304 without writing the page.
      *
-     * @return ResponseEntity containing ApiResponse with a list of all categories
+     * @param limit Optional page size, defaults to {@link CursorPaging#DEFAULT_LIMIT}
+     * @param after Optional cursor of the previous page
+     * @param ifNoneMatch Optional ETag of the page the client already has
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with a page of categories, or a 304 status if unchanged
      */
-    @Operation(summary = "Get all categories", description = "Retrieves all categories in the system")
+    @Operation(summary = "Get all categories", description = "Retrieves a page of categories in the system")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getAllCategories() {
-        List<Category> categoryList = categoryRepository.findAll();
+    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getAllCategories(@RequestParam(value = "limit", required = false) Integer limit,
+                                                                          @RequestParam(value = "after", required = false) String after,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        int pageSize = CursorPaging.resolveLimit(limit);
+        long afterId = CursorPaging.decodeIdCursor(after);
+
+        List<Category> categoryList = categoryRepository.findByCategoryIdGreaterThanOrderByCategoryIdAsc(afterId, CursorPaging.fetchLimit(pageSize));
+        boolean hasNextPage = CursorPaging.hasNextPage(categoryList, pageSize);
+        categoryList = CursorPaging.trimToPage(categoryList, pageSize);
+        String etag = ETags.ofPage("category", representation, categoryList.stream()
+                .map(category -> new long[] {category.getCategoryId(), category.getVersion()})
+                .toList(), hasNextPage);
+        if (ETags.isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        String nextCursor = null;
+        if (hasNextPage) {
+            nextCursor = CursorPaging.encodeIdCursor(categoryList.get(categoryList.size() - 1).getCategoryId());
+        }
         List<CategoryDTO> categoryDTOList = EntityMapper.toCategoryDTOList(categoryList);
 
-        ApiResponse<List<CategoryDTO>> response = new ApiResponse<>(true, "Retrieved all categories", categoryDTOList);
-        return ResponseEntity.ok(response);
+        ApiResponse<List<CategoryDTO>> response = new ApiResponse<>(true, "Retrieved all categories", categoryDTOList, nextCursor);
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     /**
      * Retrieves a category by its ID.
+     * The category carries its version as ETag; a matching If-None-Match is answered with 304 after reading only the version.
      *
      * @param id the ID of the category to retrieve
-     * @return ResponseEntity containing ApiResponse with the category if found, or 404 status if not found
+     * @param ifNoneMatch Optional ETag of the category the client already has
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the category if found, 304 status if unchanged, or 404 status if not found
      */
     @Operation(summary = "Get a category by ID", description = "Retrieves a category by its ID")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CategoryDTO>> getCategoryById(@PathVariable long id) {
+    public ResponseEntity<ApiResponse<CategoryDTO>> getCategoryById(@PathVariable long id,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        if (ifNoneMatch != null) {
+            Optional<Long> version = categoryRepository.findVersionById(id);
+            if (version.isPresent() && ETags.isNotModified(ifNoneMatch, ETags.ofVersion(version.get(), representation))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.ofVersion(version.get(), representation)).build();
+            }
+        }
+
         return categoryRepository.findById(id)
                 .map(category -> {
                     CategoryDTO categoryDTO = EntityMapper.toCategoryDTO(category);
                     ApiResponse<CategoryDTO> response = new ApiResponse<>(true, "Category with ID " + id + " found successfully", categoryDTO);
-                    return ResponseEntity.ok(response);
+                    return ResponseEntity.ok().eTag(ETags.ofVersion(category.getVersion(), representation)).body(response);
                 })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse<>(false, "Category with ID " + id + " not found", null)));
@@ -65,6 +114,7 @@ public class CategoryController {
 
     /**
      * Creates a new category.
+     * The user is checked by the foreign key of the insert itself; a missing user is reported with a 404 status.
      *
      * @param categoryDTO the category information to create
      * @return ResponseEntity containing ApiResponse with the created category
@@ -72,14 +122,15 @@ public class CategoryController {
     @Operation(summary = "Create a new category", description = "Creates a new category with the provided information")
     @PostMapping
     public ResponseEntity<ApiResponse<CategoryDTO>> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
-        if (!userRepository.existsById(categoryDTO.getUserId())) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "User with ID " + categoryDTO.getUserId() + " not found", null));
-        }
-        
         Category category = EntityMapper.toCategoryEntity(categoryDTO);
-        Category savedCategory = categoryRepository.save(category);
+        Category savedCategory;
+        try {
+            savedCategory = categoryRepository.save(category);
+        } catch (DataIntegrityViolationException e) {
+            throw ReferenceNotFoundException.of(e, Map.of("user_id", "User with ID " + categoryDTO.getUserId() + " not found"));
+        }
         CategoryDTO savedCategoryDTO = EntityMapper.toCategoryDTO(savedCategory);
+        eventPublisher.publishEvent(CategoryChangedEvent.created(savedCategoryDTO));
         ApiResponse<CategoryDTO> response = new ApiResponse<>(true, "Category created successfully", savedCategoryDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -89,18 +140,28 @@ public class CategoryController {
      *
      * @param id the ID of the category to update
      * @param categoryDTO the updated category information
-     * @return ResponseEntity containing ApiResponse with the updated category or 404 status if not found
+     * @param ifMatch Optional ETag the category must still have
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated category, 412 status if the category has changed, or 404 status if not found
      */
     @Operation(summary = "Update a category", description = "Updates an existing category by its ID")
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<CategoryDTO>> updateCategory(@PathVariable long id, @Valid @RequestBody CategoryDTO categoryDTO) {
+    public ResponseEntity<ApiResponse<CategoryDTO>> updateCategory(@PathVariable long id, @Valid @RequestBody CategoryDTO categoryDTO,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
         return categoryRepository.findById(id)
                 .map(existingCategory -> {
+                    if (ETags.isPreconditionFailed(ifMatch, existingCategory.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                .body(new ApiResponse<CategoryDTO>(false, "Category with ID " + id + " has been changed in the meantime", null));
+                    }
                     existingCategory.setCategoryName(categoryDTO.getCategoryName());
                     Category updatedCategory = categoryRepository.save(existingCategory);
                     CategoryDTO updatedCategoryDTO = EntityMapper.toCategoryDTO(updatedCategory);
+                    eventPublisher.publishEvent(CategoryChangedEvent.updated(updatedCategoryDTO));
                     ApiResponse<CategoryDTO> response = new ApiResponse<>(true, "Category updated successfully for category with ID " + id, updatedCategoryDTO);
-                    return ResponseEntity.ok(response);
+                    return ResponseEntity.ok().eTag(ETags.ofVersion(updatedCategory.getVersion(), representation)).body(response);
                 })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse<>(false, "Category with ID " + id + " not found", null)));
@@ -118,6 +179,7 @@ public class CategoryController {
         return categoryRepository.findById(id)
                 .map(category -> {
                     categoryRepository.delete(category);
+                    eventPublisher.publishEvent(CategoryChangedEvent.deleted(EntityMapper.toCategoryDTO(category)));
                     ApiResponse<Void> response = new ApiResponse<>(true, "Category with ID " + id + " deleted successfully", null);
                     return ResponseEntity.status(HttpStatus.OK).body(response);
                 })
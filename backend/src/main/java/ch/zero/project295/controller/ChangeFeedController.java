@@ -0,0 +1,75 @@
+package ch.zero.project295.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.zero.project295.repository.UserRepository;
+import ch.zero.project295.service.ChangeFeedService;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+/**
+ * ChangeFeedController streams the changes to the notes and categories of a user.
+ * <p>
+ * Clients open the feed instead of polling the note list, and reload only what the events tell them changed.
+ * </p>
+ */
+@RestController
+@RequestMapping(ChangeFeedController.PATH)
+public class ChangeFeedController {
+
+    /**
+     * Path of the feed, which response filters that buffer the body have to leave alone.
+     */
+    public static final String PATH = "/feed";
+
+    /**
+     * Header sent by EventSource clients when they reconnect.
+     */
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeedService changeFeedService;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService, UserRepository userRepository) {
+        this.changeFeedService = changeFeedService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the note and category changes of a user.
+     * Events are named note or category and carry the change type and the changed note (as a summary)
+     * or category. A client that reconnects with the ID of the last event it received gets the events it missed;
+     * if they are no longer available, it gets a reset event and should reload its notes and categories.
+     *
+     * @param userId The ID of the user whose changes are streamed.
+     * @param lastEventIdHeader Optional ID of the last received event, sent by EventSource on reconnect.
+     * @param lastEventId Optional ID of the last received event, for clients that cannot set headers.
+     * @return ResponseEntity containing the event stream, or 404 if the user does not exist.
+     */
+    @Operation(summary = "Stream changes", description = "Streams created, updated and deleted notes and categories of a user as Server-Sent Events, resumable with Last-Event-ID")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam("userId") long userId,
+                                                    @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventIdHeader,
+                                                    @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        SseEmitter emitter = changeFeedService.subscribe(userId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // tells nginx style proxies not to buffer the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,21 +1,47 @@
 package ch.zero.project295.controller;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.zero.project295.dto.NoteBatchDTO;
+import ch.zero.project295.dto.NoteBodyDeltaDTO;
 import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.dto.NoteRevisionDTO;
+import ch.zero.project295.dto.NoteView;
+import ch.zero.project295.event.NoteChangedEvent;
+import ch.zero.project295.event.NotesCreatedEvent;
 import ch.zero.project295.model.Note;
 import ch.zero.project295.repository.CategoryRepository;
 import ch.zero.project295.repository.NoteRepository;
 import ch.zero.project295.repository.UserRepository;
+import ch.zero.project295.service.NoteAutosaveService;
+import ch.zero.project295.service.NoteBatchService;
+import ch.zero.project295.service.NotePatchService;
+import ch.zero.project295.service.NoteRevisionService;
+import ch.zero.project295.service.NoteSearchIndex;
+import ch.zero.project295.service.NoteSearchService;
+import ch.zero.project295.service.NoteStreamService;
 import ch.zero.project295.util.ApiResponse;
+import ch.zero.project295.util.CursorPaging;
+import ch.zero.project295.util.ETags;
 import ch.zero.project295.util.EntityMapper;
+import ch.zero.project295.util.ReferenceNotFoundException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -34,67 +60,225 @@ public class NoteController {
     private final NoteRepository noteRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final NoteStreamService noteStreamService;
+    private final NoteSearchService noteSearchService;
+    private final NoteBatchService noteBatchService;
+    private final NotePatchService notePatchService;
+    private final NoteAutosaveService noteAutosaveService;
+    private final NoteRevisionService noteRevisionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public NoteController(NoteRepository noteRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public NoteController(NoteRepository noteRepository, UserRepository userRepository, CategoryRepository categoryRepository,
+                          NoteStreamService noteStreamService, NoteSearchService noteSearchService, NoteBatchService noteBatchService,
+                          NotePatchService notePatchService, NoteAutosaveService noteAutosaveService,
+                          NoteRevisionService noteRevisionService, ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
         this.noteRepository = noteRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.noteStreamService = noteStreamService;
+        this.noteSearchService = noteSearchService;
+        this.noteBatchService = noteBatchService;
+        this.notePatchService = notePatchService;
+        this.noteAutosaveService = noteAutosaveService;
+        this.noteRevisionService = noteRevisionService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
     }
 
     /**
-    * Retrieves all notes in the system, with an optional filter for categoryId.
-    * This method can retrieve either all notes or only those that belong to a specified category. 
-    * If the categoryId parameter is provided, it returns only notes that belong to the given category.
+    * Retrieves a page of notes, with optional filters for categoryId and userId.
+    * Notes are ordered by modification date and ID. The response carries a nextCursor
+    * when more notes follow, which can be passed as the after parameter to fetch the next page.
+    * The filters are applied by the database, so only the matching notes are loaded.
+    * With view=summary the body is replaced by a short preview and is not read from the database.
+    * The page carries an ETag; a matching If-None-Match is answered with 304 after reading only the IDs and versions.
     *
     * @param categoryId Optional category ID to filter notes by category.
-    * @return ResponseEntity containing ApiResponse with a list of notes filtered by the provided categoryId,
-    *         or all notes if no categoryId is specified.
+    * @param userId Optional user ID to filter notes by owner.
+    * @param view Optional set of fields, full (default) or summary.
+    * @param limit Optional page size, defaults to {@link CursorPaging#DEFAULT_LIMIT}.
+    * @param after Optional cursor of the previous page.
+    * @param ifNoneMatch Optional ETag of the page the client already has.
+    * @param accept Optional Accept header, which selects the representation and so the ETag.
+    * @return ResponseEntity containing ApiResponse with a page of notes filtered by the provided categoryId and userId,
+    *         or of all notes if no filter is specified.
     */
-    @Operation(summary = "Get all notes", description = "Retrieves all notes in the system also has the option to get Notes by categoryId")
+    @Operation(summary = "Get all notes", description = "Retrieves a page of notes also has the option to get Notes by categoryId and userId, and to leave out the body with view=summary")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<NoteDTO>>> getAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId) {
-        List<Note> noteList;
+    public ResponseEntity<ApiResponse<List<NoteDTO>>> getAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                                                                 @RequestParam(value = "userId", required = false) Long userId,
+                                                                 @RequestParam(value = "view", required = false) String view,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit,
+                                                                 @RequestParam(value = "after", required = false) String after,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        NoteView noteView = NoteView.fromParameter(view);
+        int pageSize = CursorPaging.resolveLimit(limit);
+        CursorPaging.NoteKey afterKey = CursorPaging.decodeNoteCursor(after);
 
-        if (categoryId != null) {
-            if (!categoryRepository.existsById(categoryId)) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(new ApiResponse<>(false, "Category with ID " + categoryId + " not found", null));
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Category with ID " + categoryId + " not found", null));
+        }
+        if (userId != null && !userRepository.existsById(userId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "User with ID " + userId + " not found", null));
+        }
+
+        if (ifNoneMatch != null) {
+            List<long[]> versions = noteRepository.findPageVersions(userId, categoryId,
+                    afterKey.getModifiedDate(), afterKey.getNoteId(), CursorPaging.fetchLimit(pageSize));
+            String etag = ETags.ofPage(noteView.name(), representation, CursorPaging.trimToPage(versions, pageSize),
+                    CursorPaging.hasNextPage(versions, pageSize));
+            if (ETags.isNotModified(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
-            noteList = noteRepository.findAll()
-                    .stream()
-                    .filter(note -> note.getCategory() != null && note.getCategory().getCategoryId() == categoryId)
-                    .collect(Collectors.toList());
-        } else {
-            noteList = noteRepository.findAll();
         }
 
-        List<NoteDTO> noteDTOList = EntityMapper.toNoteDTOList(noteList);
-        ApiResponse<List<NoteDTO>> response = new ApiResponse<>(true, "Successfully retrieved notes", noteDTOList);
+        List<NoteDTO> noteDTOList = noteRepository.findPage(userId, categoryId, noteView,
+                afterKey.getModifiedDate(), afterKey.getNoteId(), CursorPaging.fetchLimit(pageSize));
+
+        String nextCursor = null;
+        boolean hasNextPage = CursorPaging.hasNextPage(noteDTOList, pageSize);
+        if (hasNextPage) {
+            noteDTOList = CursorPaging.trimToPage(noteDTOList, pageSize);
+            NoteDTO lastNote = noteDTOList.get(noteDTOList.size() - 1);
+            nextCursor = CursorPaging.encodeNoteCursor(lastNote.getModifiedDate(), lastNote.getNoteId());
+        }
+        String etag = ETags.ofPage(noteView.name(), representation, noteDTOList.stream()
+                .map(note -> new long[] {note.getNoteId(), note.getVersion()})
+                .toList(), hasNextPage);
+
+        ApiResponse<List<NoteDTO>> response = new ApiResponse<>(true, "Successfully retrieved notes", noteDTOList, nextCursor);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    /**
+     * Streams all notes as newline-delimited JSON, with optional filters for categoryId and userId.
+     * Selected by requesting the application/x-ndjson media type on GET /note. Each line holds one note,
+     * written as soon as it is read from the database, so the whole result is never held in memory.
+     *
+     * @param categoryId Optional category ID to filter notes by category.
+     * @param userId Optional user ID to filter notes by owner.
+     * @return ResponseEntity streaming the notes, or an ApiResponse with a 404 status if a filter does not exist
+     */
+    @Operation(summary = "Stream all notes", description = "Streams all notes as newline-delimited JSON also has the option to filter by categoryId and userId")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllNotes(@RequestParam(value = "categoryId", required = false) Long categoryId,
+                                                                @RequestParam(value = "userId", required = false) Long userId) {
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            return notFoundStream("Category with ID " + categoryId + " not found");
+        }
+        if (userId != null && !userRepository.existsById(userId)) {
+            return notFoundStream("User with ID " + userId + " not found");
+        }
+
+        StreamingResponseBody body = out -> noteStreamService.writeNotes(userId, categoryId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Searches the titles and bodies of notes, ranked by relevance.
+     * A note matches when it contains every word of the query, the last word also matches as a prefix.
+     * The response carries a nextCursor when more hits follow.
+     *
+     * @param query the search query
+     * @param userId Optional user ID to search only the notes of that user.
+     * @param limit Optional page size, defaults to {@link CursorPaging#DEFAULT_LIMIT}.
+     * @param after Optional cursor of the previous page.
+     * @return ResponseEntity containing ApiResponse with the matching notes in rank order
+     */
+    @Operation(summary = "Search notes", description = "Searches the titles and bodies of notes, ranked by relevance, also has the option to search only the notes of a userId")
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<NoteDTO>>> searchNotes(@RequestParam("q") String query,
+                                                                 @RequestParam(value = "userId", required = false) Long userId,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit,
+                                                                 @RequestParam(value = "after", required = false) String after) {
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Search query cannot be blank", null));
+        }
+        int pageSize = CursorPaging.resolveLimit(limit);
+        int offset = CursorPaging.decodeOffsetCursor(after);
+
+        NoteSearchIndex.SearchResult result = noteSearchService.search(query, userId, offset, pageSize);
+        List<NoteDTO> noteDTOList = noteSearchService.loadNotes(result.getNoteIds());
+        String nextCursor = result.hasMore() ? CursorPaging.encodeOffsetCursor(offset + pageSize) : null;
+        ApiResponse<List<NoteDTO>> response = new ApiResponse<>(true, "Found " + noteDTOList.size() + " notes", noteDTOList, nextCursor);
         return ResponseEntity.ok(response);
     }
 
     /**
      * Retrieves a note by its ID.
+     * The note carries its version as ETag; a matching If-None-Match is answered with 304 after reading only the version.
      *
      * @param id the ID of the note to retrieve
-     * @return ResponseEntity containing ApiResponse with the note if found, or a 404 status if not found
+     * @param ifNoneMatch Optional ETag of the note the client already has
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the note if found, a 304 status if unchanged, or a 404 status if not found
      */
     @Operation(summary = "Get a note by ID", description = "Retrieves a note by its ID")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<NoteDTO>> getNoteById(@PathVariable long id) {
-        return noteRepository.findById(id)
-                .map(note -> {
-                    NoteDTO noteDTO = EntityMapper.toNoteDTO(note);
+    public ResponseEntity<ApiResponse<NoteDTO>> getNoteById(@PathVariable long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        if (ifNoneMatch != null) {
+            Optional<Long> version = noteRepository.findVersionById(id);
+            if (version.isPresent() && ETags.isNotModified(ifNoneMatch, ETags.ofVersion(version.get(), representation))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.ofVersion(version.get(), representation)).build();
+            }
+        }
+
+        return noteRepository.findDTOById(id)
+                .map(noteDTO -> {
                     ApiResponse<NoteDTO> response = new ApiResponse<>(true, "Note with ID " + id + " found successfully", noteDTO);
-                    return ResponseEntity.ok(response);
+                    return ResponseEntity.ok().eTag(ETags.ofVersion(noteDTO.getVersion(), representation)).body(response);
                 })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
     }
 
+    /**
+     * Lists the earlier revisions of a note, newest first, without their bodies.
+     * A revision is kept whenever the title or body of the note is overwritten; its number is the version the note had.
+     *
+     * @param id the ID of the note
+     * @return ResponseEntity containing ApiResponse with the revisions, or a 404 status if the note does not exist
+     */
+    @Operation(summary = "List note revisions", description = "Lists the earlier revisions of a note")
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<ApiResponse<List<NoteRevisionDTO>>> getNoteRevisions(@PathVariable long id) {
+        List<NoteRevisionDTO> revisions = noteRevisionService.findRevisions(id);
+        if (revisions.isEmpty() && !noteRepository.existsById(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(true, "Successfully retrieved revisions of note with ID " + id, revisions));
+    }
+
+    /**
+     * Retrieves the title and body a note had at an earlier revision.
+     *
+     * @param id       the ID of the note
+     * @param revision the revision, that is the version the note had
+     * @return ResponseEntity containing ApiResponse with the revision, or a 404 status if the revision does not exist (anymore)
+     */
+    @Operation(summary = "Get a note revision", description = "Retrieves a note as it was at an earlier revision")
+    @GetMapping("/{id}/revisions/{revision}")
+    public ResponseEntity<ApiResponse<NoteRevisionDTO>> getNoteRevision(@PathVariable long id, @PathVariable long revision) {
+        return noteRevisionService.findRevision(id, revision)
+                .map(noteRevision -> ResponseEntity.ok(new ApiResponse<>(true, "Revision " + revision + " of note with ID " + id + " found successfully", noteRevision)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Revision " + revision + " of note with ID " + id + " not found", null)));
+    }
+
     /**
      * Creates a new note in the system.
+     * The user and category are checked by the foreign keys of the insert itself;
+     * a missing one is reported with a 404 status.
      *
      * @param noteDTO the note information to create
      * @return ResponseEntity containing ApiResponse with the created note
@@ -102,32 +286,73 @@ public class NoteController {
     @Operation(summary = "Create a new note", description = "Creates a new note in the system")
     @PostMapping
     public ResponseEntity<ApiResponse<NoteDTO>> createNote(@Valid @RequestBody NoteDTO noteDTO) {
-        if (!userRepository.existsById(noteDTO.getUserId())) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "User with ID " + noteDTO.getUserId() + " not found", null));
-        }
-        if (!categoryRepository.existsById(noteDTO.getCategoryId())) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "Category with ID " + noteDTO.getCategoryId() + " not found", null));
-        }
         Note note = EntityMapper.toNoteEntity(noteDTO);
         note.setCreatedDate(LocalDateTime.now());
-        Note newNote = noteRepository.save(note);
+        Note newNote;
+        try {
+            newNote = noteRepository.save(note);
+        } catch (DataIntegrityViolationException e) {
+            throw ReferenceNotFoundException.of(e, Map.of(
+                    "user_id", "User with ID " + noteDTO.getUserId() + " not found",
+                    "category_id", "Category with ID " + noteDTO.getCategoryId() + " not found"));
+        }
         NoteDTO saveNoteDTO = EntityMapper.toNoteDTO(newNote);
+        eventPublisher.publishEvent(NoteChangedEvent.created(saveNoteDTO));
         ApiResponse<NoteDTO> response = new ApiResponse<>(true, "Note created", saveNoteDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
-     * Updates the title of an existing note.
+     * Creates many notes in a single transaction.
+     * The referenced users and categories are checked with one query each, and the notes are
+     * inserted in JDBC batches. Either all notes are created or none.
+     *
+     * @param noteBatchDTO the notes to create
+     * @return ResponseEntity containing ApiResponse with the created notes, or a 404 status if a user or category does not exist
+     */
+    @Operation(summary = "Create many notes", description = "Creates up to 10000 notes in one request, either all or none")
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<NoteDTO>>> createNotes(@Valid @RequestBody NoteBatchDTO noteBatchDTO) {
+        List<NoteDTO> noteDTOs = noteBatchDTO.getNotes();
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (NoteDTO noteDTO : noteDTOs) {
+            userIds.add(noteDTO.getUserId());
+            categoryIds.add(noteDTO.getCategoryId());
+        }
+
+        userIds.removeAll(userRepository.findExistingIds(userIds));
+        if (!userIds.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "User with ID " + userIds.iterator().next() + " not found", null));
+        }
+        categoryIds.removeAll(categoryRepository.findExistingIds(categoryIds));
+        if (!categoryIds.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Category with ID " + categoryIds.iterator().next() + " not found", null));
+        }
+
+        List<NoteDTO> createdNotes = noteBatchService.createNotes(noteDTOs);
+        eventPublisher.publishEvent(new NotesCreatedEvent(createdNotes));
+        ApiResponse<List<NoteDTO>> response = new ApiResponse<>(true, createdNotes.size() + " notes created", createdNotes);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Updates the title of an existing note. The previous title and body are kept as a revision.
      *
      * @param id         the ID of the note to update
      * @param requestBody the request body containing the new note title
-     * @return ResponseEntity containing ApiResponse with the updated note or a 404 status if not found
+     * @param ifMatch     Optional ETag the note must still have
+     * @param accept      Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated note, a 412 status if the note has changed, or a 404 status if not found
      */
     @Operation(summary = "Update note title", description = "Updates the title of an existing note")
     @PutMapping("{id}/notetitle")
-    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteTitle(@PathVariable Long id, @Valid @RequestBody Map<String, String> requestBody) {
+    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteTitle(@PathVariable Long id, @Valid @RequestBody Map<String, String> requestBody,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
         String noteTitle = requestBody.get("noteTitle");
 
         if (noteTitle == null || noteTitle.trim().isEmpty()) {
@@ -136,56 +361,146 @@ public class NoteController {
 
         return noteRepository.findById(id)
             .map(existingNote -> {
-                existingNote.setModifiedDate(LocalDateTime.now());
-                existingNote.setNoteTitle(noteTitle);
-                Note updatedNote = noteRepository.save(existingNote);
-                NoteDTO updatedNoteDTO = EntityMapper.toNoteDTO(updatedNote);
+                if (ETags.isPreconditionFailed(ifMatch, existingNote.getVersion())) {
+                    return preconditionFailed(id);
+                }
+                NoteDTO updatedNoteDTO = notePatchService.updateTitle(existingNote, noteTitle);
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNoteDTO));
                 ApiResponse<NoteDTO> response = new ApiResponse<>(true, "Note Title updated successfully for note with ID " + id, updatedNoteDTO);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(ETags.ofVersion(updatedNoteDTO.getVersion(), representation)).body(response);
             })
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
             .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
     }
 
     /**
-     * Updates the body of an existing note.
+     * Updates the body of an existing note. The previous title and body are kept as a revision,
+     * and a pending autosave of the note is discarded.
      *
      * @param id         the ID of the note to update
      * @param requestBody the request body containing the new note body
-     * @return ResponseEntity containing ApiResponse with the updated note or a 404 status if not found
+     * @param ifMatch     Optional ETag the note must still have
+     * @param accept      Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated note, a 412 status if the note has changed, or a 404 status if not found
      */
     @Operation(summary = "Update note body", description = "Updates the body of an existing note")
     @PutMapping("{id}/notebody")
-    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteBody(@PathVariable Long id, @RequestBody Map<String, String> requestBody) {
+    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteBody(@PathVariable Long id, @RequestBody Map<String, String> requestBody,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
         String noteBody = requestBody.get("noteBody");
 
         if (noteBody == null || noteBody.trim().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Note body cannot be blank", null));
         }
 
+        noteAutosaveService.discard(id);
         return noteRepository.findById(id)
             .map(existingNote -> {
-                existingNote.setModifiedDate(LocalDateTime.now());
-                existingNote.setNoteBody(noteBody);
-                Note updatedNote = noteRepository.save(existingNote);
-                NoteDTO updatedNoteDTO = EntityMapper.toNoteDTO(updatedNote);
+                if (ETags.isPreconditionFailed(ifMatch, existingNote.getVersion())) {
+                    return preconditionFailed(id);
+                }
+                NoteDTO updatedNoteDTO = notePatchService.updateBody(existingNote, noteBody);
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNoteDTO));
                 ApiResponse<NoteDTO> response = new ApiResponse<>(true, "Note body updated successfully for note with ID " + id, updatedNoteDTO);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(ETags.ofVersion(updatedNoteDTO.getVersion(), representation)).body(response);
             })
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
     }
 
+    /**
+     * Applies a delta to the body of an existing note, so long notes can be edited without sending the whole body.
+     * The edits are spliced into the stored body by a single UPDATE that also checks the base version.
+     * The response carries the preview instead of the body, which the client already has.
+     *
+     * @param id    the ID of the note to update
+     * @param delta the base version and the edits against the body of that version
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated note, a 409 status if the note no longer has the base version,
+     *         a 400 status if the edits do not fit the body, or a 404 status if not found
+     */
+    @Operation(summary = "Apply note body delta", description = "Applies offset/delete/insert edits against a base version to the body of an existing note")
+    @PatchMapping("{id}/notebody")
+    public ResponseEntity<ApiResponse<NoteDTO>> applyNoteBodyDelta(@PathVariable long id, @Valid @RequestBody NoteBodyDeltaDTO delta,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        noteAutosaveService.discard(id);
+
+        return notePatchService.applyBodyDelta(id, delta)
+            .map(updatedNoteDTO -> {
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNoteDTO));
+                NoteDTO summary = new NoteDTO(updatedNoteDTO.getNoteId(), updatedNoteDTO.getNoteTitle(), null,
+                        updatedNoteDTO.getCreatedDate(), updatedNoteDTO.getModifiedDate(), updatedNoteDTO.getVersion(),
+                        updatedNoteDTO.getUserId(), updatedNoteDTO.getCategoryId());
+                summary.setNotePreview(Note.previewOf(updatedNoteDTO.getNoteBody()));
+                return ResponseEntity.ok()
+                    .eTag(ETags.ofVersion(updatedNoteDTO.getVersion(), representation))
+                    .body(new ApiResponse<>(true, "Note body updated successfully for note with ID " + id, summary));
+            })
+            .orElseGet(() -> {
+                // the update does not say why no row matched, so only a failed update pays for this check
+                Optional<Long> version = noteRepository.findVersionById(id);
+                if (version.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null));
+                }
+                if (!version.get().equals(delta.getBaseVersion())) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).eTag(ETags.ofVersion(version.get(), representation))
+                        .body(new ApiResponse<>(false, "Note with ID " + id + " has been changed since version " + delta.getBaseVersion(), null));
+                }
+                return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Edits do not fit the body of note with ID " + id, null));
+            });
+    }
+
+    /**
+     * Accepts the body of a note for a delayed write, for editors that save the same note every few seconds.
+     * The body is kept in memory and only the latest body per note is written, together with those of other notes,
+     * within {@code note.autosave.flush-interval}. Until then reads return the previous body. The note is not
+     * checked and the version is not compared, so an autosave to a missing note is silently dropped.
+     *
+     * @param id          the ID of the note
+     * @param requestBody the request body containing the new note body
+     * @return ResponseEntity with a 202 status, a 400 status if the body is blank or too long,
+     *         or a 503 status if too many autosaves are pending
+     */
+    @Operation(summary = "Autosave note body", description = "Accepts the body of a note and writes it to the database shortly after, coalescing repeated saves")
+    @PutMapping("{id}/notebody/autosave")
+    public ResponseEntity<ApiResponse<Void>> autosaveNoteBody(@PathVariable long id, @RequestBody Map<String, String> requestBody) {
+        String noteBody = requestBody.get("noteBody");
+
+        if (noteBody == null || noteBody.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Note body cannot be blank", null));
+        }
+        if (!Note.fitsBodyColumn(noteBody)) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Note body cannot be longer than " + Note.MAX_BODY_BYTES + " bytes", null));
+        }
+        if (!noteAutosaveService.submit(id, noteBody)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse<>(false, "Too many pending autosaves, please try again", null));
+        }
+        return ResponseEntity.accepted()
+                .body(new ApiResponse<>(true, "Note body of note with ID " + id + " accepted for autosave", null));
+    }
+
     /**
      * Updates the category of an existing note.
      *
      * @param id         the ID of the note to update
      * @param requestBody the request body containing the new category ID
-     * @return ResponseEntity containing ApiResponse with the updated note or a 404 status if not found
+     * @param ifMatch     Optional ETag the note must still have
+     * @param accept      Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated note, a 412 status if the note has changed, or a 404 status if not found
      */
     @Operation(summary = "Update note category", description = "Updates the category of an existing note")
     @PutMapping("{id}/category")
-    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteCategory(@PathVariable Long id, @RequestBody Map<String, Long> requestBody) {
+    public ResponseEntity<ApiResponse<NoteDTO>> updateNoteCategory(@PathVariable Long id, @RequestBody Map<String, Long> requestBody,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
         Long categoryId = requestBody.get("categoryId");
 
         if (categoryId == null || !categoryRepository.existsById(categoryId)) {
@@ -194,17 +509,66 @@ public class NoteController {
 
         return noteRepository.findById(id)
             .map(existingNote -> {
+                if (ETags.isPreconditionFailed(ifMatch, existingNote.getVersion())) {
+                    return preconditionFailed(id);
+                }
                 existingNote.setModifiedDate(LocalDateTime.now());
-                existingNote.setCategory(categoryRepository.findById(categoryId).orElse(null));
+                existingNote.setCategory(categoryRepository.getReferenceById(categoryId));
                 Note updatedNote = noteRepository.save(existingNote);
                 NoteDTO updatedNoteDTO = EntityMapper.toNoteDTO(updatedNote);
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNoteDTO));
                 ApiResponse<NoteDTO> response = new ApiResponse<>(true, "Note category updated successfully for note with ID " + id, updatedNoteDTO);
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(ETags.ofVersion(updatedNoteDTO.getVersion(), representation)).body(response);
             })
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
     }
 
+    /**
+     * Updates any subset of the title, body and category of an existing note.
+     * Only the given fields are written, in a single UPDATE statement, and the note is not loaded before.
+     *
+     * @param id    the ID of the note to update
+     * @param patch the fields to change
+     * @param ifMatch Optional ETag the note must still have, checked by the UPDATE itself
+     * @param accept Optional Accept header, which selects the representation and so the ETag
+     * @return ResponseEntity containing ApiResponse with the updated note, a 400 status if nothing is set or the
+     *         category does not exist, a 412 status if the note has changed, or a 404 status if the note is not found
+     */
+    @Operation(summary = "Update a note", description = "Updates any subset of title, body and category of an existing note")
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<NoteDTO>> patchNote(@PathVariable long id, @Valid @RequestBody NotePatchDTO patch,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType representation = ETags.representationOf(accept);
+        if (patch.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Nothing to update", null));
+        }
+        Long expectedVersion = ETags.versionOf(ifMatch);
+        if (patch.getNoteBody() != null) {
+            noteAutosaveService.discard(id);
+        }
+
+        return notePatchService.patchNote(id, patch, expectedVersion)
+            .map(updatedNoteDTO -> {
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNoteDTO));
+                return ResponseEntity.ok()
+                    .eTag(ETags.ofVersion(updatedNoteDTO.getVersion(), representation))
+                    .body(new ApiResponse<>(true, "Note with ID " + id + " updated successfully", updatedNoteDTO));
+            })
+            .orElseGet(() -> {
+                // the update does not say why no row matched, so only a failed update pays for this check
+                if (patch.getCategoryId() != null && !categoryRepository.existsById(patch.getCategoryId())) {
+                    return ResponseEntity.badRequest().body(new ApiResponse<>(false, "Invalid category ID", null));
+                }
+                if (expectedVersion != null && noteRepository.findVersionById(id).isPresent()) {
+                    return preconditionFailed(id);
+                }
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null));
+            });
+    }
+
     /**
      * Deletes a note by its ID.
      *
@@ -214,13 +578,40 @@ public class NoteController {
     @Operation(summary = "Delete a note", description = "Deletes a note by its ID")
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteNote(@PathVariable long id) {
+        noteAutosaveService.discard(id);
         return noteRepository.findById(id)
                 .map(note -> {
                     noteRepository.delete(note);
+                    eventPublisher.publishEvent(NoteChangedEvent.deleted(EntityMapper.toNoteDTO(note)));
                     ApiResponse<Void> response = new ApiResponse<>(true, "Note with ID " + id + " deleted successfully", null);
                     return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
                 })
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApiResponse<>(false, "Note with ID " + id + " not found", null)));
     }
+
+    /**
+     * Builds the 412 response for an update whose If-Match header no longer matches the note.
+     *
+     * @param id the ID of the note
+     * @return ResponseEntity with a 412 status
+     */
+    private ResponseEntity<ApiResponse<NoteDTO>> preconditionFailed(long id) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ApiResponse<>(false, "Note with ID " + id + " has been changed in the meantime", null));
+    }
+
+    /**
+     * Builds a 404 response with an ApiResponse body for the streaming endpoint,
+     * whose handler can only return a streaming body.
+     *
+     * @param message the error message
+     * @return ResponseEntity writing the ApiResponse as JSON
+     */
+    private ResponseEntity<StreamingResponseBody> notFoundStream(String message) {
+        ApiResponse<Void> response = new ApiResponse<>(false, message, null);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(objectMapper.writeValueAsBytes(response)));
+    }
 }
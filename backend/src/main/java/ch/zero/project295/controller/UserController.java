@@ -13,6 +13,7 @@ import ch.zero.project295.dto.UserDTO;
 import ch.zero.project295.model.User;
 import ch.zero.project295.repository.UserRepository;
 import ch.zero.project295.util.ApiResponse;
+import ch.zero.project295.util.CursorPaging;
 import ch.zero.project295.util.EntityMapper;
 
 /**
@@ -31,16 +32,28 @@ public class UserController {
     }
 
     /**
-     * Retrieves all users in the system.
+     * Retrieves a page of users ordered by ID.
+     * The response carries a nextCursor when more users follow.
      *
-     * @return ResponseEntity containing ApiResponse with a list of all users
+     * @param limit Optional page size, defaults to {@link CursorPaging#DEFAULT_LIMIT}
+     * @param after Optional cursor of the previous page
+     * @return ResponseEntity containing ApiResponse with a page of users
      */
-    @Operation(summary = "Get all users", description = "Retrieves all users in the system")
+    @Operation(summary = "Get all users", description = "Retrieves a page of users in the system")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
-        List<User> userList = userRepository.findAll();
+    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers(@RequestParam(value = "limit", required = false) Integer limit,
+                                                                 @RequestParam(value = "after", required = false) String after) {
+        int pageSize = CursorPaging.resolveLimit(limit);
+        long afterId = CursorPaging.decodeIdCursor(after);
+
+        List<User> userList = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(afterId, CursorPaging.fetchLimit(pageSize));
+        String nextCursor = null;
+        if (CursorPaging.hasNextPage(userList, pageSize)) {
+            userList = CursorPaging.trimToPage(userList, pageSize);
+            nextCursor = CursorPaging.encodeIdCursor(userList.get(userList.size() - 1).getUserId());
+        }
         List<UserDTO> userListDTO = EntityMapper.toUserDTOList(userList);
-        ApiResponse<List<UserDTO>> response = new ApiResponse<>(true, "Users retrieved successfully", userListDTO);
+        ApiResponse<List<UserDTO>> response = new ApiResponse<>(true, "Users retrieved successfully", userListDTO, nextCursor);
         return ResponseEntity.ok(response);
     }
 
@@ -72,7 +85,6 @@ public class UserController {
     @Operation(summary = "Register a new user", description = "Registers a new user in the system")
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<UserDTO>> registerUser(@Valid @RequestBody UserDTO userDTO) {
-        System.out.println("Received password: " + userDTO.getPassword()); // Debugging purpose; avoid logging passwords in production.
         User user = EntityMapper.toUserEntityRegistration(userDTO);
         User registeredUser = userRepository.save(user);
         UserDTO registeredUserDTO = EntityMapper.toUserDTO(registeredUser);
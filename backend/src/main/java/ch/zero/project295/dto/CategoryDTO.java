@@ -20,6 +20,7 @@ public class CategoryDTO {
     @NotNull(message = "User ID cannot be null")
     private long userId;
 
+    private long version;
 
     public long getCategoryId() {
         return categoryId;
@@ -44,4 +45,12 @@ public class CategoryDTO {
     public void setUserId(long userId) {
         this.userId = userId;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,38 @@
+package ch.zero.project295.dto;
+
+import ch.zero.project295.event.NoteChangedEvent.ChangeType;
+
+/**
+ * Represents the data of an event on the change feed.
+ * Holds the kind of change and the changed note or category. Notes are sent as summaries
+ * with a preview instead of the body, as in the note listings.
+ */
+public class ChangeEventDTO {
+    private ChangeType changeType;
+    private Object data;
+
+    public ChangeEventDTO() {
+        // json
+    }
+
+    public ChangeEventDTO(ChangeType changeType, Object data) {
+        this.changeType = changeType;
+        this.data = data;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
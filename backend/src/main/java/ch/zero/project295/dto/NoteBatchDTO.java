@@ -0,0 +1,28 @@
+package ch.zero.project295.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Represents the Data Transfer Object for creating many notes in one request.
+ * Every note is validated like a single note sent to POST /note.
+ */
+public class NoteBatchDTO {
+
+    public static final int MAX_NOTES = 10_000;
+
+    @NotEmpty(message = "Notes cannot be empty")
+    @Size(max = MAX_NOTES, message = "A batch cannot contain more than 10000 notes")
+    private List<@Valid NoteDTO> notes;
+
+    public List<NoteDTO> getNotes() {
+        return notes;
+    }
+
+    public void setNotes(List<NoteDTO> notes) {
+        this.notes = notes;
+    }
+}
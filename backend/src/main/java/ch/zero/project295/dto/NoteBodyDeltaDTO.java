@@ -0,0 +1,51 @@
+package ch.zero.project295.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Represents the Data Transfer Object for a delta update of a note body.
+ * All edits refer to the body of the base version, ordered by offset and without overlapping.
+ */
+public class NoteBodyDeltaDTO {
+
+    /**
+     * Maximum number of edits in one delta.
+     */
+    public static final int MAX_EDITS = 100;
+
+    @NotNull(message = "Base version is required")
+    private Long baseVersion;
+
+    @NotEmpty(message = "Delta must contain at least one edit")
+    @Size(max = MAX_EDITS, message = "Delta cannot contain more than " + MAX_EDITS + " edits")
+    private List<@Valid @NotNull NoteBodyEditDTO> edits;
+
+    public NoteBodyDeltaDTO() {
+    }
+
+    public NoteBodyDeltaDTO(Long baseVersion, List<NoteBodyEditDTO> edits) {
+        this.baseVersion = baseVersion;
+        this.edits = edits;
+    }
+
+    public Long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(Long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    public List<NoteBodyEditDTO> getEdits() {
+        return edits;
+    }
+
+    public void setEdits(List<NoteBodyEditDTO> edits) {
+        this.edits = edits;
+    }
+}
@@ -0,0 +1,53 @@
+package ch.zero.project295.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Represents one edit of a note body: remove {@code delete} characters at {@code offset} and insert {@code insert} there.
+ * Offsets count characters of the base body, as the database counts them.
+ */
+public class NoteBodyEditDTO {
+
+    @NotNull(message = "Offset is required")
+    @Min(value = 0, message = "Offset cannot be negative")
+    private Integer offset;
+
+    @Min(value = 0, message = "Delete count cannot be negative")
+    private int delete;
+
+    private String insert = "";
+
+    public NoteBodyEditDTO() {
+    }
+
+    public NoteBodyEditDTO(int offset, int delete, String insert) {
+        this.offset = offset;
+        this.delete = delete;
+        this.insert = insert;
+    }
+
+    public Integer getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    public int getDelete() {
+        return delete;
+    }
+
+    public void setDelete(int delete) {
+        this.delete = delete;
+    }
+
+    public String getInsert() {
+        return insert;
+    }
+
+    public void setInsert(String insert) {
+        this.insert = insert != null ? insert : "";
+    }
+}
@@ -2,6 +2,11 @@ package ch.zero.project295.dto;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import ch.zero.project295.util.NoteBodyCodec;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -9,7 +14,9 @@ import jakarta.validation.constraints.Size;
 /**
  * Represents the Data Transfer Object for Note.
  * Holds note details such as title, body, creation and modification timestamps,
- * as well as related user and category identifiers.
+ * as well as related user and category identifiers. Summary listings carry a short
+ * preview instead of the body; whichever of the two is missing is left out of the JSON.
+ * DTOs read from the database hold the body as stored and only decompress it when it is read.
  */
 public class NoteDTO {
 
@@ -22,18 +29,73 @@ public class NoteDTO {
 
     @NotNull(message = "body cannot be null")
     @NotBlank(message = "body cannot be empty")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String noteBody;
 
+    private byte[] noteBodyDeflated;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String notePreview;
+
     private LocalDateTime createdDate;
 
     private LocalDateTime modifiedDate;
 
+    private long version;
+
     @NotNull(message = "User ID cannot be null")
     private long userId;
 
     @NotNull(message = "category ID cannot be null")
     private long categoryId;
 
+    public NoteDTO() {
+        // json
+    }
+
+    /**
+     * Creates a fully populated NoteDTO with a plain body.
+     *
+     * @param noteId       the ID of the note
+     * @param noteTitle    the title of the note
+     * @param noteBody     the body of the note, or null
+     * @param createdDate  the creation date of the note
+     * @param modifiedDate the modification date of the note
+     * @param version      the version of the note, increased by every update
+     * @param userId       the ID of the owner of the note
+     * @param categoryId   the ID of the category of the note
+     */
+    public NoteDTO(long noteId, String noteTitle, String noteBody, LocalDateTime createdDate,
+                   LocalDateTime modifiedDate, long version, long userId, long categoryId) {
+        this(noteId, noteTitle, noteBody, null, createdDate, modifiedDate, version, userId, categoryId);
+    }
+
+    /**
+     * Creates a fully populated NoteDTO from the stored body. Used by the constructor expressions of the NoteRepository
+     * read queries, which build the DTO straight from the note columns.
+     *
+     * @param noteId           the ID of the note
+     * @param noteTitle        the title of the note
+     * @param noteBody         the plain body of the note, empty if it is stored compressed
+     * @param noteBodyDeflated the body compressed by {@link NoteBodyCodec}, or null if it is stored plain
+     * @param createdDate      the creation date of the note
+     * @param modifiedDate     the modification date of the note
+     * @param version          the version of the note, increased by every update
+     * @param userId           the ID of the owner of the note
+     * @param categoryId       the ID of the category of the note
+     */
+    public NoteDTO(long noteId, String noteTitle, String noteBody, byte[] noteBodyDeflated, LocalDateTime createdDate,
+                   LocalDateTime modifiedDate, long version, long userId, long categoryId) {
+        this.noteId = noteId;
+        this.noteTitle = noteTitle;
+        setStoredNoteBody(noteBody, noteBodyDeflated);
+        this.createdDate = createdDate;
+        this.modifiedDate = modifiedDate;
+        this.version = version;
+        this.userId = userId;
+        this.categoryId = categoryId;
+    }
+
     public long getNoteId() {
         return noteId;
     }
@@ -51,11 +113,37 @@ public class NoteDTO {
     }
 
     public String getNoteBody() {
+        if (noteBodyDeflated != null) {
+            noteBody = NoteBodyCodec.decompress(noteBodyDeflated);
+            noteBodyDeflated = null;
+        }
         return noteBody;
     }
 
     public void setNoteBody(String noteBody) {
         this.noteBody = noteBody;
+        this.noteBodyDeflated = null;
+    }
+
+    /**
+     * Sets the body as read from the note_body and note_body_deflated columns.
+     * A compressed body is decompressed on the first call of {@link #getNoteBody()}.
+     *
+     * @param noteBody         the plain body, empty if it is stored compressed
+     * @param noteBodyDeflated the compressed body, or null if it is stored plain
+     */
+    @JsonIgnore
+    public void setStoredNoteBody(String noteBody, byte[] noteBodyDeflated) {
+        this.noteBody = noteBodyDeflated != null ? null : noteBody;
+        this.noteBodyDeflated = noteBodyDeflated;
+    }
+
+    public String getNotePreview() {
+        return notePreview;
+    }
+
+    public void setNotePreview(String notePreview) {
+        this.notePreview = notePreview;
     }
 
     public LocalDateTime getCreatedDate() {
@@ -74,6 +162,14 @@ public class NoteDTO {
         this.modifiedDate = modifiedDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public long getUserId() {
         return userId;
     }
@@ -0,0 +1,53 @@
+package ch.zero.project295.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Represents the Data Transfer Object for a partial note update.
+ * Every field is optional; only the fields that are set are changed.
+ */
+public class NotePatchDTO {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title cannot be empty")
+    @Size(max = 50, message = "Title cannot be longer than 50 characters")
+    private String noteTitle;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "body cannot be empty")
+    private String noteBody;
+
+    private Long categoryId;
+
+    /**
+     * Checks whether the patch changes anything.
+     *
+     * @return true if no field is set
+     */
+    public boolean isEmpty() {
+        return noteTitle == null && noteBody == null && categoryId == null;
+    }
+
+    public String getNoteTitle() {
+        return noteTitle;
+    }
+
+    public void setNoteTitle(String noteTitle) {
+        this.noteTitle = noteTitle;
+    }
+
+    public String getNoteBody() {
+        return noteBody;
+    }
+
+    public void setNoteBody(String noteBody) {
+        this.noteBody = noteBody;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
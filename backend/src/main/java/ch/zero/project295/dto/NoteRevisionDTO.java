@@ -0,0 +1,94 @@
+package ch.zero.project295.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Represents the Data Transfer Object for an earlier revision of a note.
+ * The revision is the version the note had. Listings of revisions leave the body out.
+ */
+public class NoteRevisionDTO {
+
+    private long noteId;
+
+    private long revision;
+
+    private String noteTitle;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String noteBody;
+
+    private LocalDateTime modifiedDate;
+
+    private LocalDateTime supersededDate;
+
+    public NoteRevisionDTO() {
+        // json
+    }
+
+    /**
+     * Creates a revision without body. Used by the constructor expression of the revision listing query.
+     *
+     * @param noteId         the ID of the note
+     * @param revision       the version the note had
+     * @param noteTitle      the title the note had
+     * @param modifiedDate   when the note got this title and body
+     * @param supersededDate when the note was overwritten
+     */
+    public NoteRevisionDTO(long noteId, long revision, String noteTitle, LocalDateTime modifiedDate, LocalDateTime supersededDate) {
+        this.noteId = noteId;
+        this.revision = revision;
+        this.noteTitle = noteTitle;
+        this.modifiedDate = modifiedDate;
+        this.supersededDate = supersededDate;
+    }
+
+    public long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(long noteId) {
+        this.noteId = noteId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public String getNoteTitle() {
+        return noteTitle;
+    }
+
+    public void setNoteTitle(String noteTitle) {
+        this.noteTitle = noteTitle;
+    }
+
+    public String getNoteBody() {
+        return noteBody;
+    }
+
+    public void setNoteBody(String noteBody) {
+        this.noteBody = noteBody;
+    }
+
+    public LocalDateTime getModifiedDate() {
+        return modifiedDate;
+    }
+
+    public void setModifiedDate(LocalDateTime modifiedDate) {
+        this.modifiedDate = modifiedDate;
+    }
+
+    public LocalDateTime getSupersededDate() {
+        return supersededDate;
+    }
+
+    public void setSupersededDate(LocalDateTime supersededDate) {
+        this.supersededDate = supersededDate;
+    }
+}
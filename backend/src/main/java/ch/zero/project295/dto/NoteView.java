@@ -0,0 +1,32 @@
+package ch.zero.project295.dto;
+
+/**
+ * The set of note fields returned by a listing.
+ * <p>
+ * FULL returns every field including the body. SUMMARY leaves out the body and returns a short
+ * preview instead, so listings never read the body column.
+ * </p>
+ */
+public enum NoteView {
+    FULL,
+    SUMMARY;
+
+    /**
+     * Resolves the view from a request parameter.
+     *
+     * @param value the parameter value, may be null
+     * @return the view, FULL if no value is given
+     * @throws IllegalArgumentException if the value is not a known view
+     */
+    public static NoteView fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return FULL;
+        }
+        for (NoteView view : values()) {
+            if (view.name().equalsIgnoreCase(value)) {
+                return view;
+            }
+        }
+        throw new IllegalArgumentException("Unknown view " + value + ", expected full or summary");
+    }
+}
@@ -0,0 +1,42 @@
+package ch.zero.project295.event;
+
+import ch.zero.project295.dto.CategoryDTO;
+import ch.zero.project295.event.NoteChangedEvent.ChangeType;
+
+/**
+ * Published by the CategoryController after a category was created, updated or deleted.
+ * <p>
+ * Listeners react to it after the change is committed. For deletions the category holds the last state
+ * before it was deleted. The kinds of change are the same as for notes.
+ * </p>
+ */
+public class CategoryChangedEvent {
+
+    private final ChangeType changeType;
+    private final CategoryDTO category;
+
+    public CategoryChangedEvent(ChangeType changeType, CategoryDTO category) {
+        this.changeType = changeType;
+        this.category = category;
+    }
+
+    public static CategoryChangedEvent created(CategoryDTO category) {
+        return new CategoryChangedEvent(ChangeType.CREATED, category);
+    }
+
+    public static CategoryChangedEvent updated(CategoryDTO category) {
+        return new CategoryChangedEvent(ChangeType.UPDATED, category);
+    }
+
+    public static CategoryChangedEvent deleted(CategoryDTO category) {
+        return new CategoryChangedEvent(ChangeType.DELETED, category);
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public CategoryDTO getCategory() {
+        return category;
+    }
+}
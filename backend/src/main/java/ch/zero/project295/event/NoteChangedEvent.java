@@ -0,0 +1,54 @@
+package ch.zero.project295.event;
+
+import ch.zero.project295.dto.NoteDTO;
+
+/**
+ * Published by the NoteController after a note was created, updated or deleted.
+ * <p>
+ * Listeners that keep derived state (such as the search index) react to it after the change is committed.
+ * For deletions the note holds the last state before it was deleted.
+ * </p>
+ */
+public class NoteChangedEvent {
+
+    /**
+     * The kind of change that happened to the note.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+    private final NoteDTO note;
+
+    public NoteChangedEvent(ChangeType changeType, NoteDTO note) {
+        this.changeType = changeType;
+        this.note = note;
+    }
+
+    public static NoteChangedEvent created(NoteDTO note) {
+        return new NoteChangedEvent(ChangeType.CREATED, note);
+    }
+
+    public static NoteChangedEvent updated(NoteDTO note) {
+        return new NoteChangedEvent(ChangeType.UPDATED, note);
+    }
+
+    public static NoteChangedEvent deleted(NoteDTO note) {
+        return new NoteChangedEvent(ChangeType.DELETED, note);
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public long getNoteId() {
+        return note.getNoteId();
+    }
+
+    public NoteDTO getNote() {
+        return note;
+    }
+}
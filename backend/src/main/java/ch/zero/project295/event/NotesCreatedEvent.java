@@ -0,0 +1,24 @@
+package ch.zero.project295.event;
+
+import java.util.List;
+
+import ch.zero.project295.dto.NoteDTO;
+
+/**
+ * Published by the NoteController after a batch of notes was created.
+ * <p>
+ * Lets listeners apply the whole batch at once instead of reacting to one {@link NoteChangedEvent} per note.
+ * </p>
+ */
+public class NotesCreatedEvent {
+
+    private final List<NoteDTO> notes;
+
+    public NotesCreatedEvent(List<NoteDTO> notes) {
+        this.notes = notes;
+    }
+
+    public List<NoteDTO> getNotes() {
+        return notes;
+    }
+}
@@ -0,0 +1,68 @@
+package ch.zero.project295.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback filter that lets at most {@code maxPerSecond} DEBUG and TRACE events per logger and second through.
+ * <p>
+ * Debug logging in a loop, such as once per note of a listing, would otherwise produce one event per row.
+ * The filter runs before the event is created and keeps one lock-free counter per logger,
+ * so a rejected event costs no formatting and no queue slot. INFO and above are never limited.
+ * Configured in logback-spring.xml.
+ * </p>
+ */
+public class DebugRateLimitFilter extends TurboFilter {
+
+    private final ConcurrentHashMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+
+    private int maxPerSecond = 50;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // a null format is an isDebugEnabled() check, which must not use up the budget
+        if (format == null || level.isGreaterOrEqual(Level.INFO) || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        return tryAcquire(logger.getName(), System.currentTimeMillis() / 1000) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Counts an event of the given logger in the given second.
+     *
+     * @param loggerName the name of the logger
+     * @param second     the current time in seconds
+     * @return true if the event is within the limit
+     */
+    boolean tryAcquire(String loggerName, long second) {
+        // the window holds the second in the upper and the number of events in the lower 32 bits
+        AtomicLong window = windows.computeIfAbsent(loggerName, name -> new AtomicLong());
+        while (true) {
+            long state = window.get();
+            if (state >>> 32 != second) {
+                if (window.compareAndSet(state, second << 32 | 1)) {
+                    return true;
+                }
+            } else if ((int) state >= maxPerSecond) {
+                return false;
+            } else if (window.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
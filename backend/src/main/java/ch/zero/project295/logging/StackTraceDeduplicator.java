@@ -0,0 +1,64 @@
+package ch.zero.project295.logging;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether the stack trace of an exception is worth logging again.
+ * <p>
+ * Exceptions are identified by a fingerprint of their class and stack frames, including their causes.
+ * The full stack trace of a fingerprint is logged at most once per window; repeats can be logged as a single
+ * line that refers to the fingerprint. The number of remembered fingerprints is bounded.
+ * </p>
+ */
+public class StackTraceDeduplicator {
+
+    private final long windowMillis;
+    private final int maxFingerprints;
+    private final ConcurrentHashMap<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    public StackTraceDeduplicator(Duration window, int maxFingerprints) {
+        this.windowMillis = window.toMillis();
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * Computes the fingerprint of an exception from the classes and stack frames of it and its causes.
+     * The message is left out, so the same failure with different IDs has the same fingerprint.
+     *
+     * @param throwable the exception
+     * @return the fingerprint as 8 hex digits
+     */
+    public static String fingerprint(Throwable throwable) {
+        int hash = 1;
+        for (Throwable current = throwable; current != null; current = current.getCause() == current ? null : current.getCause()) {
+            hash = 31 * hash + current.getClass().getName().hashCode();
+            for (StackTraceElement element : current.getStackTrace()) {
+                hash = 31 * hash + element.hashCode();
+            }
+        }
+        return String.format("%08x", hash);
+    }
+
+    /**
+     * Records an occurrence of the fingerprint.
+     *
+     * @param fingerprint the fingerprint of the exception
+     * @param nowMillis   the current time
+     * @return true if its stack trace has not been logged within the window and should be logged now
+     */
+    public boolean shouldLogStackTrace(String fingerprint, long nowMillis) {
+        if (lastLogged.size() >= maxFingerprints && !lastLogged.containsKey(fingerprint)) {
+            lastLogged.clear();
+        }
+        boolean[] log = new boolean[1];
+        lastLogged.compute(fingerprint, (key, last) -> {
+            if (last == null || nowMillis - last >= windowMillis) {
+                log[0] = true;
+                return nowMillis;
+            }
+            return last;
+        });
+        return log[0];
+    }
+}
@@ -0,0 +1,38 @@
+package ch.zero.project295.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * <p>
+ * Hibernate calls the inspector for every statement it prepares, so the count of a request is the number
+ * of round trips it caused; a JDBC batch counts once. The count is reset by {@link SqlStatementMetricsFilter}
+ * at the start of every request.
+ * </p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Sets the count of the current thread back to zero.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the last reset.
+     *
+     * @return the number of statements
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,57 @@
+package ch.zero.project295.metrics;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the number of SQL statements of every request as the {@code http.server.requests.statements}
+ * distribution summary, tagged with the same {@code method} and {@code uri} as {@code http.server.requests}.
+ * <p>
+ * Requests that continue asynchronously, such as the streaming endpoints, are only counted up to the point
+ * the request thread is released.
+ * </p>
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.statements";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlStatementMetricsFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("SQL statements prepared per HTTP request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(SqlStatementCounter.count());
+            }
+        }
+    }
+}
@@ -4,10 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Represents a category in the system, which can be used to organize notes.
- * Each category is associated with a specific user.
+ * Each category is associated with a specific user, which is loaded lazily;
+ * the user ID is mapped a second time as a read-only column so it can be read without loading the user.
  */
 
 @Entity
@@ -22,10 +24,17 @@ public class Category {
     @Size(max = 50, message = "Title cannot be longer than 50 characters")
     private String categoryName;
 
-    @ManyToOne
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private long userId;
+
     public long getCategoryId() {
         return categoryId;
     }
@@ -42,12 +51,21 @@ public class Category {
         this.categoryName = categoryName;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public User getUser() {
         return user;
     }
 
     public void setUser(User user) {
         this.user = user;
+        this.userId = user != null ? user.getUserId() : 0L;
+    }
+
+    public long getUserId() {
+        return userId;
     }
 }
     
\ No newline at end of file
@@ -4,17 +4,47 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import ch.zero.project295.util.NoteBodyCodec;
 
 /**
  * Represents a note in the system, associated with a specific user.
  * Contains details like title, body, timestamps for creation and modification, and related user and category.
+ * Long bodies are stored compressed by {@link NoteBodyCompressionListener} and only decompressed when the body is read.
+ * The user and category are loaded lazily; their IDs are mapped a second time as read-only columns,
+ * so they can be read without loading the associated rows.
  */
 
 @Entity
+@EntityListeners(NoteBodyCompressionListener.class)
+@Table(indexes = {
+        @Index(name = "idx_note_category_modified", columnList = "category_id, modified_date, note_id"),
+        @Index(name = "idx_note_user_modified", columnList = "user_id, modified_date, note_id"),
+        @Index(name = "idx_note_modified", columnList = "modified_date, note_id")
+})
 public class Note {
 
+    /**
+     * Number of characters of the body kept in the preview column.
+     */
+    public static final int PREVIEW_LENGTH = 200;
+
+    /**
+     * Number of note IDs reserved per round trip to the ID generator table. IDs are assigned before the insert,
+     * which lets Hibernate send note inserts in JDBC batches.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * The most UTF-8 bytes a body may have: the note_body column is a MEDIUMTEXT of at most 16 MiB - 1 bytes.
+     */
+    public static final int MAX_BODY_BYTES = 16_777_215;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "note_id")
+    @TableGenerator(name = "note_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "note", allocationSize = ID_ALLOCATION_SIZE)
     private long noteId;
 
     @NotNull
@@ -22,22 +52,46 @@ public class Note {
     @Size(max = 50, message = "Title cannot be longer than 50 characters")
     private String noteTitle;
 
-    @NotNull
-    @NotBlank(message = "Body cannot be empty")
+    /**
+     * The plain body, or empty if the body is stored compressed.
+     */
+    @Column(columnDefinition = "mediumtext", nullable = false)
     private String noteBody;
 
+    /**
+     * The body compressed by {@link NoteBodyCodec}, or null if it is stored plain.
+     */
+    @Column(columnDefinition = "mediumblob")
+    private byte[] noteBodyDeflated;
+
+    @Transient
+    private String decodedNoteBody;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String notePreview;
+
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     private LocalDateTime createdDate;
 
     private LocalDateTime modifiedDate;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Column(name = "user_id", insertable = false, updatable = false)
+    private long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    @Column(name = "category_id", insertable = false, updatable = false)
+    private long categoryId;
+
     public long getNoteId() {
         return noteId;
     }
@@ -54,12 +108,96 @@ public class Note {
         this.noteTitle = noteTitle;
     }
 
+    /**
+     * Returns the body, decompressing it on the first call if it is stored compressed.
+     *
+     * @return the body
+     */
     public String getNoteBody() {
-        return noteBody;
-    }
-
+        if (decodedNoteBody == null) {
+            decodedNoteBody = noteBodyDeflated != null ? NoteBodyCodec.decompress(noteBodyDeflated) : noteBody;
+        }
+        return decodedNoteBody;
+    }
+
+    /**
+     * Sets the body and its preview. The body is compressed when the note is written, if it is long enough.
+     * The body is checked here rather than by a constraint on {@link #getNoteBody()}, which would make every
+     * validation of the note, such as the one before a title update, decompress the stored body.
+     *
+     * @param noteBody the body
+     * @throws IllegalArgumentException if the body is null or blank
+     */
     public void setNoteBody(String noteBody) {
+        if (noteBody == null || noteBody.isBlank()) {
+            throw new IllegalArgumentException("Body cannot be empty");
+        }
         this.noteBody = noteBody;
+        this.noteBodyDeflated = null;
+        this.decodedNoteBody = noteBody;
+        this.notePreview = previewOf(noteBody);
+    }
+
+    /**
+     * Stores a plain body compressed, if the codec compresses it.
+     *
+     * @param codec the codec with the compression settings
+     */
+    void compressBody(NoteBodyCodec codec) {
+        if (noteBodyDeflated == null) {
+            byte[] compressed = codec.compress(noteBody);
+            if (compressed != null) {
+                this.decodedNoteBody = noteBody;
+                this.noteBody = "";
+                this.noteBodyDeflated = compressed;
+            }
+        }
+    }
+
+    /**
+     * Returns the preview stored for the given body, its first {@link #PREVIEW_LENGTH} code points.
+     * Like the SQL substring of the backfill and the preview column, it counts code points,
+     * so a character outside the Basic Multilingual Plane, such as an emoji, is never cut in half.
+     *
+     * @param noteBody the body of a note
+     * @return the preview of the body
+     */
+    public static String previewOf(String noteBody) {
+        if (noteBody == null || noteBody.length() <= PREVIEW_LENGTH) {
+            return noteBody;
+        }
+        // a code point takes at most two chars, so only bodies this short can have fewer code points than the preview
+        if (noteBody.length() <= 2 * PREVIEW_LENGTH && noteBody.codePointCount(0, noteBody.length()) <= PREVIEW_LENGTH) {
+            return noteBody;
+        }
+        return noteBody.substring(0, noteBody.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    /**
+     * Checks whether a body fits the note_body column, without encoding it.
+     *
+     * @param noteBody the body of a note
+     * @return true if the body has at most {@link #MAX_BODY_BYTES} bytes in UTF-8
+     */
+    public static boolean fitsBodyColumn(String noteBody) {
+        if ((long) noteBody.length() * 3 <= MAX_BODY_BYTES) {
+            return true;
+        }
+        long bytes = 0;
+        for (int i = 0; i < noteBody.length() && bytes <= MAX_BODY_BYTES; i++) {
+            char c = noteBody.charAt(i);
+            // a surrogate pair takes four bytes
+            bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+        return bytes <= MAX_BODY_BYTES;
+    }
+
+    public String getNotePreview() {
+        return notePreview;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public LocalDateTime getCreatedDate() {
@@ -84,6 +222,11 @@ public class Note {
 
     public void setUser(User user) {
         this.user = user;
+        this.userId = user != null ? user.getUserId() : 0L;
+    }
+
+    public long getUserId() {
+        return userId;
     }
 
     public Category getCategory() {
@@ -92,11 +235,17 @@ public class Note {
 
     public void setCategory(Category category) {
         this.category = category;
+        this.categoryId = category != null ? category.getCategoryId() : 0L;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
     }
 
     @PrePersist
     public void onCreate() {
         this.createdDate = LocalDateTime.now();
+        this.modifiedDate = this.createdDate;
     }
 
     @PreUpdate
@@ -0,0 +1,37 @@
+package ch.zero.project295.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import ch.zero.project295.util.NoteBodyCodec;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Compresses the bodies of notes and revisions right before they are written, with the settings of the
+ * {@link NoteBodyCodec} bean. Hibernate creates the listener through the Spring bean factory, which injects the codec.
+ * Bodies that are already stored compressed are not compressed again.
+ */
+public class NoteBodyCompressionListener {
+
+    private final NoteBodyCodec codec;
+
+    @Autowired
+    public NoteBodyCompressionListener(NoteBodyCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Compresses the body of a note or revision about to be inserted or updated.
+     *
+     * @param entity the note or revision
+     */
+    @PrePersist
+    @PreUpdate
+    public void compressBody(Object entity) {
+        if (entity instanceof Note note) {
+            note.compressBody(codec);
+        } else if (entity instanceof NoteRevision revision) {
+            revision.compressBody(codec);
+        }
+    }
+}
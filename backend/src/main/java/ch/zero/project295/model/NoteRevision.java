@@ -0,0 +1,203 @@
+package ch.zero.project295.model;
+
+import java.time.LocalDateTime;
+
+import ch.zero.project295.util.NoteBodyCodec;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Represents an earlier state of a note: its title and body at one version, kept when the note was overwritten.
+ * <p>
+ * A revision is recorded as a full copy of the note row ({@link Kind#NEW}). {@code NoteRevisionCompactor}
+ * later replaces the body of most revisions by a reverse delta against the next newer revision of the note
+ * ({@link Kind#DELTA}): the lengths of the prefix and suffix they share and the text in between.
+ * Every few revisions a full body is kept ({@link Kind#SNAPSHOT}), so reading a revision applies a bounded
+ * number of deltas. Titles are short and always stored in full. Long bodies and delta texts are stored compressed
+ * by {@link NoteBodyCompressionListener}, and the copies keep the body of the note compressed if it is.
+ * </p>
+ * <p>
+ * There is no foreign key to the note, so revisions do not slow down deleting notes;
+ * the revisions of deleted notes are removed by the compactor.
+ * </p>
+ */
+@Entity
+@EntityListeners(NoteBodyCompressionListener.class)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_note_revision", columnNames = {"note_id", "revision"}),
+        indexes = @Index(name = "idx_note_revision_kind", columnList = "kind, note_id"))
+public class NoteRevision {
+
+    /**
+     * How the body of a revision is stored.
+     */
+    public enum Kind {
+        /** Full body, as copied from the note and not compacted yet. */
+        NEW,
+        /** Full body, kept so that reading a revision needs a bounded number of deltas. */
+        SNAPSHOT,
+        /** Difference to the body of the base revision. */
+        DELTA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long revisionId;
+
+    @Column(name = "note_id", nullable = false)
+    private long noteId;
+
+    /**
+     * The version the note had with this title and body.
+     */
+    @Column(nullable = false)
+    private long revision;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8, nullable = false)
+    private Kind kind;
+
+    /**
+     * For deltas, the revision whose body the delta is applied to.
+     */
+    private Long baseRevision;
+
+    private Integer prefixLength;
+
+    private Integer suffixLength;
+
+    @Column(length = 50)
+    private String noteTitle;
+
+    /**
+     * The full body or, for deltas, the text between prefix and suffix, or empty if it is stored compressed.
+     */
+    @Column(columnDefinition = "mediumtext")
+    private String noteBody;
+
+    /**
+     * The body or delta text compressed by {@link NoteBodyCodec}, or null if it is stored plain.
+     */
+    @Column(columnDefinition = "mediumblob")
+    private byte[] noteBodyDeflated;
+
+    /**
+     * When the note got this title and body.
+     */
+    private LocalDateTime modifiedDate;
+
+    /**
+     * When the note was overwritten, which the retention period counts from.
+     */
+    private LocalDateTime supersededDate;
+
+    public long getRevisionId() {
+        return revisionId;
+    }
+
+    public long getNoteId() {
+        return noteId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getBaseRevision() {
+        return baseRevision;
+    }
+
+    public Integer getPrefixLength() {
+        return prefixLength;
+    }
+
+    public Integer getSuffixLength() {
+        return suffixLength;
+    }
+
+    public String getNoteTitle() {
+        return noteTitle;
+    }
+
+    /**
+     * Returns the full body or the delta text, decompressed if it is stored compressed.
+     *
+     * @return the body or the delta text
+     */
+    public String getNoteBody() {
+        return noteBodyDeflated != null ? NoteBodyCodec.decompress(noteBodyDeflated) : noteBody;
+    }
+
+    public LocalDateTime getModifiedDate() {
+        return modifiedDate;
+    }
+
+    public LocalDateTime getSupersededDate() {
+        return supersededDate;
+    }
+
+    /**
+     * Keeps the full body of this revision.
+     */
+    public void markSnapshot() {
+        this.kind = Kind.SNAPSHOT;
+    }
+
+    /**
+     * Replaces the delta of this revision by its full body.
+     *
+     * @param body the full body of this revision
+     */
+    public void storeSnapshot(String body) {
+        this.kind = Kind.SNAPSHOT;
+        this.baseRevision = null;
+        this.prefixLength = null;
+        this.suffixLength = null;
+        this.noteBody = body;
+        this.noteBodyDeflated = null;
+    }
+
+    /**
+     * Replaces the full body of this revision by a delta against a newer revision.
+     *
+     * @param baseRevision the revision the delta is applied to
+     * @param prefixLength the number of leading characters taken from the base body
+     * @param suffixLength the number of trailing characters taken from the base body
+     * @param text         the text between prefix and suffix
+     */
+    public void storeDelta(long baseRevision, int prefixLength, int suffixLength, String text) {
+        this.kind = Kind.DELTA;
+        this.baseRevision = baseRevision;
+        this.prefixLength = prefixLength;
+        this.suffixLength = suffixLength;
+        this.noteBody = text;
+        this.noteBodyDeflated = null;
+    }
+
+    /**
+     * Stores a plain body or delta text compressed, if the codec compresses it.
+     *
+     * @param codec the codec with the compression settings
+     */
+    void compressBody(NoteBodyCodec codec) {
+        if (noteBodyDeflated == null) {
+            byte[] compressed = codec.compress(noteBody);
+            if (compressed != null) {
+                this.noteBody = "";
+                this.noteBodyDeflated = compressed;
+            }
+        }
+    }
+}
@@ -1,16 +1,72 @@
 package ch.zero.project295.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import ch.zero.project295.config.CacheConfig;
 import ch.zero.project295.model.Category;
 
 /**
- * Repository interface for accessing User data from the database.
+ * Repository interface for accessing Category data from the database.
  * <p>
  * This interface extends {@link JpaRepository}, providing CRUD operations
- * and additional JPA-related functionality for the User entity.
+ * and additional JPA-related functionality for the Category entity.
  * The generic parameters specify the type of the entity and the type of its ID.
+ * The result of {@link #existsById} is cached; {@link #save}, {@link #delete} and {@link #deleteById}
+ * evict the affected category, so writes must go through one of them.
  * </p>
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Override
+    @Cacheable(CacheConfig.CATEGORY_EXISTS)
+    boolean existsById(Long categoryId);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_EXISTS, key = "#result.categoryId")
+    <S extends Category> S save(S category);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_EXISTS, key = "#p0.categoryId")
+    void delete(Category category);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_EXISTS, key = "#p0")
+    void deleteById(Long categoryId);
+
+    /**
+     * Finds the page of categories following the given primary key.
+     *
+     * @param categoryId the ID of the last category of the previous page
+     * @param limit      the maximum number of categories to return
+     * @return the categories ordered by ID
+     */
+    List<Category> findByCategoryIdGreaterThanOrderByCategoryIdAsc(long categoryId, Limit limit);
+
+    /**
+     * Finds the version of a category, to answer conditional requests without reading the category.
+     *
+     * @param categoryId the ID of the category
+     * @return the version of the category, or empty if it does not exist
+     */
+    @Query("select c.version from Category c where c.categoryId = :categoryId")
+    Optional<Long> findVersionById(@Param("categoryId") long categoryId);
+
+    /**
+     * Finds which of the given category IDs exist, in a single query.
+     *
+     * @param categoryIds the IDs to check
+     * @return the IDs that belong to an existing category
+     */
+    @Query("select c.categoryId from Category c where c.categoryId in :categoryIds")
+    Set<Long> findExistingIds(@Param("categoryIds") Collection<Long> categoryIds);
 }
@@ -1,16 +1,165 @@
 package ch.zero.project295.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.zero.project295.dto.NoteDTO;
 import ch.zero.project295.model.Note;
+import jakarta.persistence.QueryHint;
 
 /**
- * Repository interface for accessing User data from the database.
+ * Repository interface for accessing Note data from the database.
  * <p>
  * This interface extends {@link JpaRepository}, providing CRUD operations
- * and additional JPA-related functionality for the User entity.
- * The generic parameters specify the type of the entity and the type of its ID.
+ * and additional JPA-related functionality for the Note entity.
+ * The read queries below build {@link NoteDTO}s directly from the columns of the note table,
+ * so no entities are managed and the user and category tables are not joined.
+ * The keyset page query lives in {@link NoteRepositoryCustom}.
  * </p>
  */
 
-public interface NoteRepository extends JpaRepository<Note, Long> {
-} 
\ No newline at end of file
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositoryCustom {
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming notes.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Select clause projecting a note onto a {@link NoteDTO}. The user and category IDs are read
+     * from the foreign key columns of the note table.
+     */
+    String SELECT_NOTE_DTO = "select new ch.zero.project295.dto.NoteDTO(n.noteId, n.noteTitle, n.noteBody, n.noteBodyDeflated,"
+            + " n.createdDate, n.modifiedDate, n.version, n.user.userId, n.category.categoryId) from Note n";
+
+    /**
+     * Finds a note by its ID.
+     *
+     * @param noteId the ID of the note
+     * @return the note, or empty if it does not exist
+     */
+    @Query(SELECT_NOTE_DTO + " where n.noteId = :noteId")
+    Optional<NoteDTO> findDTOById(@Param("noteId") long noteId);
+
+    /**
+     * Finds the version of a note, to answer conditional requests without reading the note.
+     *
+     * @param noteId the ID of the note
+     * @return the version of the note, or empty if it does not exist
+     */
+    @Query("select n.version from Note n where n.noteId = :noteId")
+    Optional<Long> findVersionById(@Param("noteId") long noteId);
+
+    /**
+     * Finds the compressed body of a note, if the note has the given version and its body is stored compressed.
+     *
+     * @param noteId  the ID of the note
+     * @param version the expected version
+     * @return the compressed body, or empty if the note does not exist, has another version or its body is stored plain
+     */
+    @Query("select n.noteBodyDeflated from Note n where n.noteId = :noteId and n.version = :version and n.noteBodyDeflated is not null")
+    Optional<byte[]> findDeflatedBody(@Param("noteId") long noteId, @Param("version") long version);
+
+    /**
+     * Finds the notes with the given IDs, in no particular order.
+     *
+     * @param noteIds the IDs of the notes
+     * @return the notes that exist
+     */
+    @Query(SELECT_NOTE_DTO + " where n.noteId in :noteIds")
+    List<NoteDTO> findDTOsByIds(@Param("noteIds") Collection<Long> noteIds);
+
+    /**
+     * Streams all notes ordered by ID. Must be consumed inside a transaction.
+     *
+     * @return a stream of all notes, fetched in batches of {@link #STREAM_FETCH_SIZE}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_NOTE_DTO + " order by n.noteId")
+    Stream<NoteDTO> streamAll();
+
+    /**
+     * Streams the notes of a category ordered by ID. Must be consumed inside a transaction.
+     *
+     * @param categoryId the ID of the category
+     * @return a stream of the notes of the category, fetched in batches of {@link #STREAM_FETCH_SIZE}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_NOTE_DTO + " where n.category.categoryId = :categoryId order by n.noteId")
+    Stream<NoteDTO> streamByCategory(@Param("categoryId") long categoryId);
+
+    /**
+     * Streams the notes of a user ordered by ID. Must be consumed inside a transaction.
+     *
+     * @param userId the ID of the user
+     * @return a stream of the notes of the user, fetched in batches of {@link #STREAM_FETCH_SIZE}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_NOTE_DTO + " where n.user.userId = :userId order by n.noteId")
+    Stream<NoteDTO> streamByUser(@Param("userId") long userId);
+
+    /**
+     * Streams the notes of a user in a category ordered by ID. Must be consumed inside a transaction.
+     *
+     * @param userId     the ID of the user
+     * @param categoryId the ID of the category
+     * @return a stream of the notes of the user in the category, fetched in batches of {@link #STREAM_FETCH_SIZE}
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_NOTE_DTO + " where n.user.userId = :userId and n.category.categoryId = :categoryId order by n.noteId")
+    Stream<NoteDTO> streamByUserAndCategory(@Param("userId") long userId, @Param("categoryId") long categoryId);
+
+    /**
+     * Finds notes that were stored before the modification date was set on creation.
+     *
+     * @param limit the maximum number of IDs
+     * @return the IDs of notes without modification date, in ID order
+     */
+    @Query("select n.noteId from Note n where n.modifiedDate is null order by n.noteId")
+    List<Long> findIdsWithoutModifiedDate(Limit limit);
+
+    /**
+     * Sets the modification date of notes that were never modified to their creation date,
+     * so that every note has a position in the keyset order.
+     *
+     * @param noteIds the IDs of the notes, from {@link #findIdsWithoutModifiedDate}
+     * @return the number of updated notes
+     */
+    @Transactional
+    @Modifying
+    @Query("update Note n set n.modifiedDate = n.createdDate where n.noteId in :noteIds and n.modifiedDate is null")
+    int backfillModifiedDate(@Param("noteIds") Collection<Long> noteIds);
+
+    /**
+     * Finds notes that were stored before the preview column existed.
+     *
+     * @param limit the maximum number of IDs
+     * @return the IDs of notes without preview, in ID order
+     */
+    @Query("select n.noteId from Note n where n.notePreview is null order by n.noteId")
+    List<Long> findIdsWithoutNotePreview(Limit limit);
+
+    /**
+     * Fills the preview of notes stored before the preview column existed.
+     *
+     * @param noteIds the IDs of the notes, from {@link #findIdsWithoutNotePreview}
+     * @return the number of updated notes
+     */
+    @Transactional
+    @Modifying
+    @Query("update Note n set n.notePreview = substring(n.noteBody, 1, " + Note.PREVIEW_LENGTH + ")"
+            + " where n.noteId in :noteIds and n.notePreview is null")
+    int backfillNotePreview(@Param("noteIds") Collection<Long> noteIds);
+}
@@ -0,0 +1,70 @@
+package ch.zero.project295.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import ch.zero.project295.dto.NoteBodyEditDTO;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.dto.NoteView;
+
+/**
+ * Note queries that are assembled at runtime and therefore implemented by hand in {@link NoteRepositoryImpl}.
+ */
+public interface NoteRepositoryCustom {
+
+    /**
+     * Finds the page of notes following the given (modifiedDate, noteId) sort key.
+     * Only the columns of the requested view are selected.
+     *
+     * @param userId     optional user ID to filter notes by owner
+     * @param categoryId optional category ID to filter notes by category
+     * @param view       the fields to return
+     * @param afterDate  the modification date of the last note of the previous page
+     * @param afterId    the ID of the last note of the previous page
+     * @param limit      the maximum number of notes to return
+     * @return the notes ordered by modification date and ID
+     */
+    List<NoteDTO> findPage(Long userId, Long categoryId, NoteView view, LocalDateTime afterDate, long afterId, Limit limit);
+
+    /**
+     * Finds the IDs and versions of the notes {@link #findPage} would return, to compute the ETag of a page
+     * without reading the notes.
+     *
+     * @param userId     optional user ID to filter notes by owner
+     * @param categoryId optional category ID to filter notes by category
+     * @param afterDate  the modification date of the last note of the previous page
+     * @param afterId    the ID of the last note of the previous page
+     * @param limit      the maximum number of notes to return
+     * @return pairs of note ID and version, ordered like the page
+     */
+    List<long[]> findPageVersions(Long userId, Long categoryId, LocalDateTime afterDate, long afterId, Limit limit);
+
+    /**
+     * Updates the fields set in the patch with a single UPDATE statement that only writes those columns
+     * and the modification date, and increases the version. A new category is only assigned if it exists.
+     *
+     * @param noteId       the ID of the note to update
+     * @param patch        the fields to change
+     * @param modifiedDate the new modification date
+     * @param expectedVersion optional version the note must still have
+     * @return 1 if the note was updated, 0 if the note or the new category does not exist or the version differs
+     */
+    int patch(long noteId, NotePatchDTO patch, LocalDateTime modifiedDate, Long expectedVersion);
+
+    /**
+     * Applies edits to the body of a note with a single UPDATE statement that splices the inserted texts between
+     * substrings of the stored body, so only the inserted texts are sent to the database. The preview and the
+     * modification date are updated and the version is increased. Bodies stored compressed are left alone.
+     *
+     * @param noteId       the ID of the note to update
+     * @param baseVersion  the version the edits refer to
+     * @param edits        the edits, ordered by offset and not overlapping
+     * @param modifiedDate the new modification date
+     * @return 1 if the note was updated, 0 if the note does not exist, has another version, its body is shorter than the edits
+     *         or stored compressed
+     */
+    int applyBodyEdits(long noteId, long baseVersion, List<NoteBodyEditDTO> edits, LocalDateTime modifiedDate);
+}
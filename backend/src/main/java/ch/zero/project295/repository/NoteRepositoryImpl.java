@@ -0,0 +1,182 @@
+package ch.zero.project295.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import ch.zero.project295.dto.NoteBodyEditDTO;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.dto.NoteView;
+import ch.zero.project295.model.Category;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.util.NoteBodyCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementation of {@link NoteRepositoryCustom}.
+ * <p>
+ * The page query selects plain columns of the note table and builds the DTOs itself, so the body column
+ * is only read for the FULL view and the user and category tables are never joined.
+ * The patch statement only sets the columns that change, without loading the note first.
+ * Body edits are spliced into the stored body by the database, without reading the body first,
+ * as long as the body is not stored compressed.
+ * </p>
+ */
+public class NoteRepositoryImpl implements NoteRepositoryCustom {
+
+    private static final String SELECT_FULL = "select n.noteId, n.noteTitle, n.noteBody,"
+            + " n.createdDate, n.modifiedDate, n.version, n.userId, n.categoryId, n.noteBodyDeflated from Note n";
+    private static final String SELECT_SUMMARY = "select n.noteId, n.noteTitle, n.notePreview,"
+            + " n.createdDate, n.modifiedDate, n.version, n.userId, n.categoryId from Note n";
+    private static final String SELECT_VERSIONS = "select n.noteId, n.version from Note n";
+    private static final String AFTER_KEY = " where (n.modifiedDate > :afterDate or (n.modifiedDate = :afterDate and n.noteId > :afterId))";
+    private static final String ORDER_BY_KEY = " order by n.modifiedDate, n.noteId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NoteBodyCodec noteBodyCodec;
+
+    @Autowired
+    public NoteRepositoryImpl(NoteBodyCodec noteBodyCodec) {
+        this.noteBodyCodec = noteBodyCodec;
+    }
+
+    @Override
+    public List<NoteDTO> findPage(Long userId, Long categoryId, NoteView view, LocalDateTime afterDate, long afterId, Limit limit) {
+        String select = view == NoteView.SUMMARY ? SELECT_SUMMARY : SELECT_FULL;
+        List<NoteDTO> notes = new ArrayList<>();
+        for (Object[] row : pageQuery(select, userId, categoryId, afterDate, afterId, limit).getResultList()) {
+            NoteDTO note = new NoteDTO();
+            note.setNoteId((Long) row[0]);
+            note.setNoteTitle((String) row[1]);
+            if (view == NoteView.SUMMARY) {
+                note.setNotePreview((String) row[2]);
+            } else {
+                note.setStoredNoteBody((String) row[2], (byte[]) row[8]);
+            }
+            note.setCreatedDate((LocalDateTime) row[3]);
+            note.setModifiedDate((LocalDateTime) row[4]);
+            note.setVersion((Long) row[5]);
+            note.setUserId((Long) row[6]);
+            note.setCategoryId((Long) row[7]);
+            notes.add(note);
+        }
+        return notes;
+    }
+
+    @Override
+    public List<long[]> findPageVersions(Long userId, Long categoryId, LocalDateTime afterDate, long afterId, Limit limit) {
+        List<long[]> versions = new ArrayList<>();
+        for (Object[] row : pageQuery(SELECT_VERSIONS, userId, categoryId, afterDate, afterId, limit).getResultList()) {
+            versions.add(new long[] {(Long) row[0], (Long) row[1]});
+        }
+        return versions;
+    }
+
+    private TypedQuery<Object[]> pageQuery(String select, Long userId, Long categoryId, LocalDateTime afterDate, long afterId, Limit limit) {
+        StringBuilder jpql = new StringBuilder(select);
+        jpql.append(AFTER_KEY);
+        if (userId != null) {
+            jpql.append(" and n.userId = :userId");
+        }
+        if (categoryId != null) {
+            jpql.append(" and n.categoryId = :categoryId");
+        }
+        jpql.append(ORDER_BY_KEY);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("afterDate", afterDate)
+                .setParameter("afterId", afterId);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query;
+    }
+
+    @Override
+    public int patch(long noteId, NotePatchDTO patch, LocalDateTime modifiedDate, Long expectedVersion) {
+        StringBuilder jpql = new StringBuilder("update Note n set n.modifiedDate = :modifiedDate, n.version = n.version + 1");
+        if (patch.getNoteTitle() != null) {
+            jpql.append(", n.noteTitle = :noteTitle");
+        }
+        if (patch.getNoteBody() != null) {
+            jpql.append(", n.noteBody = :noteBody, n.noteBodyDeflated = :noteBodyDeflated, n.notePreview = :notePreview");
+        }
+        if (patch.getCategoryId() != null) {
+            jpql.append(", n.category = :category");
+        }
+        jpql.append(" where n.noteId = :noteId");
+        if (expectedVersion != null) {
+            jpql.append(" and n.version = :expectedVersion");
+        }
+        if (patch.getCategoryId() != null) {
+            jpql.append(" and exists (select c.categoryId from Category c where c.categoryId = :categoryId)");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString())
+                .setParameter("modifiedDate", modifiedDate)
+                .setParameter("noteId", noteId);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        if (patch.getNoteTitle() != null) {
+            query.setParameter("noteTitle", patch.getNoteTitle());
+        }
+        if (patch.getNoteBody() != null) {
+            byte[] compressed = noteBodyCodec.compress(patch.getNoteBody());
+            query.setParameter("noteBody", compressed != null ? "" : patch.getNoteBody());
+            query.setParameter("noteBodyDeflated", compressed);
+            query.setParameter("notePreview", Note.previewOf(patch.getNoteBody()));
+        }
+        if (patch.getCategoryId() != null) {
+            query.setParameter("category", entityManager.getReference(Category.class, patch.getCategoryId()));
+            query.setParameter("categoryId", patch.getCategoryId());
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int applyBodyEdits(long noteId, long baseVersion, List<NoteBodyEditDTO> edits, LocalDateTime modifiedDate) {
+        StringBuilder body = new StringBuilder("concat(");
+        for (int i = 0; i < edits.size(); i++) {
+            body.append("substring(n.noteBody, :keepStart").append(i).append(", :keepLength").append(i).append("), ")
+                    .append(":insert").append(i).append(", ");
+        }
+        body.append("substring(n.noteBody, :tailStart))");
+        String jpql = "update Note n set n.noteBody = " + body
+                + ", n.notePreview = substring(" + body + ", 1, " + Note.PREVIEW_LENGTH + ")"
+                + ", n.modifiedDate = :modifiedDate, n.version = n.version + 1"
+                + " where n.noteId = :noteId and n.version = :baseVersion and length(n.noteBody) >= :end"
+                + " and n.noteBodyDeflated is null";
+
+        Query query = entityManager.createQuery(jpql)
+                .setParameter("modifiedDate", modifiedDate)
+                .setParameter("noteId", noteId)
+                .setParameter("baseVersion", baseVersion);
+        int position = 0;
+        for (int i = 0; i < edits.size(); i++) {
+            NoteBodyEditDTO edit = edits.get(i);
+            query.setParameter("keepStart" + i, position + 1);
+            query.setParameter("keepLength" + i, edit.getOffset() - position);
+            query.setParameter("insert" + i, edit.getInsert());
+            position = edit.getOffset() + edit.getDelete();
+        }
+        query.setParameter("tailStart", position + 1);
+        query.setParameter("end", position);
+        return query.executeUpdate();
+    }
+}
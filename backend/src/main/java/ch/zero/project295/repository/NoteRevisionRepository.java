@@ -0,0 +1,153 @@
+package ch.zero.project295.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.zero.project295.dto.NoteRevisionDTO;
+import ch.zero.project295.model.NoteRevision;
+
+/**
+ * Repository interface for accessing the revisions of notes.
+ * <p>
+ * Revisions are recorded by copying the note row inside the database, before the update that overwrites it,
+ * so recording one costs a single statement and the body does not travel to the application and back.
+ * {@code INSERT IGNORE} skips a revision that already exists, which happens when an update of the same
+ * version was recorded but then did not change the note.
+ * </p>
+ */
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+
+    /**
+     * Insert of the current titles and bodies of notes as new revisions, completed by the conditions of the notes.
+     */
+    String INSERT_REVISIONS = "insert ignore into note_revision"
+            + " (note_id, revision, kind, note_title, note_body, note_body_deflated, modified_date, superseded_date)"
+            + " select n.note_id, n.version, 'NEW', n.note_title, n.note_body, n.note_body_deflated, n.modified_date, :supersededDate"
+            + " from note n";
+
+    /**
+     * Insert of the current title and body of a note as a new revision, completed by the conditions of the note.
+     */
+    String INSERT_REVISION = INSERT_REVISIONS + " where n.note_id = :noteId";
+
+    /**
+     * Locks note rows for the update about to overwrite them. Copying a row into a revision only takes a shared lock
+     * on it, which two concurrent updates of the same note could both hold before each waits for the other
+     * to release it; taking the exclusive lock first makes the second update wait instead.
+     *
+     * @param noteIds the IDs of the notes
+     * @return the IDs of the notes that exist
+     */
+    @Query(value = "select note_id from note where note_id in (:noteIds) order by note_id for update", nativeQuery = true)
+    List<Long> lockNotes(@Param("noteIds") Collection<Long> noteIds);
+
+    /**
+     * Records the current state of a note as a revision, if the note still has the given version.
+     *
+     * @param noteId         the ID of the note
+     * @param version        the version the note must have
+     * @param supersededDate the time of the update about to overwrite the note
+     * @return 1 if a revision was recorded, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query(value = INSERT_REVISION + " and n.version = :version", nativeQuery = true)
+    int recordRevision(@Param("noteId") long noteId, @Param("version") long version,
+                       @Param("supersededDate") LocalDateTime supersededDate);
+
+    /**
+     * Records the current state of a note as a revision, whatever its version.
+     *
+     * @param noteId         the ID of the note
+     * @param supersededDate the time of the update about to overwrite the note
+     * @return 1 if a revision was recorded, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query(value = INSERT_REVISION, nativeQuery = true)
+    int recordCurrentRevision(@Param("noteId") long noteId, @Param("supersededDate") LocalDateTime supersededDate);
+
+    /**
+     * Records the current state of notes as revisions, except for notes that already have a revision
+     * superseded at or after the given time. Used by autosaves, which would otherwise record a revision per flush.
+     *
+     * @param noteIds        the IDs of the notes
+     * @param supersededDate the time of the update about to overwrite the notes
+     * @param since          the start of the period in which a note gets at most one revision
+     * @return the number of recorded revisions
+     */
+    @Transactional
+    @Modifying
+    @Query(value = INSERT_REVISIONS + " where n.note_id in (:noteIds) and not exists (select 1 from note_revision r"
+            + " where r.note_id = n.note_id and r.superseded_date >= :since)", nativeQuery = true)
+    int recordRevisionsUnlessRecordedSince(@Param("noteIds") Collection<Long> noteIds,
+                                           @Param("supersededDate") LocalDateTime supersededDate,
+                                           @Param("since") LocalDateTime since);
+
+    /**
+     * Lists the revisions of a note without their bodies, newest first.
+     *
+     * @param noteId the ID of the note
+     * @return the revisions of the note
+     */
+    @Query("select new ch.zero.project295.dto.NoteRevisionDTO(r.noteId, r.revision, r.noteTitle, r.modifiedDate, r.supersededDate)"
+            + " from NoteRevision r where r.noteId = :noteId order by r.revision desc")
+    List<NoteRevisionDTO> findSummaries(@Param("noteId") long noteId);
+
+    /**
+     * Finds a revision and the newer revisions its body is built from, oldest first.
+     *
+     * @param noteId   the ID of the note
+     * @param revision the oldest revision to read
+     * @param limit    the maximum number of revisions, at least the snapshot interval
+     * @return the revisions from the given one on
+     */
+    List<NoteRevision> findByNoteIdAndRevisionGreaterThanEqualOrderByRevisionAsc(long noteId, long revision, Limit limit);
+
+    /**
+     * Finds all revisions of a note, newest first.
+     *
+     * @param noteId the ID of the note
+     * @return the revisions of the note
+     */
+    List<NoteRevision> findByNoteIdOrderByRevisionDesc(long noteId);
+
+    /**
+     * Finds notes with full revisions that have a newer revision, so they can be turned into deltas.
+     *
+     * @param limit the maximum number of notes
+     * @return the IDs of the notes
+     */
+    @Query("select distinct r.noteId from NoteRevision r where r.kind = ch.zero.project295.model.NoteRevision.Kind.NEW"
+            + " and exists (select 1 from NoteRevision newer where newer.noteId = r.noteId and newer.revision > r.revision)")
+    List<Long> findNoteIdsToCompact(Limit limit);
+
+    /**
+     * Deletes the revisions that were superseded before the given time.
+     *
+     * @param cutoff the end of the retention period
+     * @return the number of deleted revisions
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from NoteRevision r where r.supersededDate < :cutoff")
+    int deleteSupersededBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Deletes the revisions of notes that no longer exist.
+     *
+     * @return the number of deleted revisions
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from NoteRevision r where not exists (select 1 from Note n where n.noteId = r.noteId)")
+    int deleteOrphans();
+}
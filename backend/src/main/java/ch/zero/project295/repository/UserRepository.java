@@ -1,6 +1,17 @@
 package ch.zero.project295.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import ch.zero.project295.config.CacheConfig;
 import ch.zero.project295.model.User;
 
 /**
@@ -9,7 +20,43 @@ import ch.zero.project295.model.User;
  * This interface extends {@link JpaRepository}, providing CRUD operations
  * and additional JPA-related functionality for the User entity.
  * The generic parameters specify the type of the entity and the type of its ID.
+ * The result of {@link #existsById} is cached; {@link #save}, {@link #delete} and {@link #deleteById}
+ * evict the affected user, so writes must go through one of them.
  * </p>
  */
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Override
+    @Cacheable(CacheConfig.USER_EXISTS)
+    boolean existsById(Long userId);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#result.userId")
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#p0.userId")
+    void delete(User user);
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#p0")
+    void deleteById(Long userId);
+
+    /**
+     * Finds the page of users following the given primary key.
+     *
+     * @param userId the ID of the last user of the previous page
+     * @param limit  the maximum number of users to return
+     * @return the users ordered by ID
+     */
+    List<User> findByUserIdGreaterThanOrderByUserIdAsc(long userId, Limit limit);
+
+    /**
+     * Finds which of the given user IDs exist, in a single query.
+     *
+     * @param userIds the IDs to check
+     * @return the IDs that belong to an existing user
+     */
+    @Query("select u.userId from User u where u.userId in :userIds")
+    Set<Long> findExistingIds(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,326 @@
+package ch.zero.project295.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.zero.project295.dto.CategoryDTO;
+import ch.zero.project295.dto.ChangeEventDTO;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.event.CategoryChangedEvent;
+import ch.zero.project295.event.NoteChangedEvent;
+import ch.zero.project295.event.NoteChangedEvent.ChangeType;
+import ch.zero.project295.event.NotesCreatedEvent;
+import ch.zero.project295.model.Note;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed note and category changes to the Server-Sent Events streams of their owner.
+ * <p>
+ * Every change is serialized once, gets the next event ID and is kept in a replay buffer of the last
+ * {@code note.feed.replay-size} events of all users, so a client that reconnects with Last-Event-ID receives
+ * what it missed. When that is not possible (the ID is from before a restart or has left the replay buffer),
+ * the client gets a {@code reset} event instead and reloads its notes once, as it does on the first connect.
+ * </p>
+ * <p>
+ * Open streams hold no thread: Tomcat parks the async requests, and a small pool of sender threads only works
+ * on streams with buffered events. Each stream buffers at most {@code note.feed.buffer-size} events; a client that
+ * falls behind further is evicted. Idle streams get a comment every {@code note.feed.heartbeat-interval}, so proxies
+ * keep them open and dead clients are noticed by the failing write.
+ * </p>
+ * <p>
+ * The feed is held in the memory of this instance and only carries changes made through it. Behind a load balancer
+ * a reconnect to another instance gets a {@code reset} event, because the epoch in the event ID differs.
+ * </p>
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private static final String NOTE_EVENT = "note";
+    private static final String CATEGORY_EVENT = "category";
+    private static final String RESET_EVENT = "reset";
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+
+    // identifies this run of the application, event IDs of an earlier run cannot be resumed
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // guarded by this
+    private final ArrayDeque<FeedEvent> replay = new ArrayDeque<>();
+    private long sequence;
+
+    private final Map<Long, Set<FeedConnection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final LongAdder eventCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @Autowired
+    public ChangeFeedService(ObjectMapper objectMapper,
+                             @Value("${note.feed.buffer-size:256}") int bufferSize,
+                             @Value("${note.feed.replay-size:10000}") int replaySize,
+                             @Value("${note.feed.timeout:30m}") Duration timeout,
+                             @Value("${note.feed.heartbeat-interval:15s}") Duration heartbeatInterval,
+                             @Value("${note.feed.sender-threads:16}") int senderThreads,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform().name("note-feed-sender-", 0).daemon().factory());
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("note-feed-heartbeat").daemon().factory());
+        long intervalMillis = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeatQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("note.feed.connections", this, ChangeFeedService::connectionCount)
+                    .description("Open change feed streams")
+                    .register(registry);
+            FunctionCounter.builder("note.feed.events", eventCount, LongAdder::sum)
+                    .description("Changes published on the change feed")
+                    .register(registry);
+            FunctionCounter.builder("note.feed.evictions", evictionCount, LongAdder::sum)
+                    .description("Change feed streams closed because the client did not keep up")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Opens a change feed stream for a user.
+     *
+     * @param userId      the ID of the user
+     * @param lastEventId the ID of the last event the client received, or null on the first connect
+     * @return the stream
+     */
+    public SseEmitter subscribe(long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        FeedConnection connection = new FeedConnection(userId, emitter, bufferSize, senders, () -> evict(userId));
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        synchronized (this) {
+            connection.offer(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected").build());
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayAfter(connection, lastEventId);
+            }
+            connectionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        return emitter;
+    }
+
+    /**
+     * Publishes a committed note change to the streams of the owner of the note.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        publishNote(event.getChangeType(), event.getNote());
+    }
+
+    /**
+     * Publishes a batch of created notes, one event per note.
+     *
+     * @param event the created notes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesCreated(NotesCreatedEvent event) {
+        for (NoteDTO note : event.getNotes()) {
+            publishNote(ChangeType.CREATED, note);
+        }
+    }
+
+    /**
+     * Publishes a committed category change to the streams of the owner of the category.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        CategoryDTO category = event.getCategory();
+        publish(category.getUserId(), CATEGORY_EVENT, new ChangeEventDTO(event.getChangeType(), category));
+    }
+
+    /**
+     * Returns the number of open streams.
+     *
+     * @return the number of open streams
+     */
+    public int connectionCount() {
+        int count = 0;
+        for (Set<FeedConnection> connections : connectionsByUser.values()) {
+            count += connections.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the ID of the latest event, which a client can resume from.
+     *
+     * @return the ID of the latest event
+     */
+    public synchronized String currentEventId() {
+        return eventId(sequence);
+    }
+
+    /**
+     * Completes all open streams, so clients reconnect to another instance while this one shuts down.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        heartbeats.shutdown();
+        List<FeedConnection> open = new ArrayList<>();
+        connectionsByUser.values().forEach(open::addAll);
+        connectionsByUser.clear();
+        for (FeedConnection connection : open) {
+            connection.close();
+            senders.execute(connection.getEmitter()::complete);
+        }
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void publishNote(ChangeType changeType, NoteDTO note) {
+        NoteDTO summary = new NoteDTO(note.getNoteId(), note.getNoteTitle(), null, note.getCreatedDate(),
+                note.getModifiedDate(), note.getVersion(), note.getUserId(), note.getCategoryId());
+        if (changeType != ChangeType.DELETED) {
+            summary.setNotePreview(Note.previewOf(note.getNoteBody()));
+        }
+        publish(note.getUserId(), NOTE_EVENT, new ChangeEventDTO(changeType, summary));
+    }
+
+    private void publish(long userId, String name, ChangeEventDTO change) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize {} change for the change feed", name, e);
+            return;
+        }
+        eventCount.increment();
+        synchronized (this) {
+            sequence++;
+            FeedEvent event = new FeedEvent(sequence, userId,
+                    SseEmitter.event().id(eventId(sequence)).name(name).data(json).build());
+            if (replay.size() >= replaySize) {
+                replay.removeFirst();
+            }
+            replay.addLast(event);
+            Set<FeedConnection> connections = connectionsByUser.get(userId);
+            if (connections != null) {
+                for (FeedConnection connection : connections) {
+                    connection.offer(event.data());
+                }
+            }
+        }
+    }
+
+    // called while holding the lock on this, so no event is published between the replay and the registration
+    private void replayAfter(FeedConnection connection, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        long oldestSequence = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || oldestSequence > lastSequence + 1) {
+            sendReset(connection);
+            return;
+        }
+        List<FeedEvent> missed = new ArrayList<>();
+        for (FeedEvent event : replay) {
+            if (event.sequence() > lastSequence && event.userId() == connection.getUserId()) {
+                missed.add(event);
+            }
+        }
+        // one slot is taken by the connected comment
+        if (missed.size() >= connection.getCapacity()) {
+            sendReset(connection);
+            return;
+        }
+        for (FeedEvent event : missed) {
+            connection.offer(event.data());
+        }
+    }
+
+    private void sendReset(FeedConnection connection) {
+        String currentId = eventId(sequence);
+        connection.offer(SseEmitter.event().id(currentId).name(RESET_EVENT).data(currentId).build());
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long eventSequence) {
+        return epoch + "-" + eventSequence;
+    }
+
+    private void evict(long userId) {
+        evictionCount.increment();
+        Set<FeedConnection> connections = connectionsByUser.get(userId);
+        if (connections != null) {
+            connections.removeIf(FeedConnection::isClosed);
+        }
+    }
+
+    private void unregister(FeedConnection connection) {
+        connection.close();
+        connectionsByUser.computeIfPresent(connection.getUserId(), (userId, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private void heartbeatQuietly() {
+        try {
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            for (Set<FeedConnection> connections : connectionsByUser.values()) {
+                for (FeedConnection connection : connections) {
+                    connection.offerIfRoom(heartbeat);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Sending change feed heartbeats failed", e);
+        }
+    }
+
+    private record FeedEvent(long sequence, long userId, Set<DataWithMediaType> data) {
+    }
+}
@@ -0,0 +1,146 @@
+package ch.zero.project295.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One open change feed stream, with a bounded buffer of events that have not been written yet.
+ * <p>
+ * Events are written by a task on the sender executor that runs only while the buffer is not empty,
+ * so an idle connection holds no thread. A client that does not read fast enough is evicted when its buffer
+ * is full: the buffer is dropped and the stream completed, and the client resumes with Last-Event-ID.
+ * </p>
+ */
+final class FeedConnection {
+
+    private final long userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor sender;
+    private final Runnable onEvicted;
+
+    // guarded by itself
+    private final ArrayDeque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closed;
+
+    FeedConnection(long userId, SseEmitter emitter, int capacity, Executor sender, Runnable onEvicted) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.sender = sender;
+        this.onEvicted = onEvicted;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Queues an event, evicting the connection if its buffer is full.
+     *
+     * @param event the built event
+     * @return false if the connection is closed or was evicted
+     */
+    boolean offer(Set<DataWithMediaType> event) {
+        synchronized (buffer) {
+            if (closed) {
+                return false;
+            }
+            if (buffer.size() >= capacity) {
+                closed = true;
+                buffer.clear();
+            } else {
+                buffer.add(event);
+                return startSending();
+            }
+        }
+        onEvicted.run();
+        // a stuck write holds the emitter, so it is completed on the sender instead of the publishing thread
+        sender.execute(emitter::complete);
+        return false;
+    }
+
+    /**
+     * Queues an event only if the buffer has room, for heartbeats that are not worth evicting a client for.
+     *
+     * @param event the built event
+     * @return false if the event was not queued
+     */
+    boolean offerIfRoom(Set<DataWithMediaType> event) {
+        synchronized (buffer) {
+            if (closed || buffer.size() >= capacity) {
+                return false;
+            }
+            buffer.add(event);
+            return startSending();
+        }
+    }
+
+    /**
+     * Drops the buffer and stops accepting events, after the stream was completed or failed.
+     */
+    void close() {
+        synchronized (buffer) {
+            closed = true;
+            buffer.clear();
+        }
+    }
+
+    boolean isClosed() {
+        synchronized (buffer) {
+            return closed;
+        }
+    }
+
+    int bufferedCount() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    // called while holding the buffer lock
+    private boolean startSending() {
+        if (!sending) {
+            sending = true;
+            sender.execute(this::sendBuffered);
+        }
+        return true;
+    }
+
+    private void sendBuffered() {
+        while (true) {
+            Set<DataWithMediaType> event;
+            synchronized (buffer) {
+                event = buffer.poll();
+                if (event == null || closed) {
+                    sending = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone or the stream already completed, the emitter callbacks unregister the connection
+                close();
+                synchronized (buffer) {
+                    sending = false;
+                }
+                return;
+            }
+        }
+    }
+}
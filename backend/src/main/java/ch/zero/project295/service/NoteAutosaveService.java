@@ -0,0 +1,240 @@
+package ch.zero.project295.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.event.NoteChangedEvent;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.repository.NoteRepository;
+import ch.zero.project295.util.NoteBodyCodec;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffers autosaved note bodies in memory and writes them to the database later, in batches.
+ * <p>
+ * Only the latest body per note is kept, so an editor saving the same note every few seconds causes
+ * one UPDATE per flush instead of one per save. The buffer is flushed every {@code note.autosave.flush-interval},
+ * as soon as {@code note.autosave.flush-threshold} notes are pending, and when the application shuts down.
+ * A flush writes all pending bodies in one JDBC batch and transaction, increases the version of every written note
+ * and publishes a {@link NoteChangedEvent} for it after the commit. The bodies they replace are kept as revisions
+ * by one statement in the same transaction, at most one per note every {@code note.revision.autosave-interval}.
+ * </p>
+ * <p>
+ * Durability: an accepted autosave only lives in the memory of this instance until the next flush. It is lost
+ * if the process is killed or crashes before that, and it is not visible to reads or to other instances
+ * in the meantime. A graceful shutdown flushes the buffer before the connection pool is closed.
+ * If a flush fails, its notes are written one by one, so a body that cannot be written does not hold back the others.
+ * Bodies the database rejects are dropped and logged; bodies that failed for another reason, such as a lost connection,
+ * are put back unless a newer body arrived meanwhile, and are retried with the next flush.
+ * Autosaves to notes that do not exist (anymore) are dropped when flushed.
+ * </p>
+ */
+@Service
+public class NoteAutosaveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteAutosaveService.class);
+
+    private static final String UPDATE_NOTE_BODY = "update note set note_body = ?, note_body_deflated = ?, note_preview = ?, modified_date = ?,"
+            + " version = version + 1 where note_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteRepository noteRepository;
+    private final NoteRevisionService noteRevisionService;
+    private final NoteBodyCodec noteBodyCodec;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int flushThreshold;
+    private final int capacity;
+
+    private final Map<Long, String> pendingBodies = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    @Autowired
+    public NoteAutosaveService(JdbcTemplate jdbcTemplate, NoteRepository noteRepository, NoteRevisionService noteRevisionService,
+                               NoteBodyCodec noteBodyCodec, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${note.autosave.flush-interval:2s}") Duration flushInterval,
+                               @Value("${note.autosave.flush-threshold:500}") int flushThreshold,
+                               @Value("${note.autosave.capacity:10000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.noteRepository = noteRepository;
+        this.noteRevisionService = noteRevisionService;
+        this.noteBodyCodec = noteBodyCodec;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.flushThreshold = flushThreshold;
+        this.capacity = capacity;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("note-autosave").daemon().factory());
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Accepts a new body for a note, replacing any body of the same note that has not been written yet.
+     *
+     * @param noteId   the ID of the note
+     * @param noteBody the new body
+     * @return false if the buffer is full and the body was not accepted
+     * @throws IllegalArgumentException if the body does not fit the note_body column
+     */
+    public boolean submit(long noteId, String noteBody) {
+        if (!Note.fitsBodyColumn(noteBody)) {
+            throw new IllegalArgumentException("Note body cannot be longer than " + Note.MAX_BODY_BYTES + " bytes");
+        }
+        if (pendingBodies.size() >= capacity && !pendingBodies.containsKey(noteId)) {
+            return false;
+        }
+        pendingBodies.put(noteId, noteBody);
+        if (pendingBodies.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drops the pending body of a note, because the note is about to be written or deleted directly.
+     * Waits for a running flush, so that body cannot be written after the direct change either.
+     *
+     * @param noteId the ID of the note
+     */
+    public void discard(long noteId) {
+        flushLock.lock();
+        try {
+            pendingBodies.remove(noteId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of notes with a body that has not been written yet.
+     *
+     * @return the number of pending notes
+     */
+    public int pendingCount() {
+        return pendingBodies.size();
+    }
+
+    /**
+     * Writes all pending bodies to the database.
+     *
+     * @return the number of notes that were updated
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, String> batch = new LinkedHashMap<>();
+            for (Long noteId : pendingBodies.keySet()) {
+                String noteBody = pendingBodies.remove(noteId);
+                if (noteBody != null) {
+                    batch.put(noteId, noteBody);
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                return write(batch);
+            } catch (RuntimeException e) {
+                logger.debug("Writing {} note autosaves in one batch failed, writing them one by one", batch.size(), e);
+                return writeOneByOne(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes what is still pending, before the connection pool is closed.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        int pending = pendingBodies.size();
+        if (pending > 0) {
+            logger.info("Flushing {} pending note autosaves before shutdown", pending);
+            flush();
+        }
+    }
+
+    private int write(Map<Long, String> batch) {
+        LocalDateTime modifiedDate = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((noteId, noteBody) -> {
+            byte[] compressed = noteBodyCodec.compress(noteBody);
+            rows.add(new Object[] {compressed != null ? "" : noteBody, compressed, Note.previewOf(noteBody), modifiedDate, noteId});
+        });
+
+        return transactionTemplate.execute(status -> {
+            noteRevisionService.recordAutosaveRevisions(batch.keySet(), modifiedDate);
+            jdbcTemplate.batchUpdate(UPDATE_NOTE_BODY, rows);
+            List<NoteDTO> updatedNotes = noteRepository.findDTOsByIds(batch.keySet());
+            if (updatedNotes.size() < batch.size()) {
+                logger.debug("Dropped autosaves of {} notes that do not exist", batch.size() - updatedNotes.size());
+            }
+            for (NoteDTO updatedNote : updatedNotes) {
+                eventPublisher.publishEvent(NoteChangedEvent.updated(updatedNote));
+            }
+            return updatedNotes.size();
+        });
+    }
+
+    /**
+     * Writes the notes of a failed batch one at a time. Notes the database rejects are dropped,
+     * the others are put back and the last failure is rethrown.
+     */
+    private int writeOneByOne(Map<Long, String> batch) {
+        int written = 0;
+        RuntimeException failure = null;
+        for (Map.Entry<Long, String> entry : batch.entrySet()) {
+            try {
+                written += write(Map.of(entry.getKey(), entry.getValue()));
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Dropped the autosave of note {}, the database rejected its body", entry.getKey(), e);
+            } catch (RuntimeException e) {
+                pendingBodies.putIfAbsent(entry.getKey(), entry.getValue());
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Flushing note autosaves failed, {} notes stay pending", pendingBodies.size(), e);
+        }
+    }
+}
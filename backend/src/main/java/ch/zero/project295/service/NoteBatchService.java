@@ -0,0 +1,60 @@
+package ch.zero.project295.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.util.EntityMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Inserts many notes in one transaction.
+ * <p>
+ * Note IDs come from a pooled generator, so Hibernate can group the inserts into JDBC batches of
+ * {@code hibernate.jdbc.batch_size}. The persistence context is flushed and cleared after every batch
+ * to keep memory use independent of the number of notes.
+ * </p>
+ */
+@Service
+public class NoteBatchService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int batchSize;
+
+    public NoteBatchService(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the given notes. The referenced users and categories must exist.
+     *
+     * @param noteDTOs the notes to create
+     * @return the created notes, in the same order
+     */
+    @Transactional
+    public List<NoteDTO> createNotes(List<NoteDTO> noteDTOs) {
+        List<NoteDTO> created = new ArrayList<>(noteDTOs.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < noteDTOs.size(); i++) {
+            Note note = EntityMapper.toNoteEntity(noteDTOs.get(i));
+            note.setNoteId(0L);
+            note.setCreatedDate(now);
+            entityManager.persist(note);
+            created.add(EntityMapper.toNoteDTO(note));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,97 @@
+package ch.zero.project295.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import ch.zero.project295.util.NoteBodyCodec;
+
+/**
+ * Compresses the bodies of notes stored before compression was enabled.
+ * <p>
+ * Runs once in the background when the application is ready and compression is enabled. The notes are read
+ * in batches of {@code note.body.compression.reencode-batch-size} in ID order, and every batch is written
+ * with one JDBC batch. A row is only rewritten if its version did not change since it was read, and its version
+ * and modification date stay as they are, because its content does not change.
+ * </p>
+ */
+@Service
+public class NoteBodyReencoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteBodyReencoder.class);
+
+    private static final String SELECT_PLAIN_BODIES = "select note_id, version, note_body from note"
+            + " where note_id > ? and note_body_deflated is null and character_length(note_body) >= ? order by note_id limit ?";
+    private static final String UPDATE_BODY = "update note set note_body = '', note_body_deflated = ? where note_id = ? and version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteBodyCodec noteBodyCodec;
+    private final int batchSize;
+
+    @Autowired
+    public NoteBodyReencoder(JdbcTemplate jdbcTemplate, NoteBodyCodec noteBodyCodec,
+                             @Value("${note.body.compression.reencode-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.noteBodyCodec = noteBodyCodec;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts compressing the existing bodies once the application is ready, if compression is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reencodeInBackground() {
+        if (noteBodyCodec.isEnabled()) {
+            Thread.ofVirtual().name("note-body-reencode").start(this::reencodeQuietly);
+        }
+    }
+
+    /**
+     * Compresses all stored bodies that are long enough and not compressed yet.
+     *
+     * @return the number of notes that were compressed
+     */
+    public int reencodeAll() {
+        int reencoded = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(SELECT_PLAIN_BODIES,
+                    (resultSet, rowNum) -> new Object[] {resultSet.getLong(1), resultSet.getLong(2), resultSet.getString(3)},
+                    afterId, noteBodyCodec.getThreshold(), batchSize);
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : rows) {
+                byte[] compressed = noteBodyCodec.compress((String) row[2]);
+                if (compressed != null) {
+                    updates.add(new Object[] {compressed, row[0], row[1]});
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_BODY, updates);
+                reencoded += updates.size();
+            }
+            if (rows.size() < batchSize) {
+                return reencoded;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private void reencodeQuietly() {
+        try {
+            int reencoded = reencodeAll();
+            if (reencoded > 0) {
+                logger.info("Compressed the bodies of {} existing notes", reencoded);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Compressing the bodies of existing notes failed", e);
+        }
+    }
+}
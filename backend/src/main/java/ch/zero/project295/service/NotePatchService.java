@@ -0,0 +1,186 @@
+package ch.zero.project295.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import ch.zero.project295.dto.NoteBodyDeltaDTO;
+import ch.zero.project295.dto.NoteBodyEditDTO;
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.model.Note;
+import ch.zero.project295.repository.NoteRepository;
+import ch.zero.project295.util.EntityMapper;
+import ch.zero.project295.util.NoteBodyCodec;
+
+/**
+ * Applies partial note updates.
+ * <p>
+ * The note is never loaded as an entity: one UPDATE writes the changed columns and one projection query
+ * reads the updated note back in the same transaction. MySQL has no UPDATE ... RETURNING, so the read
+ * cannot be folded into the update. Body deltas are spliced in by the database, except for bodies stored
+ * compressed, which are read, edited and written back.
+ * </p>
+ * <p>
+ * The previous title and body are recorded as a revision in the transaction of the update, before it
+ * overwrites them. An update that does not happen rolls the transaction back, so it leaves no revision behind.
+ * </p>
+ */
+@Service
+public class NotePatchService {
+
+    private final NoteRepository noteRepository;
+    private final NoteRevisionService noteRevisionService;
+
+    @Autowired
+    public NotePatchService(NoteRepository noteRepository, NoteRevisionService noteRevisionService) {
+        this.noteRepository = noteRepository;
+        this.noteRevisionService = noteRevisionService;
+    }
+
+    /**
+     * Updates the fields set in the patch. If the title or body changes, the previous ones are kept as a revision.
+     *
+     * @param noteId          the ID of the note to update
+     * @param patch           the fields to change
+     * @param expectedVersion optional version the note must still have
+     * @return the updated note, or empty if the note or the new category does not exist or the version differs
+     */
+    @Transactional
+    public Optional<NoteDTO> patchNote(long noteId, NotePatchDTO patch, Long expectedVersion) {
+        if (patch.getNoteTitle() != null || patch.getNoteBody() != null) {
+            if (expectedVersion != null) {
+                noteRevisionService.recordRevision(noteId, expectedVersion);
+            } else {
+                noteRevisionService.recordCurrentRevision(noteId);
+            }
+        }
+        if (noteRepository.patch(noteId, patch, LocalDateTime.now(), expectedVersion) == 0) {
+            return rollBack();
+        }
+        return noteRepository.findDTOById(noteId);
+    }
+
+    /**
+     * Replaces the title of a note that was read before. The previous title and body are kept as a revision.
+     *
+     * @param note      the note as read, with the version the update refers to
+     * @param noteTitle the new title
+     * @return the updated note
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the note was changed since it was read
+     */
+    @Transactional
+    public NoteDTO updateTitle(Note note, String noteTitle) {
+        noteRevisionService.recordRevision(note.getNoteId(), note.getVersion());
+        note.setModifiedDate(LocalDateTime.now());
+        note.setNoteTitle(noteTitle);
+        return EntityMapper.toNoteDTO(noteRepository.saveAndFlush(note));
+    }
+
+    /**
+     * Replaces the body of a note that was read before. The previous title and body are kept as a revision.
+     *
+     * @param note     the note as read, with the version the update refers to
+     * @param noteBody the new body
+     * @return the updated note
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the note was changed since it was read
+     */
+    @Transactional
+    public NoteDTO updateBody(Note note, String noteBody) {
+        noteRevisionService.recordRevision(note.getNoteId(), note.getVersion());
+        note.setModifiedDate(LocalDateTime.now());
+        note.setNoteBody(noteBody);
+        return EntityMapper.toNoteDTO(noteRepository.saveAndFlush(note));
+    }
+
+    /**
+     * Applies a delta to the body of a note, if the note still has the base version of the delta.
+     * The previous body is kept as a revision.
+     *
+     * @param noteId the ID of the note to update
+     * @param delta  the edits and the version they refer to
+     * @return the updated note, or empty if the note does not exist, the version differs or the body is shorter than the edits
+     * @throws IllegalArgumentException if the edits overlap or are out of order, or if they leave the body blank
+     */
+    @Transactional
+    public Optional<NoteDTO> applyBodyDelta(long noteId, NoteBodyDeltaDTO delta) {
+        List<NoteBodyEditDTO> edits = delta.getEdits();
+        int position = 0;
+        for (NoteBodyEditDTO edit : edits) {
+            if (edit.getOffset() < position) {
+                throw new IllegalArgumentException("Edits must be ordered by offset and must not overlap");
+            }
+            position = edit.getOffset() + edit.getDelete();
+        }
+
+        noteRevisionService.recordRevision(noteId, delta.getBaseVersion());
+        LocalDateTime modifiedDate = LocalDateTime.now();
+        if (noteRepository.applyBodyEdits(noteId, delta.getBaseVersion(), edits, modifiedDate) == 0
+                && !applyToCompressedBody(noteId, delta.getBaseVersion(), edits, modifiedDate)) {
+            return rollBack();
+        }
+        NoteDTO updatedNote = noteRepository.findDTOById(noteId).orElseThrow();
+        if (updatedNote.getNoteBody().isBlank()) {
+            // rolls the update back
+            throw new IllegalArgumentException("Note body cannot be blank");
+        }
+        return Optional.of(updatedNote);
+    }
+
+    /**
+     * Marks the transaction for rollback, so the revision recorded for an update that did not happen is dropped.
+     *
+     * @return an empty result
+     */
+    private static <T> Optional<T> rollBack() {
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return Optional.empty();
+    }
+
+    /**
+     * Applies edits to a body that is stored compressed, which the database cannot splice:
+     * the body is read, edited and written back compressed, if the version still matches.
+     *
+     * @return true if the note was updated
+     */
+    private boolean applyToCompressedBody(long noteId, long baseVersion, List<NoteBodyEditDTO> edits, LocalDateTime modifiedDate) {
+        Optional<byte[]> compressedBody = noteRepository.findDeflatedBody(noteId, baseVersion);
+        if (compressedBody.isEmpty()) {
+            return false;
+        }
+        String noteBody = applyEdits(NoteBodyCodec.decompress(compressedBody.get()), edits);
+        if (noteBody == null) {
+            return false;
+        }
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setNoteBody(noteBody);
+        return noteRepository.patch(noteId, patch, modifiedDate, baseVersion) == 1;
+    }
+
+    /**
+     * Applies edits to a body, counting offsets in code points like the database does.
+     *
+     * @return the edited body, or null if the body is shorter than the edits
+     */
+    static String applyEdits(String noteBody, List<NoteBodyEditDTO> edits) {
+        NoteBodyEditDTO last = edits.get(edits.size() - 1);
+        if (last.getOffset() + last.getDelete() > noteBody.codePointCount(0, noteBody.length())) {
+            return null;
+        }
+        StringBuilder edited = new StringBuilder(noteBody.length());
+        int position = 0;
+        int index = 0;
+        for (NoteBodyEditDTO edit : edits) {
+            int start = noteBody.offsetByCodePoints(index, edit.getOffset() - position);
+            edited.append(noteBody, index, start).append(edit.getInsert());
+            index = noteBody.offsetByCodePoints(start, edit.getDelete());
+            position = edit.getOffset() + edit.getDelete();
+        }
+        return edited.append(noteBody, index, noteBody.length()).toString();
+    }
+}
@@ -0,0 +1,179 @@
+package ch.zero.project295.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.zero.project295.model.NoteRevision;
+import ch.zero.project295.model.NoteRevision.Kind;
+import ch.zero.project295.repository.NoteRevisionRepository;
+import ch.zero.project295.util.TextDiff;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns the full copies recorded as revisions into deltas and enforces the retention of revisions,
+ * in the background every {@code note.revision.compaction-interval}, so the update path only pays for the copy.
+ * <p>
+ * A revision becomes a reverse delta against the next newer revision of its note. The newest revision
+ * of a note stays a full copy, and so does every revision that would otherwise end a run of
+ * {@code note.revision.snapshot-interval} deltas, which bounds the deltas applied when a revision is read.
+ * A revision whose delta would not be smaller than its body is kept in full as well.
+ * </p>
+ * <p>
+ * Retention: a note keeps its newest {@code note.revision.max-per-note} revisions, and revisions superseded longer
+ * than {@code note.revision.max-age} ago are deleted, as are the revisions of deleted notes. Deltas only refer
+ * to newer revisions, so deleting the oldest ones never breaks the others.
+ * </p>
+ */
+@Service
+public class NoteRevisionCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteRevisionCompactor.class);
+
+    private final NoteRevisionRepository noteRevisionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int snapshotInterval;
+    private final int maxPerNote;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final ScheduledExecutorService compactor;
+
+    @Autowired
+    public NoteRevisionCompactor(NoteRevisionRepository noteRevisionRepository, PlatformTransactionManager transactionManager,
+                                 @Value("${note.revision.snapshot-interval:20}") int snapshotInterval,
+                                 @Value("${note.revision.max-per-note:100}") int maxPerNote,
+                                 @Value("${note.revision.max-age:90d}") Duration maxAge,
+                                 @Value("${note.revision.compaction-batch-size:100}") int batchSize,
+                                 @Value("${note.revision.compaction-interval:30s}") Duration compactionInterval) {
+        this.noteRevisionRepository = noteRevisionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotInterval = snapshotInterval;
+        this.maxPerNote = maxPerNote;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("note-revision-compactor").daemon().factory());
+        long intervalMillis = compactionInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Compacts the new revisions of all notes and deletes the revisions that are out of retention.
+     *
+     * @return the number of notes whose revisions were compacted
+     */
+    public int compact() {
+        int deleted = noteRevisionRepository.deleteSupersededBefore(LocalDateTime.now().minus(maxAge))
+                + noteRevisionRepository.deleteOrphans();
+        int compacted = 0;
+        List<Long> noteIds;
+        do {
+            noteIds = noteRevisionRepository.findNoteIdsToCompact(Limit.of(batchSize));
+            for (Long noteId : noteIds) {
+                deleted += transactionTemplate.execute(status -> compactNote(noteId));
+                compacted++;
+            }
+        } while (noteIds.size() == batchSize);
+        if (compacted > 0 || deleted > 0) {
+            logger.debug("Compacted the revisions of {} notes, deleted {} revisions", compacted, deleted);
+        }
+        return compacted;
+    }
+
+    /**
+     * Stops the periodic compaction.
+     */
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    /**
+     * Compacts the revisions of one note, in the current transaction.
+     *
+     * @param noteId the ID of the note
+     * @return the number of revisions deleted because the note has too many
+     */
+    private int compactNote(long noteId) {
+        List<NoteRevision> revisions = noteRevisionRepository.findByNoteIdOrderByRevisionDesc(noteId);
+        int deleted = 0;
+        if (revisions.size() > maxPerNote) {
+            List<NoteRevision> expired = revisions.subList(maxPerNote, revisions.size());
+            noteRevisionRepository.deleteAllInBatch(List.copyOf(expired));
+            deleted = expired.size();
+            revisions = revisions.subList(0, maxPerNote);
+        }
+
+        // newest first: only the revisions from the oldest new one up need their bodies
+        int oldestNew = 0;
+        for (int i = 1; i < revisions.size(); i++) {
+            if (revisions.get(i).getKind() == Kind.NEW) {
+                oldestNew = i;
+            }
+        }
+        if (oldestNew == 0) {
+            return deleted;
+        }
+        String[] bodies = new String[oldestNew + 1];
+        bodies[0] = revisions.get(0).getNoteBody();
+        for (int i = 1; i <= oldestNew; i++) {
+            NoteRevision revision = revisions.get(i);
+            bodies[i] = revision.getKind() == Kind.DELTA
+                    ? NoteRevisionService.applyDelta(revision, revisions.get(i - 1).getRevision(), bodies[i - 1])
+                    : revision.getNoteBody();
+        }
+
+        // oldest first: count the deltas since the last full body and decide which revisions become deltas
+        int deltas = 0;
+        for (int i = oldestNew + 1; i < revisions.size() && revisions.get(i).getKind() == Kind.DELTA; i++) {
+            deltas++;
+        }
+        for (int i = oldestNew; i >= 1; i--) {
+            NoteRevision revision = revisions.get(i);
+            if (deltas + 1 >= snapshotInterval) {
+                if (revision.getKind() == Kind.DELTA) {
+                    revision.storeSnapshot(bodies[i]);
+                } else {
+                    revision.markSnapshot();
+                }
+                deltas = 0;
+            } else if (revision.getKind() == Kind.NEW) {
+                String base = bodies[i - 1];
+                int prefix = TextDiff.commonPrefix(base, bodies[i]);
+                int suffix = TextDiff.commonSuffix(base, bodies[i], prefix);
+                String text = bodies[i].substring(prefix, bodies[i].length() - suffix);
+                if (text.length() < bodies[i].length()) {
+                    revision.storeDelta(revisions.get(i - 1).getRevision(), prefix, suffix, text);
+                    deltas++;
+                } else {
+                    revision.markSnapshot();
+                    deltas = 0;
+                }
+            } else if (revision.getKind() == Kind.DELTA) {
+                deltas++;
+            } else {
+                deltas = 0;
+            }
+        }
+        return deleted;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            logger.warn("Compacting note revisions failed", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ch.zero.project295.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.zero.project295.dto.NoteRevisionDTO;
+import ch.zero.project295.model.NoteRevision;
+import ch.zero.project295.repository.NoteRevisionRepository;
+import ch.zero.project295.util.TextDiff;
+
+/**
+ * Records the revisions of notes and reads them back.
+ * <p>
+ * Recording copies the note row in the database before it is overwritten, in the transaction of the update.
+ * The note rows are locked for update first, so concurrent updates of a note queue up instead of deadlocking.
+ * Reading a revision starts from the nearest full body at or after it and applies the deltas
+ * from there back to the revision; {@code note.revision.snapshot-interval} bounds their number.
+ * </p>
+ * <p>
+ * Autosaves record at most one revision per note every {@code note.revision.autosave-interval}, so an open editor
+ * does not push the rest of the history out of the {@code note.revision.max-per-note} retained revisions.
+ * </p>
+ */
+@Service
+public class NoteRevisionService {
+
+    private final NoteRevisionRepository noteRevisionRepository;
+    private final int snapshotInterval;
+    private final Duration autosaveInterval;
+
+    @Autowired
+    public NoteRevisionService(NoteRevisionRepository noteRevisionRepository,
+                               @Value("${note.revision.snapshot-interval:20}") int snapshotInterval,
+                               @Value("${note.revision.autosave-interval:10m}") Duration autosaveInterval) {
+        this.noteRevisionRepository = noteRevisionRepository;
+        this.snapshotInterval = snapshotInterval;
+        this.autosaveInterval = autosaveInterval;
+    }
+
+    /**
+     * Records the current title and body of a note, which is about to be overwritten, if it still has the given version.
+     *
+     * @param noteId  the ID of the note
+     * @param version the version the note has before the update
+     */
+    public void recordRevision(long noteId, long version) {
+        noteRevisionRepository.lockNotes(List.of(noteId));
+        noteRevisionRepository.recordRevision(noteId, version, LocalDateTime.now());
+    }
+
+    /**
+     * Records the current title and body of a note, which is about to be overwritten.
+     *
+     * @param noteId the ID of the note
+     */
+    public void recordCurrentRevision(long noteId) {
+        noteRevisionRepository.lockNotes(List.of(noteId));
+        noteRevisionRepository.recordCurrentRevision(noteId, LocalDateTime.now());
+    }
+
+    /**
+     * Records the current titles and bodies of notes about to be overwritten by autosaves,
+     * skipping notes that got a revision within the last {@code note.revision.autosave-interval}.
+     *
+     * @param noteIds        the IDs of the notes
+     * @param supersededDate the time of the autosave
+     * @return the number of recorded revisions
+     */
+    public int recordAutosaveRevisions(Collection<Long> noteIds, LocalDateTime supersededDate) {
+        noteRevisionRepository.lockNotes(noteIds);
+        return noteRevisionRepository.recordRevisionsUnlessRecordedSince(noteIds, supersededDate,
+                supersededDate.minus(autosaveInterval));
+    }
+
+    /**
+     * Lists the revisions of a note without their bodies, newest first.
+     *
+     * @param noteId the ID of the note
+     * @return the revisions of the note
+     */
+    public List<NoteRevisionDTO> findRevisions(long noteId) {
+        return noteRevisionRepository.findSummaries(noteId);
+    }
+
+    /**
+     * Reads a note as it was at a revision.
+     *
+     * @param noteId   the ID of the note
+     * @param revision the version of the note to read
+     * @return the title and body of the note at the revision, or empty if the revision does not exist (anymore)
+     * @throws IllegalStateException if the deltas of the revision do not lead to a full body
+     */
+    @Transactional(readOnly = true)
+    public Optional<NoteRevisionDTO> findRevision(long noteId, long revision) {
+        List<NoteRevision> chain = noteRevisionRepository
+                .findByNoteIdAndRevisionGreaterThanEqualOrderByRevisionAsc(noteId, revision, Limit.of(snapshotInterval));
+        if (chain.isEmpty() || chain.get(0).getRevision() != revision) {
+            return Optional.empty();
+        }
+        if (fullBodyIndex(chain) < 0) {
+            // the snapshot interval was raised since the deltas were written
+            chain = noteRevisionRepository.findByNoteIdAndRevisionGreaterThanEqualOrderByRevisionAsc(noteId, revision, Limit.unlimited());
+        }
+
+        int full = fullBodyIndex(chain);
+        if (full < 0) {
+            throw new IllegalStateException("Revision " + revision + " of note " + noteId + " has no full body after it");
+        }
+        String noteBody = chain.get(full).getNoteBody();
+        for (int i = full - 1; i >= 0; i--) {
+            noteBody = applyDelta(chain.get(i), chain.get(i + 1).getRevision(), noteBody);
+        }
+
+        NoteRevision found = chain.get(0);
+        NoteRevisionDTO revisionDTO = new NoteRevisionDTO(noteId, revision, found.getNoteTitle(), found.getModifiedDate(), found.getSupersededDate());
+        revisionDTO.setNoteBody(noteBody);
+        return Optional.of(revisionDTO);
+    }
+
+    /**
+     * Rebuilds the body of a delta revision from the body of the next newer revision.
+     *
+     * @param delta        the revision stored as delta
+     * @param baseRevision the revision the body belongs to
+     * @param baseBody     the body of the next newer revision
+     * @return the body of the delta revision
+     * @throws IllegalStateException if the delta refers to another revision
+     */
+    static String applyDelta(NoteRevision delta, long baseRevision, String baseBody) {
+        if (delta.getBaseRevision() == null || delta.getBaseRevision() != baseRevision) {
+            throw new IllegalStateException("Revision " + delta.getRevision() + " of note " + delta.getNoteId()
+                    + " refers to revision " + delta.getBaseRevision() + " instead of " + baseRevision);
+        }
+        return TextDiff.apply(baseBody, delta.getPrefixLength(), delta.getSuffixLength(), delta.getNoteBody());
+    }
+
+    private static int fullBodyIndex(List<NoteRevision> chain) {
+        for (int i = 0; i < chain.size(); i++) {
+            if (chain.get(i).getKind() != NoteRevision.Kind.DELTA) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
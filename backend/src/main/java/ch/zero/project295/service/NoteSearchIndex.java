@@ -0,0 +1,243 @@
+package ch.zero.project295.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process inverted index over the titles and bodies of notes, backed by Lucene.
+ * <p>
+ * Only the note ID is stored, the text itself is indexed but read back from the database.
+ * Hits are ranked with BM25, title matches weigh more than body matches, and the last query
+ * term also matches as a prefix so partially typed words find results. The index lives on local
+ * disk when {@code note.search.index-path} is set and in memory otherwise; it is recreated on
+ * every start and kept up to date by {@link NoteSearchService}.
+ * </p>
+ */
+@Component
+public class NoteSearchIndex {
+
+    private static final String FIELD_NOTE_ID = "noteId";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_TITLE = "noteTitle";
+    private static final String FIELD_BODY = "noteBody";
+    private static final float TITLE_BOOST = 2.0f;
+
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    /**
+     * The IDs of the notes on one page of search results, in rank order.
+     */
+    public static class SearchResult {
+        private final List<Long> noteIds;
+        private final boolean hasMore;
+
+        public SearchResult(List<Long> noteIds, boolean hasMore) {
+            this.noteIds = noteIds;
+            this.hasMore = hasMore;
+        }
+
+        public List<Long> getNoteIds() {
+            return noteIds;
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    @Autowired
+    public NoteSearchIndex(@Value("${note.search.index-path:}") String indexPath) throws IOException {
+        this(indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath)));
+    }
+
+    public NoteSearchIndex(Directory directory) throws IOException {
+        this.directory = directory;
+        this.analyzer = new StandardAnalyzer();
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Adds a note to the index or replaces its previous version.
+     * The change becomes visible to searches after the next {@link #refresh()}.
+     *
+     * @param noteId    the ID of the note
+     * @param userId    the ID of the owner of the note
+     * @param noteTitle the title of the note
+     * @param noteBody  the body of the note
+     */
+    public void index(long noteId, long userId, String noteTitle, String noteBody) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_NOTE_ID, Long.toString(noteId), Field.Store.YES));
+        document.add(new StringField(FIELD_USER_ID, Long.toString(userId), Field.Store.NO));
+        document.add(new TextField(FIELD_TITLE, noteTitle == null ? "" : noteTitle, Field.Store.NO));
+        document.add(new TextField(FIELD_BODY, noteBody == null ? "" : noteBody, Field.Store.NO));
+        try {
+            writer.updateDocument(new Term(FIELD_NOTE_ID, Long.toString(noteId)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes a note from the index.
+     * The change becomes visible to searches after the next {@link #refresh()}.
+     *
+     * @param noteId the ID of the note
+     */
+    public void delete(long noteId) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_NOTE_ID, Long.toString(noteId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes all notes from the index.
+     */
+    public void clear() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes all changes made so far visible to searches, waiting for a refresh that is already running.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the changes made so far visible to searches, unless another thread is already doing so.
+     */
+    public void maybeRefresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Searches the notes whose title or body contain every term of the query.
+     *
+     * @param queryText the search query
+     * @param userId    optional user ID to search only the notes of that user
+     * @param offset    the number of hits to skip
+     * @param limit     the maximum number of hits to return
+     * @return the IDs of the matching notes in rank order
+     */
+    public SearchResult search(String queryText, Long userId, int offset, int limit) {
+        List<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), false);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            query.add(termQuery(terms.get(i), i == terms.size() - 1), BooleanClause.Occur.MUST);
+        }
+        if (userId != null) {
+            query.add(new TermQuery(new Term(FIELD_USER_ID, userId.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), offset + limit + 1);
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> noteIds = new ArrayList<>();
+                for (int i = offset; i < Math.min(hits.length, offset + limit); i++) {
+                    noteIds.add(Long.parseLong(storedFields.document(hits[i].doc, Set.of(FIELD_NOTE_ID)).get(FIELD_NOTE_ID)));
+                }
+                return new SearchResult(noteIds, hits.length > offset + limit);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Query termQuery(String term, boolean matchPrefix) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new BoostQuery(new TermQuery(new Term(FIELD_TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD);
+        query.add(new TermQuery(new Term(FIELD_BODY, term)), BooleanClause.Occur.SHOULD);
+        if (matchPrefix) {
+            query.add(new BoostQuery(new PrefixQuery(new Term(FIELD_TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD);
+            query.add(new PrefixQuery(new Term(FIELD_BODY, term)), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(FIELD_BODY, text)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,214 @@
+package ch.zero.project295.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.event.NoteChangedEvent;
+import ch.zero.project295.event.NotesCreatedEvent;
+import ch.zero.project295.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the {@link NoteSearchIndex} in sync with the note table and answers search requests.
+ * <p>
+ * The index is rebuilt from the database in the background when the application is ready, and every
+ * committed {@link NoteChangedEvent} is applied to it incrementally afterwards.
+ * </p>
+ * <p>
+ * Applying a change does not wait for Lucene to reopen the index, so writes are not slowed down by it:
+ * changes become visible to searches with the next background refresh, every {@code note.search.refresh-interval}.
+ * Changes applied while a rebuild is streaming the note table are applied again once the stream is done,
+ * so a note deleted or updated meanwhile is not brought back in the state the stream read it in.
+ * </p>
+ */
+@Service
+public class NoteSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoteSearchService.class);
+
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteRepository noteRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ScheduledExecutorService refresher;
+
+    private final Object changeLock = new Object();
+    // guarded by changeLock, not null while a rebuild is streaming the note table
+    private List<NoteChange> changesDuringRebuild;
+
+    @Autowired
+    public NoteSearchService(NoteSearchIndex noteSearchIndex, NoteRepository noteRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${note.search.refresh-interval:1s}") Duration refreshInterval) {
+        this.noteSearchIndex = noteSearchIndex;
+        this.noteRepository = noteRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("note-search-refresh").daemon().factory());
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts rebuilding the index from the database once the application is ready.
+     * Searches return partial results until the rebuild is finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndexInBackground() {
+        Thread.ofVirtual().name("note-search-rebuild").start(this::rebuildIndex);
+    }
+
+    /**
+     * Replaces the content of the index with all notes in the database.
+     */
+    public void rebuildIndex() {
+        try {
+            synchronized (changeLock) {
+                changesDuringRebuild = new ArrayList<>();
+                noteSearchIndex.clear();
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<NoteDTO> notes = noteRepository.streamAll()) {
+                    notes.forEach(note -> noteSearchIndex.index(note.getNoteId(), note.getUserId(), note.getNoteTitle(), note.getNoteBody()));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Rebuilding the note search index failed", e);
+        } finally {
+            synchronized (changeLock) {
+                if (changesDuringRebuild != null) {
+                    changesDuringRebuild.forEach(this::applyToIndex);
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+        noteSearchIndex.refresh();
+    }
+
+    /**
+     * Applies a note change to the index once the surrounding transaction, if any, has committed.
+     *
+     * @param event the change to apply
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (event.getChangeType() == NoteChangedEvent.ChangeType.DELETED) {
+            apply(new NoteChange(event.getNoteId(), null));
+        } else {
+            NoteDTO note = event.getNote();
+            apply(new NoteChange(note.getNoteId(), note));
+        }
+    }
+
+    /**
+     * Adds a batch of created notes to the index.
+     *
+     * @param event the created notes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesCreated(NotesCreatedEvent event) {
+        for (NoteDTO note : event.getNotes()) {
+            apply(new NoteChange(note.getNoteId(), note));
+        }
+    }
+
+    /**
+     * Stops the background refresh and waits for a running refresh to finish,
+     * so it does not run against the index once that is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        try {
+            if (!refresher.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("The note search refresh did not stop within 5 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Searches the titles and bodies of notes.
+     *
+     * @param query  the search query
+     * @param userId optional user ID to search only the notes of that user
+     * @param offset the number of hits to skip
+     * @param limit  the maximum number of hits to return
+     * @return the IDs of the matching notes in rank order
+     */
+    public NoteSearchIndex.SearchResult search(String query, Long userId, int offset, int limit) {
+        return noteSearchIndex.search(query, userId, offset, limit);
+    }
+
+    /**
+     * Loads the notes of a search result in rank order, skipping notes that no longer exist.
+     *
+     * @param noteIds the IDs of the notes in rank order
+     * @return the notes in rank order
+     */
+    public List<NoteDTO> loadNotes(List<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, NoteDTO> notesById = noteRepository.findDTOsByIds(noteIds).stream()
+                .collect(Collectors.toMap(NoteDTO::getNoteId, Function.identity()));
+        List<NoteDTO> notes = new ArrayList<>();
+        for (Long noteId : noteIds) {
+            NoteDTO note = notesById.get(noteId);
+            if (note != null) {
+                notes.add(note);
+            }
+        }
+        return notes;
+    }
+
+    private void apply(NoteChange change) {
+        synchronized (changeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            applyToIndex(change);
+        }
+    }
+
+    private void applyToIndex(NoteChange change) {
+        if (change.note() == null) {
+            noteSearchIndex.delete(change.noteId());
+        } else {
+            NoteDTO note = change.note();
+            noteSearchIndex.index(note.getNoteId(), note.getUserId(), note.getNoteTitle(), note.getNoteBody());
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            noteSearchIndex.maybeRefresh();
+        } catch (RuntimeException e) {
+            logger.warn("Refreshing the note search index failed", e);
+        }
+    }
+
+    // a note to index, or a deletion if note is null
+    private record NoteChange(long noteId, NoteDTO note) {
+    }
+}
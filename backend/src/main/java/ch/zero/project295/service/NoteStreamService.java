@@ -0,0 +1,73 @@
+package ch.zero.project295.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.repository.NoteRepository;
+
+/**
+ * Writes notes as newline-delimited JSON (NDJSON) while they are read from the database.
+ * <p>
+ * Notes are read as DTOs through a streaming query with a fixed fetch size and written one by one,
+ * so neither the persistence context nor the response buffer grows with the number of notes.
+ * </p>
+ */
+@Service
+public class NoteStreamService {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final NoteRepository noteRepository;
+    private final ObjectWriter noteWriter;
+
+    @Autowired
+    public NoteStreamService(NoteRepository noteRepository, ObjectMapper objectMapper) {
+        this.noteRepository = noteRepository;
+        this.noteWriter = objectMapper.writerFor(NoteDTO.class);
+    }
+
+    /**
+     * Writes every note matching the optional filters to the output stream, one JSON object per line.
+     *
+     * @param userId     optional user ID to filter notes by owner
+     * @param categoryId optional category ID to filter notes by category
+     * @param out        the stream to write to
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public void writeNotes(Long userId, Long categoryId, OutputStream out) throws IOException {
+        try (Stream<NoteDTO> notes = openStream(userId, categoryId)) {
+            Iterator<NoteDTO> iterator = notes.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(noteWriter.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private Stream<NoteDTO> openStream(Long userId, Long categoryId) {
+        if (userId != null && categoryId != null) {
+            return noteRepository.streamByUserAndCategory(userId, categoryId);
+        } else if (categoryId != null) {
+            return noteRepository.streamByCategory(categoryId);
+        } else if (userId != null) {
+            return noteRepository.streamByUser(userId);
+        }
+        return noteRepository.streamAll();
+    }
+}
@@ -1,10 +1,13 @@
 package ch.zero.project295.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * A generic API response wrapper used to standardize responses for the API.
  * <p>
  * This class provides a uniform way to include a success status, a message, and
- * the actual data in the API response.
+ * the actual data in the API response. Paged list responses additionally carry
+ * the cursor of the next page, which is omitted when there is none.
  * </p>
  *
  * @param <T> The type of the response data
@@ -14,12 +17,24 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public ApiResponse() {
+        // json and cbor clients
+    }
+
     public ApiResponse(boolean success, String message, T data) {
         this.success = success;
         this.message = message;
         this.data = data;
     }
 
+    public ApiResponse(boolean success, String message, T data, String nextCursor) {
+        this(success, message, data);
+        this.nextCursor = nextCursor;
+    }
+
     public boolean isSuccess() {
         return success;
     }
@@ -43,4 +58,12 @@ public class ApiResponse<T> {
     public void setData(T data) {
         this.data = data;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,205 @@
+package ch.zero.project295.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Utility class for keyset (cursor) pagination of the list endpoints.
+ * <p>
+ * A cursor is the sort key of the last row of a page, encoded as an opaque URL-safe string.
+ * The next page is fetched with a seek predicate on that key instead of an OFFSET,
+ * so every page costs the same no matter how deep the client has paged.
+ * </p>
+ */
+public class CursorPaging {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * The sort key of a note, (modifiedDate, noteId), used as the position of a note cursor.
+     */
+    public static class NoteKey {
+        /**
+         * Position before the first note, used when no cursor is given.
+         */
+        public static final NoteKey START = new NoteKey(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+        private final LocalDateTime modifiedDate;
+        private final long noteId;
+
+        public NoteKey(LocalDateTime modifiedDate, long noteId) {
+            this.modifiedDate = modifiedDate;
+            this.noteId = noteId;
+        }
+
+        public LocalDateTime getModifiedDate() {
+            return modifiedDate;
+        }
+
+        public long getNoteId() {
+            return noteId;
+        }
+    }
+
+    /**
+     * Validates the requested page size and applies the default and the upper bound.
+     *
+     * @param limit the requested page size, may be null
+     * @return the page size to use
+     * @throws IllegalArgumentException if the limit is smaller than 1
+     */
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Returns the query limit for a page, which is one row more than the page size
+     * so the caller can tell whether another page follows.
+     *
+     * @param pageSize the page size
+     * @return the limit to pass to the repository
+     */
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    /**
+     * Cuts the rows fetched with {@link #fetchLimit(int)} down to the page size.
+     *
+     * @param rows     the fetched rows
+     * @param pageSize the page size
+     * @return the rows of the page
+     */
+    public static <T> List<T> trimToPage(List<T> rows, int pageSize) {
+        return rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+    }
+
+    /**
+     * Tells whether another page follows the rows fetched with {@link #fetchLimit(int)}.
+     *
+     * @param rows     the fetched rows
+     * @param pageSize the page size
+     * @return true if there are more rows after this page
+     */
+    public static boolean hasNextPage(List<?> rows, int pageSize) {
+        return rows.size() > pageSize;
+    }
+
+    /**
+     * Encodes the sort key of a note into an opaque cursor.
+     *
+     * @param modifiedDate the modification date of the last note of the page
+     * @param noteId       the ID of the last note of the page
+     * @return the cursor
+     */
+    public static String encodeNoteCursor(LocalDateTime modifiedDate, long noteId) {
+        return encode(modifiedDate + SEPARATOR + noteId);
+    }
+
+    /**
+     * Decodes a note cursor.
+     *
+     * @param cursor the cursor, may be null
+     * @return the decoded sort key, or {@link NoteKey#START} if no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static NoteKey decodeNoteCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return NoteKey.START;
+        }
+        String value = decode(cursor);
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw invalidCursor();
+        }
+        try {
+            return new NoteKey(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Encodes a primary key into an opaque cursor.
+     *
+     * @param id the ID of the last row of the page
+     * @return the cursor
+     */
+    public static String encodeIdCursor(long id) {
+        return encode(Long.toString(id));
+    }
+
+    /**
+     * Decodes a primary key cursor.
+     *
+     * @param cursor the cursor, may be null
+     * @return the decoded ID, or 0 if no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decodeIdCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * Encodes a result offset into an opaque cursor, for results that have no stable sort key such as search hits.
+     *
+     * @param offset the number of results before the next page
+     * @return the cursor
+     */
+    public static String encodeOffsetCursor(int offset) {
+        return encodeIdCursor(offset);
+    }
+
+    /**
+     * Decodes an offset cursor.
+     *
+     * @param cursor the cursor, may be null
+     * @return the decoded offset, or 0 if no cursor is given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static int decodeOffsetCursor(String cursor) {
+        long offset = decodeIdCursor(cursor);
+        if (offset < 0 || offset > Integer.MAX_VALUE - MAX_LIMIT - 1) {
+            throw invalidCursor();
+        }
+        return (int) offset;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static IllegalArgumentException invalidCursor() {
+        return new IllegalArgumentException("Invalid cursor");
+    }
+}
@@ -0,0 +1,18 @@
+package ch.zero.project295.util;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when no database connection became available within the configured wait, because as many
+ * requests as the connection pool holds are already using the database.
+ * <p>
+ * The {@link GlobalExceptionHandler} answers it with a 503 status, so clients can retry later
+ * instead of piling up more waiting requests.
+ * </p>
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,192 @@
+package ch.zero.project295.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Utility class for the strong ETags of notes and categories and for evaluating
+ * the If-None-Match and If-Match request headers against them.
+ * <p>
+ * The ETag of a single entity is its version column, which every update increases.
+ * The ETag of a page is a hash of the IDs and versions of the rows on it and of whether a next page follows,
+ * so it changes whenever a row is added, removed or updated, and whenever the next cursor appears or goes away.
+ * </p>
+ * <p>
+ * The same entity is sent as JSON or as CBOR, depending on the Accept header, so every ETag
+ * names its representation: JSON tags are plain, CBOR tags end with {@code -cbor}.
+ * If-Match accepts the tag of either representation, since both stand for the same version.
+ * </p>
+ * <p>
+ * Gzipped responses carry the tag with {@value #GZIP_SUFFIX} appended, see {@code PrecompressedResponseFilter}.
+ * Both If-None-Match and If-Match accept the gzip form of a tag in place of the tag itself.
+ * </p>
+ */
+public class ETags {
+
+    private static final String ANY = "*";
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    /**
+     * Appended to the ETag of a response whose body is gzipped.
+     */
+    public static final String GZIP_SUFFIX = "-gzip";
+
+    /**
+     * Determines which representation a request gets, with the rule of the message converters:
+     * the most specific acceptable media type wins, and JSON is chosen when JSON and CBOR are equally acceptable.
+     *
+     * @param accept the Accept header, may be null
+     * @return {@link MediaType#APPLICATION_CBOR} or {@link MediaType#APPLICATION_JSON}
+     */
+    public static MediaType representationOf(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Builds the ETag of a single entity.
+     *
+     * @param version        the version of the entity
+     * @param representation the media type the entity is sent as, see {@link #representationOf}
+     * @return the quoted ETag
+     */
+    public static String ofVersion(long version, MediaType representation) {
+        return quote(Long.toString(version), representation);
+    }
+
+    /**
+     * Builds the ETag of a page of entities.
+     *
+     * @param variant        distinguishes other representations of the same rows, such as the view
+     * @param representation the media type the page is sent as, see {@link #representationOf}
+     * @param idsAndVersions pairs of entity ID and version, in page order, without the look-ahead row
+     * @param hasNextPage    whether another page follows, so the response carries a next cursor
+     * @return the quoted ETag
+     */
+    public static String ofPage(String variant, MediaType representation, List<long[]> idsAndVersions, boolean hasNextPage) {
+        byte[] variantBytes = variant.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(variantBytes.length + 1 + idsAndVersions.size() * 2 * Long.BYTES);
+        buffer.put(variantBytes).put((byte) (hasNextPage ? 1 : 0));
+        for (long[] idAndVersion : idsAndVersions) {
+            buffer.putLong(idAndVersion[0]).putLong(idAndVersion[1]);
+        }
+        return quote(DigestUtils.md5DigestAsHex(buffer.array()), representation);
+    }
+
+    /**
+     * Builds the ETag of the gzipped form of a response.
+     *
+     * @param etag the strong ETag of the uncompressed response
+     * @return the quoted ETag with {@value #GZIP_SUFFIX} appended
+     */
+    public static String ofGzip(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header, using the weak comparison required for it.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etag        the current ETag
+     * @return true if the client already has the current representation and a 304 can be sent
+     */
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && contains(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * Checks an If-Match header against the ETags of an entity, using the strong comparison required for it.
+     *
+     * @param ifMatch the header value, may be null
+     * @param version the current version of the entity
+     * @return true if the header is present and matches no representation of the version, so the update must be rejected with 412
+     */
+    public static boolean isPreconditionFailed(String ifMatch, long version) {
+        return ifMatch != null
+                && !contains(ifMatch, ofVersion(version, MediaType.APPLICATION_JSON), false)
+                && !contains(ifMatch, ofVersion(version, MediaType.APPLICATION_CBOR), false);
+    }
+
+    /**
+     * Reads the version from an If-Match header holding a single ETag of {@link #ofVersion}, in either representation.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the version, or null if the header is absent or matches any version
+     * @throws IllegalArgumentException if the header holds something else
+     */
+    public static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Invalid If-Match header");
+        }
+        String version = withoutGzip(tag);
+        version = version.substring(1, version.length() - 1);
+        if (version.endsWith(CBOR_SUFFIX)) {
+            version = version.substring(0, version.length() - CBOR_SUFFIX.length());
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header");
+        }
+    }
+
+    private static String quote(String tag, MediaType representation) {
+        return "\"" + tag + (MediaType.APPLICATION_CBOR.isCompatibleWith(representation) ? CBOR_SUFFIX : "") + "\"";
+    }
+
+    private static String withoutGzip(String tag) {
+        if (tag.endsWith(GZIP_SUFFIX + "\"")) {
+            return tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\"";
+        }
+        return tag;
+    }
+
+    private static boolean contains(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (withoutGzip(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -65,6 +65,7 @@ public class EntityMapper {
 
     /**
      * Converts a Note entity to a NoteDTO.
+     * Reads the user and category IDs from the note itself, so the lazy associations stay uninitialized.
      *
      * @param note the Note entity to convert
      * @return a NoteDTO representing the Note entity
@@ -76,15 +77,10 @@ public class EntityMapper {
         noteDTO.setNoteBody(note.getNoteBody());
         noteDTO.setCreatedDate(note.getCreatedDate());
         noteDTO.setModifiedDate(note.getModifiedDate());
+        noteDTO.setVersion(note.getVersion());
 
-        if (note.getUser() != null) {
-            noteDTO.setUserId(note.getUser().getUserId());
-            System.out.println("User ID set to: " + note.getUser().getUserId());
-        }
-        if (note.getCategory() != null) {
-            noteDTO.setCategoryId(note.getCategory().getCategoryId());
-            System.out.println("Category ID set to: " + note.getCategory().getCategoryId());
-        }
+        noteDTO.setUserId(note.getUserId());
+        noteDTO.setCategoryId(note.getCategoryId());
 
         return noteDTO;
     }
@@ -119,6 +115,7 @@ public class EntityMapper {
 
     /**
      * Converts a Category entity to a CategoryDTO.
+     * Reads the user ID from the category itself, so the lazy user association stays uninitialized.
      *
      * @param category the Category entity to convert
      * @return a CategoryDTO representing the Category entity
@@ -127,10 +124,9 @@ public class EntityMapper {
         CategoryDTO categoryDTO = new CategoryDTO();
         categoryDTO.setCategoryId(category.getCategoryId());
         categoryDTO.setCategoryName(category.getCategoryName());
+        categoryDTO.setVersion(category.getVersion());
 
-        if (category.getUser() != null) {
-            categoryDTO.setUserId(category.getUser().getUserId());
-        }
+        categoryDTO.setUserId(category.getUserId());
 
         return categoryDTO;
     }
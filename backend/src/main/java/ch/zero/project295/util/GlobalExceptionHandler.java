@@ -1,7 +1,15 @@
 package ch.zero.project295.util;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,8 +17,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
 import java.util.stream.Collectors;
 
+import ch.zero.project295.logging.StackTraceDeduplicator;
+
 /**
  * This is a global exception handler that handles different types of exceptions.
  * It provides error messages for various scenarios such as validation errors,
@@ -20,6 +32,10 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final StackTraceDeduplicator stackTraces = new StackTraceDeduplicator(Duration.ofMinutes(5), 1000);
+
     /**
      * Handles validation exceptions that occur when fields fail validation checks.
      *
@@ -67,6 +83,65 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    /**
+     * Handles writes that failed because a referenced entity, such as the user of a category, does not exist.
+     *
+     * @param ex the ReferenceNotFoundException
+     * @return a ResponseEntity containing the message naming the missing entity
+     */
+
+    @ExceptionHandler(ReferenceNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleReferenceNotFoundException(ReferenceNotFoundException ex) {
+        ApiResponse<String> response = new ApiResponse<>(false, ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    /**
+     * Handles optimistic locking failures, raised when an entity was updated by someone else
+     * between reading and writing it.
+     *
+     * @param ex the OptimisticLockingFailureException
+     * @return a ResponseEntity containing a user-friendly error message
+     */
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiResponse<String> response = new ApiResponse<>(false, "The entity has been changed in the meantime, please reload it", null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Handles updates that lost a lock conflict with a concurrent update of the same rows, such as a deadlock
+     * or a lock wait timeout. The other update went through, so the client has to reload like after an optimistic conflict.
+     *
+     * @param ex the PessimisticLockingFailureException
+     * @return a ResponseEntity with status 409 asking the client to reload
+     */
+
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handlePessimisticLockingFailureException(PessimisticLockingFailureException ex) {
+        logger.debug("Lock conflict between concurrent updates", ex);
+        ApiResponse<String> response = new ApiResponse<>(false, "The entity has been changed in the meantime, please reload it", null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    /**
+     * Handles requests that got no database connection in time, either from the concurrency limit
+     * in front of the pool or from the pool itself. Other failures to reach the database are unexpected errors.
+     *
+     * @param ex the exception raised when opening the transaction or connection
+     * @return a ResponseEntity with status 503 asking the client to retry
+     */
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse<String>> handleDatabaseUnavailableException(Exception ex) {
+        if (!(NestedExceptionUtils.getMostSpecificCause(ex) instanceof SQLTransientConnectionException)) {
+            return handleGeneralException(ex);
+        }
+        ApiResponse<String> response = new ApiResponse<>(false, "The service is busy, please try again", null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+    }
+
     /**
      * Handles illegal argument exceptions, such as when invalid IDs are provided.
      *
@@ -82,6 +157,7 @@ public class GlobalExceptionHandler {
 
     /**
      * Handles all other exceptions, providing a simple fallback for unexpected errors.
+     * The stack trace of a failure is logged once every few minutes, repeats only as one line with its fingerprint.
      *
      * @param ex the Exception
      * @return a ResponseEntity containing a generic error message
@@ -89,7 +165,12 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGeneralException(Exception ex) {
-        ex.printStackTrace();
+        String fingerprint = StackTraceDeduplicator.fingerprint(ex);
+        if (stackTraces.shouldLogStackTrace(fingerprint, System.currentTimeMillis())) {
+            logger.error("Unexpected error [{}]", fingerprint, ex);
+        } else {
+            logger.error("Unexpected error [{}], stack trace logged before: {}", fingerprint, ex.toString());
+        }
         ApiResponse<String> response = new ApiResponse<>(false, "An unexpected error occurred", null);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
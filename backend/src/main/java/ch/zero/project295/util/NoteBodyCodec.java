@@ -0,0 +1,155 @@
+package ch.zero.project295.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compresses note bodies for storage and decompresses them again.
+ * <p>
+ * With {@code note.body.compression.enabled}, bodies of at least {@code note.body.compression.threshold} characters
+ * are compressed with zlib at its fastest level. A compressed body is stored as bytes in the note_body_deflated
+ * column and the note_body column is left empty; bodies that would not get smaller stay plain text in note_body.
+ * Rows with an empty note_body_deflated column are plain, so rows written before compression existed read unchanged.
+ * </p>
+ * <p>
+ * Decompression needs no settings, so entities and DTOs read from the database decompress their bodies themselves,
+ * lazily, with {@link #decompress(byte[])}; its counters are shared for that reason. All counters feed the
+ * {@code note.body.compression.*} metrics.
+ * </p>
+ */
+@Component
+public class NoteBodyCodec {
+
+    private static final LongAdder decompressedCount = new LongAdder();
+    private static final LongAdder decompressNanos = new LongAdder();
+
+    private final boolean enabled;
+    private final int threshold;
+
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    @Autowired
+    public NoteBodyCodec(@Value("${note.body.compression.enabled:false}") boolean enabled,
+                         @Value("${note.body.compression.threshold:1024}") int threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Compresses a body for storage, if compression is enabled, the body is long enough and gets smaller.
+     *
+     * @param noteBody the body, may be null
+     * @return the compressed body, or null if the body is to be stored as it is
+     */
+    public byte[] compress(String noteBody) {
+        if (!enabled || noteBody == null || noteBody.length() < threshold) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] plain = noteBody.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(plain);
+        compressNanos.add(System.nanoTime() - start);
+        if (compressed.length >= plain.length) {
+            return null;
+        }
+        compressedCount.increment();
+        uncompressedBytes.add(plain.length);
+        compressedBytes.add(compressed.length);
+        return compressed;
+    }
+
+    /**
+     * Decompresses a stored body.
+     *
+     * @param compressed the value of the note_body_deflated column
+     * @return the body
+     * @throws IllegalStateException if the stored body cannot be decompressed
+     */
+    public static String decompress(byte[] compressed) {
+        long start = System.nanoTime();
+        String noteBody = new String(inflate(compressed), StandardCharsets.UTF_8);
+        decompressedCount.increment();
+        decompressNanos.add(System.nanoTime() - start);
+        return noteBody;
+    }
+
+    public long getCompressedCount() {
+        return compressedCount.sum();
+    }
+
+    public double getCompressSeconds() {
+        return compressNanos.sum() / 1e9;
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    public long getDecompressedCount() {
+        return decompressedCount.sum();
+    }
+
+    public double getDecompressSeconds() {
+        return decompressNanos.sum() / 1e9;
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed note body");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed note body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ch.zero.project295.util;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Thrown when an insert or update fails because a referenced row, such as the user or category of a note,
+ * does not exist. The database foreign key constraint detects this in the same statement as the write,
+ * so no existence check is needed beforehand.
+ * <p>
+ * The {@link GlobalExceptionHandler} answers it with a 404 status.
+ * </p>
+ */
+public class ReferenceNotFoundException extends RuntimeException {
+
+    /**
+     * Matches the column of the violated constraint in the MySQL and H2 error messages, either a foreign key,
+     * e.g. {@code FOREIGN KEY (`user_id`)} or {@code FOREIGN KEY(USER_ID)}, or a missing reference,
+     * e.g. {@code Column 'user_id' cannot be null} or {@code NULL not allowed for column "USER_ID"}.
+     */
+    private static final Pattern REFERENCE_COLUMN = Pattern.compile(
+            "FOREIGN KEY\\s*\\(\\s*[`\"]?(\\w+)|Column '(\\w+)' cannot be null|NULL not allowed for column \"(\\w+)\"",
+            Pattern.CASE_INSENSITIVE);
+
+    public ReferenceNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Translates a failed write into the error of the missing referenced row.
+     *
+     * @param ex               the exception of the failed write
+     * @param messagesByColumn the error message for each foreign key column of the written table
+     * @return a ReferenceNotFoundException if one of the given columns references a missing row or none at all,
+     *         otherwise the original exception
+     */
+    public static RuntimeException of(DataIntegrityViolationException ex, Map<String, String> messagesByColumn) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() == null) {
+                continue;
+            }
+            Matcher matcher = REFERENCE_COLUMN.matcher(cause.getMessage());
+            if (matcher.find()) {
+                String column = matcher.group(1) != null ? matcher.group(1)
+                        : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+                String message = messagesByColumn.get(column.toLowerCase(Locale.ROOT));
+                return message != null ? new ReferenceNotFoundException(message, ex) : ex;
+            }
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,72 @@
+package ch.zero.project295.util;
+
+/**
+ * Utility class for the deltas of note revisions: a text is described by the prefix and suffix
+ * it shares with a base text and the text in between.
+ * <p>
+ * An edit between two saves of a note usually touches one region, which this describes in a few characters.
+ * Surrogate pairs are never split, so the text in between is always valid UTF-16 and can be stored as it is.
+ * </p>
+ */
+public class TextDiff {
+
+    /**
+     * Returns the length of the longest common prefix of two texts.
+     *
+     * @param base   the base text
+     * @param target the text to describe
+     * @return the number of leading characters the texts share
+     */
+    public static int commonPrefix(String base, String target) {
+        int max = Math.min(base.length(), target.length());
+        int prefix = 0;
+        while (prefix < max && base.charAt(prefix) == target.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(target.charAt(prefix - 1))) {
+            prefix--;
+        }
+        return prefix;
+    }
+
+    /**
+     * Returns the length of the longest common suffix of two texts that does not overlap the prefix.
+     *
+     * @param base   the base text
+     * @param target the text to describe
+     * @param prefix the length of their common prefix
+     * @return the number of trailing characters the texts share
+     */
+    public static int commonSuffix(String base, String target, int prefix) {
+        int max = Math.min(base.length(), target.length()) - prefix;
+        int suffix = 0;
+        while (suffix < max && base.charAt(base.length() - 1 - suffix) == target.charAt(target.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(target.charAt(target.length() - suffix))) {
+            suffix--;
+        }
+        return suffix;
+    }
+
+    /**
+     * Rebuilds a text from a base text and a delta.
+     *
+     * @param base   the base text
+     * @param prefix the number of leading characters taken from the base text
+     * @param suffix the number of trailing characters taken from the base text
+     * @param text   the text between prefix and suffix
+     * @return the rebuilt text
+     * @throws IllegalArgumentException if the base text is shorter than prefix and suffix
+     */
+    public static String apply(String base, int prefix, int suffix, String text) {
+        if (prefix < 0 || suffix < 0 || prefix + suffix > base.length()) {
+            throw new IllegalArgumentException("Delta does not fit a base text of " + base.length() + " characters");
+        }
+        return new StringBuilder(prefix + text.length() + suffix)
+                .append(base, 0, prefix)
+                .append(text)
+                .append(base, base.length() - suffix, base.length())
+                .toString();
+    }
+}
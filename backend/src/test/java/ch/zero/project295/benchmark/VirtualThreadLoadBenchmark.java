@@ -0,0 +1,180 @@
+package ch.zero.project295.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import ch.zero.project295.Project295Application;
+import ch.zero.project295.model.Note;
+
+/**
+ * Compares serving requests on the Tomcat platform thread pool with serving them on virtual threads
+ * behind the JDBC concurrency limit, under a database-bound load.
+ * <p>
+ * Not part of the test suite. Starts the application on a random port against an in-memory H2 database,
+ * once per mode, and lets a number of concurrent clients call GET /note for a fixed time. H2 answers in
+ * microseconds, so every statement is delayed by {@link #STATEMENT_LATENCY} to stand in for a MySQL round trip;
+ * with 10 pooled connections the database can serve about 10 / latency requests per second.
+ * Run it from the backend directory with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=ch.zero.project295.benchmark.VirtualThreadLoadBenchmark}.
+ * </p>
+ */
+public class VirtualThreadLoadBenchmark {
+
+    private static final Duration STATEMENT_LATENCY = Duration.ofMillis(20);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+    private static final int[] CLIENTS = {100, 1_000};
+
+    public static void main(String[] args) throws Exception {
+        for (int clients : CLIENTS) {
+            for (boolean virtual : new boolean[] {false, true}) {
+                Result result = run(virtual, clients);
+                System.out.printf("%-8s %5d clients: %7.0f requests/s, p50 %6.0f ms, p99 %6.0f ms, %5.1f%% rejected (503)%n",
+                        virtual ? "virtual" : "platform", clients, result.throughput, result.p50Millis, result.p99Millis,
+                        result.rejectedPercent);
+            }
+        }
+    }
+
+    private static Result run(boolean virtual, int clients) throws Exception {
+        SpringApplication application = new SpringApplication(Project295Application.class);
+        application.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource) : bean;
+            }
+        }));
+
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + "-" + clients + ";MODE=MySQL;NON_KEYWORDS=USER",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=off",
+                "--note.search.index-path=")) {
+            seed(context.getBean(JdbcTemplate.class));
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/note?userId=1&limit=20");
+
+            load(uri, clients, WARMUP);
+            return load(uri, clients, MEASUREMENT);
+        }
+    }
+
+    private static Result load(URI uri, int clients, Duration duration) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).build();
+        long end = System.nanoTime() + duration.toNanos();
+        List<List<Long>> latencies = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // the clients run on platform threads, so they do not compete with the server for the virtual thread carriers
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            for (int client = 0; client < clients; client++) {
+                List<Long> clientLatencies = new ArrayList<>();
+                latencies.add(clientLatencies);
+                executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            clientLatencies.add(System.nanoTime() - start);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long[] all = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+        Result result = new Result();
+        result.throughput = all.length / (double) duration.toSeconds();
+        result.p50Millis = all.length == 0 ? 0 : all[all.length / 2] / 1e6;
+        result.p99Millis = all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1e6;
+        result.rejectedPercent = 100.0 * rejected.get() / Math.max(1, all.length + rejected.get());
+        return result;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into user (user_id, username, email, password) values (1, 'user1', 'user1@example.com', 'secret!1')");
+        jdbcTemplate.update("insert into category (category_id, category_name, user_id) values (1, 'First', 1)");
+        List<Object[]> notes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (long noteId = 1; noteId <= 1_000; noteId++) {
+            notes.add(new Object[] {noteId, "Note " + noteId, "Body", Note.previewOf("Body"), now, now, 1L, 1L});
+        }
+        jdbcTemplate.batchUpdate("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, user_id, category_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", notes);
+    }
+
+    /**
+     * Delays the execution of every prepared statement, as a remote database would.
+     */
+    private static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws java.sql.SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof PreparedStatement statement ? slow(statement) : result;
+                    });
+        }
+
+        private static PreparedStatement slow(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            Thread.sleep(STATEMENT_LATENCY);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class Result {
+        private double throughput;
+        private double p50Millis;
+        private double p99Millis;
+        private double rejectedPercent;
+    }
+}
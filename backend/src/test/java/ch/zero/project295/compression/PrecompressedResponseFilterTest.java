@@ -0,0 +1,195 @@
+package ch.zero.project295.compression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Unit tests for the PrecompressedResponseFilter class.
+ * <p>
+ * These tests validate the gzip negotiation, the cache of compressed bodies per URL and ETag
+ * and the responses that are passed through uncompressed.
+ * </p>
+ */
+class PrecompressedResponseFilterTest {
+
+    private static final String BODY = "{\"success\":true,\"data\":\"" + "note body ".repeat(300) + "\"}";
+
+    private PrecompressedResponseFilter filter;
+    private AtomicInteger handled;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PrecompressedResponseFilter(DataSize.ofKilobytes(1), DataSize.ofMegabytes(1), 6,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        handled = new AtomicInteger();
+    }
+
+    /**
+     * Test that a cacheable response is gzipped once and served from the cache on the next request.
+     */
+    @Test
+    void doFilter_GzipsAndCachesByEtag() throws Exception {
+        // Act
+        MockHttpServletResponse first = get("gzip, deflate", "\"3\"", BODY);
+        MockHttpServletResponse second = get("gzip, deflate", "\"3\"", BODY);
+
+        // Assert
+        assertEquals("gzip", first.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"3-gzip\"", first.getHeader(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, first.getHeader(HttpHeaders.VARY));
+        assertEquals(BODY, gunzip(first.getContentAsByteArray()));
+        assertTrue(first.getContentAsByteArray().length < BODY.length() / 10);
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+        assertEquals(first.getContentAsByteArray().length, second.getContentLength());
+        assertEquals(2, handled.get());
+        assertEquals(1, filter.cachedResponseCount());
+    }
+
+    /**
+     * Test that a new ETag gets its own cache entry with the new body.
+     */
+    @Test
+    void doFilter_NewEtagCompressesNewBody() throws Exception {
+        get("gzip", "\"3\"", BODY);
+        String changedBody = BODY.replace("note", "edit");
+
+        // Act
+        MockHttpServletResponse response = get("gzip", "\"4\"", changedBody);
+
+        // Assert
+        assertEquals(changedBody, gunzip(response.getContentAsByteArray()));
+        assertEquals(2, filter.cachedResponseCount());
+    }
+
+    /**
+     * Test that clients without gzip in Accept-Encoding, or refusing it with q=0, get the plain body.
+     */
+    @Test
+    void doFilter_PassesThroughWithoutGzip() throws Exception {
+        for (String acceptEncoding : new String[] {null, "br", "gzip;q=0", "*;q=0"}) {
+            // Act
+            MockHttpServletResponse response = get(acceptEncoding, "\"3\"", BODY);
+
+            // Assert
+            assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals("\"3\"", response.getHeader(HttpHeaders.ETAG), acceptEncoding);
+            assertEquals(BODY, response.getContentAsString(), acceptEncoding);
+        }
+        assertEquals(0, filter.cachedResponseCount());
+    }
+
+    /**
+     * Test that responses without strong ETag or below the minimum size are not cached.
+     */
+    @Test
+    void doFilter_SkipsUncacheableResponses() throws Exception {
+        // Act
+        MockHttpServletResponse weak = get("gzip", "W/\"3\"", BODY);
+        MockHttpServletResponse untagged = get("gzip", null, BODY);
+        MockHttpServletResponse small = get("gzip", "\"3\"", "{\"success\":true}");
+
+        // Assert
+        assertNull(weak.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, weak.getContentAsString());
+        assertNull(untagged.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, untagged.getContentAsString());
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"success\":true}", small.getContentAsString());
+        assertEquals(0, filter.cachedResponseCount());
+    }
+
+    /**
+     * Test that a 304 for a revalidation with the gzip ETag carries the gzip ETag, and one for the plain ETag the plain one.
+     */
+    @Test
+    void doFilter_NotModifiedKeepsRevalidatedEtag() throws Exception {
+        for (String ifNoneMatch : new String[] {"\"3-gzip\"", "\"3\""}) {
+            // Arrange
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/note/1");
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // Act
+            filter.doFilter(request, response, (req, res) -> {
+                ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"3\"");
+            });
+
+            // Assert
+            assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+            assertEquals(ifNoneMatch, response.getHeader(HttpHeaders.ETAG));
+            assertEquals(0, response.getContentLength());
+        }
+    }
+
+    /**
+     * Test that the change feed is not buffered, also when the Accept header does not name the event stream.
+     */
+    @Test
+    void doFilter_SkipsChangeFeedForAnyAccept() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/feed");
+        request.addHeader(HttpHeaders.ACCEPT, "*/*");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act & Assert
+        filter.doFilter(request, response, (req, res) -> assertSame(response, res));
+    }
+
+    /**
+     * Test the parsing of Accept-Encoding headers.
+     */
+    @Test
+    void acceptsGzip_HonoursQualityValues() {
+        assertTrue(PrecompressedResponseFilter.acceptsGzip("gzip"));
+        assertTrue(PrecompressedResponseFilter.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(PrecompressedResponseFilter.acceptsGzip("*"));
+        assertFalse(PrecompressedResponseFilter.acceptsGzip("gzip;q=0.0"));
+        assertFalse(PrecompressedResponseFilter.acceptsGzip("deflate, br"));
+        assertFalse(PrecompressedResponseFilter.acceptsGzip(""));
+    }
+
+    private MockHttpServletResponse get(String acceptEncoding, String etag, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/note/1");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            handled.incrementAndGet();
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            if (etag != null) {
+                ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, etag);
+            }
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ch.zero.project295.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import ch.zero.project295.util.DatabaseBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the ConcurrencyLimitedDataSource class.
+ * <p>
+ * These tests validate that connections beyond the limit are rejected after the wait
+ * and that closing a connection frees its permit exactly once.
+ * </p>
+ */
+class ConcurrencyLimitedDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, Duration.ofMillis(20), meterRegistry);
+    }
+
+    /**
+     * Test that a connection beyond the limit fails after the wait and is counted as rejected.
+     */
+    @Test
+    void getConnection_BeyondLimit_ThrowsDatabaseBusy() throws Exception {
+        dataSource.getConnection();
+
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+        assertEquals(1.0, meterRegistry.get("jdbc.limiter.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("jdbc.limiter.active").gauge().value());
+    }
+
+    /**
+     * Test that closing a connection frees its permit, also when it is closed twice.
+     */
+    @Test
+    void getConnection_AfterClose_Succeeds() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        dataSource.getConnection();
+        assertThrows(DatabaseBusyException.class, dataSource::getConnection);
+    }
+}
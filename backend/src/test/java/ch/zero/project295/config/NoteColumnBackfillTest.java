@@ -0,0 +1,63 @@
+package ch.zero.project295.config;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+
+import ch.zero.project295.repository.NoteRepository;
+
+/**
+ * Unit tests for the NoteColumnBackfill class.
+ * <p>
+ * These tests validate that no UPDATE runs when every note is filled
+ * and that the remaining notes are updated in batches.
+ * </p>
+ */
+class NoteColumnBackfillTest {
+
+    private NoteRepository noteRepository;
+    private NoteColumnBackfill noteColumnBackfill;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository = Mockito.mock(NoteRepository.class);
+        noteColumnBackfill = new NoteColumnBackfill(noteRepository);
+    }
+
+    /**
+     * Test that a database without notes to fill only runs the two lookups.
+     */
+    @Test
+    void run_NothingToFill_RunsNoUpdate() {
+        Mockito.when(noteRepository.findIdsWithoutModifiedDate(Mockito.any(Limit.class))).thenReturn(List.of());
+        Mockito.when(noteRepository.findIdsWithoutNotePreview(Mockito.any(Limit.class))).thenReturn(List.of());
+
+        noteColumnBackfill.run(null);
+
+        Mockito.verify(noteRepository, Mockito.never()).backfillModifiedDate(Mockito.anyCollection());
+        Mockito.verify(noteRepository, Mockito.never()).backfillNotePreview(Mockito.anyCollection());
+    }
+
+    /**
+     * Test that notes to fill are updated one batch at a time until a batch is not full.
+     */
+    @Test
+    void run_ManyNotes_UpdatesInBatches() {
+        List<Long> fullBatch = LongStream.rangeClosed(1, NoteColumnBackfill.BATCH_SIZE).boxed().toList();
+        List<Long> lastBatch = List.of(NoteColumnBackfill.BATCH_SIZE + 1L);
+        Mockito.when(noteRepository.findIdsWithoutModifiedDate(Limit.of(NoteColumnBackfill.BATCH_SIZE)))
+                .thenReturn(fullBatch, lastBatch);
+        Mockito.when(noteRepository.findIdsWithoutNotePreview(Limit.of(NoteColumnBackfill.BATCH_SIZE))).thenReturn(lastBatch);
+
+        noteColumnBackfill.run(null);
+
+        Mockito.verify(noteRepository).backfillModifiedDate(fullBatch);
+        Mockito.verify(noteRepository).backfillModifiedDate(lastBatch);
+        Mockito.verify(noteRepository).backfillNotePreview(lastBatch);
+        Mockito.verify(noteRepository, Mockito.times(2)).findIdsWithoutModifiedDate(Mockito.any(Limit.class));
+    }
+}
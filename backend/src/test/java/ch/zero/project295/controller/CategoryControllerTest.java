@@ -3,6 +3,8 @@ package ch.zero.project295.controller;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,7 +22,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import ch.zero.project295.dto.CategoryDTO;
 import ch.zero.project295.model.Category;
 import ch.zero.project295.repository.CategoryRepository;
-import ch.zero.project295.repository.UserRepository;
+import ch.zero.project295.util.CursorPaging;
 import ch.zero.project295.util.EntityMapper;
 
 /**
@@ -38,8 +42,31 @@ class CategoryControllerTest {
     @MockBean
     private CategoryRepository categoryRepository;
 
-    @MockBean
-    private UserRepository userRepository;
+    /**
+     * Test for retrieving a page of categories.
+     * Ensures that the page is cut to the limit and carries the cursor of its last category.
+     */
+    @Test
+    void getAllCategories_Success_ReturnsNextCursor() throws Exception {
+        // Arrange
+        Category first = new Category();
+        first.setCategoryId(1L);
+        first.setCategoryName("First");
+        Category second = new Category();
+        second.setCategoryId(2L);
+        second.setCategoryName("Second");
+
+        Mockito.when(categoryRepository.findByCategoryIdGreaterThanOrderByCategoryIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        // Act & Assert
+        mockMvc.perform(get("/category").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].categoryName").value("First"))
+                .andExpect(jsonPath("$.nextCursor").value(CursorPaging.encodeIdCursor(1L)));
+    }
 
     /**
      * Test for successfully creating a category.
@@ -52,9 +79,6 @@ class CategoryControllerTest {
         categoryDTO.setCategoryName("Test Category");
         categoryDTO.setUserId(1L);
 
-        // Mock the UserRepository to simulate the user exists
-        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
-        
         // Mock the CategoryRepository to return the category after saving
         Category category = EntityMapper.toCategoryEntity(categoryDTO);
         Mockito.when(categoryRepository.save(Mockito.any(Category.class))).thenReturn(category);
@@ -79,8 +103,10 @@ class CategoryControllerTest {
         categoryDTO.setCategoryName("Test Category");
         categoryDTO.setUserId(1L);
 
-        // Mock the UserRepository to simulate the user does not exist
-        Mockito.when(userRepository.existsById(1L)).thenReturn(false);
+        // Mock the CategoryRepository to simulate the foreign key violation of the insert
+        Mockito.when(categoryRepository.save(Mockito.any(Category.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key constraint fails"
+                        + " (`note_app`.`category`, CONSTRAINT `FK7ffc7h6obqvqfj4a6bd8gwu8h` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`))")));
 
         // Act & Assert
         mockMvc.perform(post("/category")
@@ -109,7 +135,80 @@ class CategoryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Category with ID 1 found successfully"))
-                .andExpect(jsonPath("$.data.categoryName").value("Test Category"));
+                .andExpect(jsonPath("$.data.categoryName").value("Test Category"))
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    /**
+     * Test for a conditional request of a category that has not changed.
+     * Ensures that a 304 response is returned without loading the category.
+     */
+    @Test
+    void getCategoryById_NotModified_WithMatchingETag() throws Exception {
+        // Arrange
+        Mockito.when(categoryRepository.findVersionById(1L)).thenReturn(Optional.of(2L));
+
+        // Act & Assert
+        mockMvc.perform(get("/category/{id}", 1L)
+                .header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(categoryRepository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    /**
+     * Test for updating a category with an outdated If-Match header.
+     * Ensures that a 412 response is returned and the category is not saved.
+     */
+    @Test
+    void updateCategory_Failure_ETagMismatch() throws Exception {
+        // Arrange
+        Category category = new Category();
+        category.setCategoryId(1L);
+        category.setCategoryName("Test Category");
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setCategoryName("Renamed");
+        categoryDTO.setUserId(1L);
+
+        Mockito.when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+
+        // Act & Assert
+        mockMvc.perform(put("/category/{id}", 1L)
+                .header("If-Match", "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(categoryDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Category with ID 1 has been changed in the meantime"));
+
+        Mockito.verify(categoryRepository, Mockito.never()).save(Mockito.any(Category.class));
+    }
+
+    /**
+     * Test for updating a category with the ETag of its CBOR representation.
+     * Ensures that If-Match accepts the ETag of either representation and the answer carries the ETag of the accepted one.
+     */
+    @Test
+    void updateCategory_Success_CborETag() throws Exception {
+        // Arrange
+        Category category = new Category();
+        category.setCategoryId(1L);
+        category.setCategoryName("Test Category");
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setCategoryName("Renamed");
+        categoryDTO.setUserId(1L);
+
+        Mockito.when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        Mockito.when(categoryRepository.save(Mockito.any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        mockMvc.perform(put("/category/{id}", 1L)
+                .header("If-Match", "\"0-cbor\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(categoryDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(header().string("Vary", "Accept"));
     }
 
     /**
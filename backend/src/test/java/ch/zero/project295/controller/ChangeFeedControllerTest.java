@@ -0,0 +1,97 @@
+package ch.zero.project295.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ch.zero.project295.repository.UserRepository;
+import ch.zero.project295.service.ChangeFeedService;
+
+/**
+ * Unit tests for the ChangeFeedController class.
+ * <p>
+ * These tests validate that the feed is only opened for existing users and that the ID to resume from is passed on.
+ * </p>
+ */
+@WebMvcTest(ChangeFeedController.class)
+class ChangeFeedControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    /**
+     * Test for opening the feed of an existing user with a Last-Event-ID header.
+     * Ensures that the stream is started uncached and resumes from the given event.
+     */
+    @Test
+    void streamChanges_Success_ResumesFromLastEventId() throws Exception {
+        // Arrange
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(changeFeedService.subscribe(1L, "abc-41")).thenReturn(emitter);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/feed").param("userId", "1")
+                        .header(ChangeFeedController.LAST_EVENT_ID, "abc-41")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // the headers are written with the first event
+        emitter.send(SseEmitter.event().comment("connected"));
+
+        // Assert
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("no-store", result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, result.getResponse().getContentType());
+        Mockito.verify(changeFeedService).subscribe(1L, "abc-41");
+    }
+
+    /**
+     * Test for opening the feed with the ID to resume from as a query parameter.
+     * Ensures that clients that cannot set headers can resume as well.
+     */
+    @Test
+    void streamChanges_Success_ResumesFromQueryParameter() throws Exception {
+        // Arrange
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(changeFeedService.subscribe(1L, "abc-7")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/feed").param("userId", "1").param("lastEventId", "abc-7"))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(changeFeedService).subscribe(1L, "abc-7");
+    }
+
+    /**
+     * Test for opening the feed of a user that does not exist.
+     * Ensures that the response status is 404 and no stream is opened.
+     */
+    @Test
+    void streamChanges_UserNotFound() throws Exception {
+        // Arrange
+        Mockito.when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/feed").param("userId", "99").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        Mockito.verifyNoInteractions(changeFeedService);
+    }
+}
@@ -1,29 +1,58 @@
 package ch.zero.project295.controller;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.OutputStream;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.MediaType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 
+import ch.zero.project295.dto.NoteBatchDTO;
+import ch.zero.project295.dto.NoteBodyDeltaDTO;
+import ch.zero.project295.dto.NoteBodyEditDTO;
 import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.dto.NotePatchDTO;
+import ch.zero.project295.dto.NoteRevisionDTO;
+import ch.zero.project295.dto.NoteView;
 import ch.zero.project295.model.Note;
 import ch.zero.project295.model.Category;
 import ch.zero.project295.repository.NoteRepository;
 import ch.zero.project295.repository.UserRepository;
 import ch.zero.project295.repository.CategoryRepository;
+import ch.zero.project295.service.NoteBatchService;
+import ch.zero.project295.service.NoteAutosaveService;
+import ch.zero.project295.service.NotePatchService;
+import ch.zero.project295.service.NoteRevisionService;
+import ch.zero.project295.service.NoteSearchIndex;
+import ch.zero.project295.service.NoteSearchService;
+import ch.zero.project295.service.NoteStreamService;
+import ch.zero.project295.util.CursorPaging;
+import ch.zero.project295.util.ETags;
 import ch.zero.project295.util.EntityMapper;
 
 /**
@@ -48,6 +77,24 @@ public class NoteControllerTest {
 
     @MockBean
     private CategoryRepository categoryRepository;
+
+    @MockBean
+    private NoteStreamService noteStreamService;
+
+    @MockBean
+    private NoteSearchService noteSearchService;
+
+    @MockBean
+    private NoteBatchService noteBatchService;
+
+    @MockBean
+    private NotePatchService notePatchService;
+
+    @MockBean
+    private NoteAutosaveService noteAutosaveService;
+
+    @MockBean
+    private NoteRevisionService noteRevisionService;
     
     /**
      * Test case to verify the successful creation of a note with a given userId and categoryId.
@@ -61,10 +108,6 @@ public class NoteControllerTest {
         noteDTO.setUserId(1L);  // Set only the user ID
         noteDTO.setCategoryId(2L);  // Set only the category ID
 
-        // Mock the UserRepository and CategoryRepository to simulate the user and category exist
-        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
-        Mockito.when(categoryRepository.existsById(2L)).thenReturn(true);
-        
         // Mock the NoteRepository to return the note after saving
         Note note = EntityMapper.toNoteEntity(noteDTO);
         Mockito.when(noteRepository.save(Mockito.any(Note.class))).thenReturn(note);
@@ -76,6 +119,59 @@ public class NoteControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Note created"));
+
+        Mockito.verify(userRepository, Mockito.never()).existsById(Mockito.anyLong());
+        Mockito.verify(categoryRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    /**
+     * Test case to verify that a foreign key violation on the user is reported as 404.
+     */
+    @Test
+    void createNote_Failure_UserNotFound() throws Exception {
+        // Arrange
+        NoteDTO noteDTO = new NoteDTO();
+        noteDTO.setNoteTitle("Test Note");
+        noteDTO.setNoteBody("This is a test note.");
+        noteDTO.setUserId(9L);
+        noteDTO.setCategoryId(2L);
+
+        Mockito.when(noteRepository.save(Mockito.any(Note.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key constraint fails"
+                        + " (`note_app`.`note`, CONSTRAINT `FKmoddtnuw3yy6ct34xnw6u0boh` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`))")));
+
+        // Act & Assert
+        mockMvc.perform(post("/note")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteDTO)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("User with ID 9 not found"));
+    }
+
+    /**
+     * Test case to verify that a foreign key violation on the category is reported as 404.
+     */
+    @Test
+    void createNote_Failure_CategoryNotFound() throws Exception {
+        // Arrange
+        NoteDTO noteDTO = new NoteDTO();
+        noteDTO.setNoteTitle("Test Note");
+        noteDTO.setNoteBody("This is a test note.");
+        noteDTO.setUserId(1L);
+        noteDTO.setCategoryId(8L);
+
+        Mockito.when(noteRepository.save(Mockito.any(Note.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Referential integrity constraint violation: \"FKSIPJOPV0F6VP7QSXQ0CIW6OOL:"
+                        + " PUBLIC.NOTE FOREIGN KEY(CATEGORY_ID) REFERENCES PUBLIC.CATEGORY(CATEGORY_ID) (CAST(8 AS BIGINT))\"")));
+
+        // Act & Assert
+        mockMvc.perform(post("/note")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteDTO)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Category with ID 8 not found"));
     }
     
     /**
@@ -95,6 +191,89 @@ public class NoteControllerTest {
         .andExpect(jsonPath("$.success").value(false))
         .andExpect(jsonPath("$.message").value("Title cannot be empty"));
     }
+
+    /**
+     * Test case to verify that a batch of notes is created after checking users and categories once.
+     */
+    @Test
+    void createNotes_Success_ReturnsCreatedNotes() throws Exception {
+        // Arrange
+        List<NoteDTO> notes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            NoteDTO noteDTO = new NoteDTO();
+            noteDTO.setNoteTitle("Note " + i);
+            noteDTO.setNoteBody("Body " + i);
+            noteDTO.setUserId(1L);
+            noteDTO.setCategoryId(2L);
+            notes.add(noteDTO);
+        }
+        NoteBatchDTO batch = new NoteBatchDTO();
+        batch.setNotes(notes);
+
+        Mockito.when(userRepository.findExistingIds(Mockito.anyCollection())).thenReturn(Set.of(1L));
+        Mockito.when(categoryRepository.findExistingIds(Mockito.anyCollection())).thenReturn(Set.of(2L));
+        Mockito.when(noteBatchService.createNotes(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        mockMvc.perform(post("/note/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("3 notes created"))
+                .andExpect(jsonPath("$.data.length()").value(3));
+
+        Mockito.verify(userRepository, Mockito.never()).existsById(Mockito.anyLong());
+        Mockito.verify(categoryRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    /**
+     * Test case to verify that no note of a batch is created when one of its users does not exist.
+     */
+    @Test
+    void createNotes_Failure_UserNotFound() throws Exception {
+        // Arrange
+        NoteDTO first = new NoteDTO();
+        first.setNoteTitle("First");
+        first.setNoteBody("Body");
+        first.setUserId(1L);
+        first.setCategoryId(2L);
+        NoteDTO second = new NoteDTO();
+        second.setNoteTitle("Second");
+        second.setNoteBody("Body");
+        second.setUserId(7L);
+        second.setCategoryId(2L);
+        NoteBatchDTO batch = new NoteBatchDTO();
+        batch.setNotes(List.of(first, second));
+
+        Mockito.when(userRepository.findExistingIds(Mockito.anyCollection())).thenReturn(Set.of(1L));
+
+        // Act & Assert
+        mockMvc.perform(post("/note/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("User with ID 7 not found"));
+
+        Mockito.verify(noteBatchService, Mockito.never()).createNotes(Mockito.anyList());
+    }
+
+    /**
+     * Test case to verify that an empty batch is rejected.
+     */
+    @Test
+    void createNotes_Failure_EmptyBatch() throws Exception {
+        NoteBatchDTO batch = new NoteBatchDTO();
+        batch.setNotes(List.of());
+
+        mockMvc.perform(post("/note/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Notes cannot be empty"));
+    }
         
     /**
      * Test case to verify successful retrieval of all notes.
@@ -102,21 +281,227 @@ public class NoteControllerTest {
     @Test
     void getAllNotes_Success() throws Exception {
         // Arrange
-        List<Note> notes = new ArrayList<>();
-        Note note = new Note();
-        note.setNoteId(1L);
-        note.setNoteTitle("Test Note");
-        note.setNoteBody("This is a test note.");
-        notes.add(note);
+        List<NoteDTO> notes = new ArrayList<>();
+        notes.add(new NoteDTO(1L, "Test Note", "This is a test note.", null, null, 0L, 1L, 2L));
 
-        Mockito.when(noteRepository.findAll()).thenReturn(notes);
+        Mockito.when(noteRepository.findPage(Mockito.isNull(), Mockito.isNull(), Mockito.eq(NoteView.FULL),
+                Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(notes);
 
         // Act & Assert
         mockMvc.perform(get("/note"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data").isArray())
-                .andExpect(jsonPath("$.data.length()").value(1));
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    /**
+     * Test case to verify that a full page returns a cursor that resumes after the last note of the page.
+     */
+    @Test
+    void getAllNotes_Success_ReturnsNextCursor() throws Exception {
+        // Arrange
+        LocalDateTime modifiedDate = LocalDateTime.of(2024, 11, 5, 10, 30);
+        List<NoteDTO> notes = new ArrayList<>();
+        for (long id = 1; id <= 2; id++) {
+            notes.add(new NoteDTO(id, "Test Note " + id, "This is a test note.", modifiedDate, modifiedDate, 0L, 1L, 2L));
+        }
+        Mockito.when(noteRepository.findPage(Mockito.isNull(), Mockito.isNull(), Mockito.eq(NoteView.FULL),
+                Mockito.any(), Mockito.anyLong(), Mockito.eq(Limit.of(2)))).thenReturn(notes);
+
+        // Act & Assert
+        mockMvc.perform(get("/note").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(CursorPaging.encodeNoteCursor(modifiedDate, 1L)));
+
+        mockMvc.perform(get("/note").param("limit", "1").param("after", CursorPaging.encodeNoteCursor(modifiedDate, 1L)))
+                .andExpect(status().isOk());
+        Mockito.verify(noteRepository).findPage(null, null, NoteView.FULL, modifiedDate, 1L, Limit.of(2));
+    }
+
+    /**
+     * Test case to verify that the page ETag covers the rows sent and the next cursor, but not the look-ahead row,
+     * and that the 304 check from the versions agrees with it.
+     */
+    @Test
+    void getAllNotes_ETag_IgnoresLookAheadRow() throws Exception {
+        // Arrange
+        LocalDateTime modifiedDate = LocalDateTime.of(2024, 11, 5, 10, 30);
+        List<NoteDTO> notes = List.of(new NoteDTO(1L, "Test Note 1", "This is a test note.", modifiedDate, modifiedDate, 0L, 1L, 2L),
+                new NoteDTO(2L, "Test Note 2", "This is a test note.", modifiedDate, modifiedDate, 7L, 1L, 2L));
+        String etag = ETags.ofPage(NoteView.FULL.name(), MediaType.APPLICATION_JSON, List.<long[]>of(new long[] {1L, 0L}), true);
+        Mockito.when(noteRepository.findPage(Mockito.isNull(), Mockito.isNull(), Mockito.eq(NoteView.FULL),
+                Mockito.any(), Mockito.anyLong(), Mockito.eq(Limit.of(2)))).thenReturn(notes);
+        Mockito.when(noteRepository.findPageVersions(Mockito.isNull(), Mockito.isNull(), Mockito.any(LocalDateTime.class),
+                Mockito.anyLong(), Mockito.eq(Limit.of(2)))).thenReturn(List.of(new long[] {1L, 0L}, new long[] {2L, 8L}));
+
+        // Act & Assert
+        mockMvc.perform(get("/note").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/note").param("limit", "1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        assertNotEquals(etag, ETags.ofPage(NoteView.FULL.name(), MediaType.APPLICATION_JSON, List.<long[]>of(new long[] {1L, 0L}), false));
+    }
+
+    /**
+     * Test case to verify that the summary view requests the summary columns and leaves the body out of the response.
+     */
+    @Test
+    void getAllNotes_Success_SummaryView() throws Exception {
+        // Arrange
+        NoteDTO summary = new NoteDTO();
+        summary.setNoteId(1L);
+        summary.setNoteTitle("Test Note");
+        summary.setNotePreview("This is a test");
+
+        Mockito.when(noteRepository.findPage(Mockito.isNull(), Mockito.isNull(), Mockito.eq(NoteView.SUMMARY),
+                Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(List.of(summary));
+
+        // Act & Assert
+        mockMvc.perform(get("/note").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].notePreview").value("This is a test"))
+                .andExpect(jsonPath("$.data[0].noteBody").doesNotExist());
+    }
+
+    /**
+     * Test case to verify failure when an unknown view is requested.
+     */
+    @Test
+    void getAllNotes_Failure_UnknownView() throws Exception {
+        mockMvc.perform(get("/note").param("view", "compact"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Unknown view compact, expected full or summary"));
+    }
+
+    /**
+     * Test case to verify failure when the cursor cannot be decoded.
+     */
+    @Test
+    void getAllNotes_Failure_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/note").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    /**
+     * Test case to verify that the categoryId filter is resolved by the repository query instead of findAll.
+     */
+    @Test
+    void getAllNotes_Success_FilteredByCategory() throws Exception {
+        // Arrange
+        NoteDTO note = new NoteDTO(1L, "Test Note", "This is a test note.", null, null, 0L, 1L, 2L);
+
+        Mockito.when(categoryRepository.existsById(2L)).thenReturn(true);
+        Mockito.when(noteRepository.findPage(Mockito.isNull(), Mockito.eq(2L), Mockito.eq(NoteView.FULL),
+                Mockito.any(), Mockito.anyLong(), Mockito.any()))
+                .thenReturn(List.of(note));
+
+        // Act & Assert
+        mockMvc.perform(get("/note").param("categoryId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].categoryId").value(2));
+
+        Mockito.verify(noteRepository, Mockito.never()).findAll();
+    }
+
+    /**
+     * Test case to verify failure when filtering notes by a non-existent user.
+     */
+    @Test
+    void getAllNotes_Failure_UserNotFound() throws Exception {
+        // Arrange
+        Mockito.when(userRepository.existsById(5L)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/note").param("userId", "5"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("User with ID 5 not found"));
+    }
+
+    /**
+     * Test case to verify that requesting NDJSON streams one note per line through the stream service.
+     */
+    @Test
+    void streamAllNotes_Success() throws Exception {
+        // Arrange
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"noteId\":1}\n{\"noteId\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(noteStreamService).writeNotes(Mockito.eq(1L), Mockito.isNull(), Mockito.any());
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/note").param("userId", "1").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"noteId\":1}\n{\"noteId\":2}\n"));
+    }
+
+    /**
+     * Test case to verify that the streaming endpoint answers an unknown category with the usual ApiResponse.
+     */
+    @Test
+    void streamAllNotes_Failure_CategoryNotFound() throws Exception {
+        // Arrange
+        Mockito.when(categoryRepository.existsById(3L)).thenReturn(false);
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/note").param("categoryId", "3").accept(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Category with ID 3 not found"));
+        Mockito.verifyNoInteractions(noteStreamService);
+    }
+
+    /**
+     * Test case to verify that search results are returned in rank order with a cursor for the next page.
+     */
+    @Test
+    void searchNotes_Success() throws Exception {
+        // Arrange
+        NoteDTO first = new NoteDTO(7L, "Coffee beans", "Order new coffee beans", null, null, 0L, 1L, 2L);
+        NoteDTO second = new NoteDTO(3L, "Meeting notes", "Discuss the coffee machine", null, null, 0L, 1L, 2L);
+
+        Mockito.when(noteSearchService.search("coffee", 1L, 0, 2))
+                .thenReturn(new NoteSearchIndex.SearchResult(List.of(7L, 3L), true));
+        Mockito.when(noteSearchService.loadNotes(List.of(7L, 3L))).thenReturn(List.of(first, second));
+
+        // Act & Assert
+        mockMvc.perform(get("/note/search").param("q", "coffee").param("userId", "1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data[0].noteId").value(7))
+                .andExpect(jsonPath("$.data[1].noteId").value(3))
+                .andExpect(jsonPath("$.nextCursor").value(CursorPaging.encodeOffsetCursor(2)));
+    }
+
+    /**
+     * Test case to verify failure when searching with a blank query.
+     */
+    @Test
+    void searchNotes_Failure_BlankQuery() throws Exception {
+        mockMvc.perform(get("/note/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Search query cannot be blank"));
+        Mockito.verifyNoInteractions(noteSearchService);
     }
 
     /**
@@ -125,18 +510,148 @@ public class NoteControllerTest {
     @Test
     void getNoteById_Success() throws Exception {
         // Arrange
-        Note note = new Note();
-        note.setNoteId(1L);
-        note.setNoteTitle("Test Note");
-        note.setNoteBody("This is a test note.");
+        NoteDTO note = new NoteDTO(1L, "Test Note", "This is a test note.", null, null, 0L, 1L, 2L);
 
-        Mockito.when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+        Mockito.when(noteRepository.findDTOById(1L)).thenReturn(Optional.of(note));
 
         // Act & Assert
         mockMvc.perform(get("/note/{id}", 1L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.message").value("Note with ID 1 found successfully"));
+                .andExpect(jsonPath("$.message").value("Note with ID 1 found successfully"))
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    /**
+     * Test case to verify that a note is sent as CBOR with numeric dates when the client accepts CBOR.
+     */
+    @Test
+    void getNoteById_Success_Cbor() throws Exception {
+        // Arrange
+        LocalDateTime modified = LocalDateTime.of(2024, 11, 1, 12, 0, 30);
+        NoteDTO note = new NoteDTO(1L, "Test Note", "This is a test note.", modified.minusDays(1), modified, 0L, 1L, 2L);
+
+        Mockito.when(noteRepository.findDTOById(1L)).thenReturn(Optional.of(note));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/note/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Assert
+        JsonNode response = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertTrue(response.get("success").booleanValue());
+        assertEquals("This is a test note.", response.get("data").get("noteBody").textValue());
+        assertTrue(response.get("data").get("modifiedDate").isIntegralNumber());
+        assertEquals(modified.toInstant(ZoneOffset.UTC).toEpochMilli(), response.get("data").get("modifiedDate").longValue());
+    }
+
+    /**
+     * Test case to verify that the CBOR representation of a note has its own ETag, which a JSON ETag does not match,
+     * and that responses vary by the Accept header.
+     */
+    @Test
+    void getNoteById_Cbor_HasOwnETag() throws Exception {
+        // Arrange
+        NoteDTO note = new NoteDTO(1L, "Test Note", "This is a test note.", null, null, 3L, 1L, 2L);
+
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        Mockito.when(noteRepository.findDTOById(1L)).thenReturn(Optional.of(note));
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+        mockMvc.perform(get("/note/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"3-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+        mockMvc.perform(get("/note/{id}", 1L)
+                .header("If-None-Match", "\"3-cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    /**
+     * Test case to verify that a note can be created from a CBOR body, with the answer in JSON by default.
+     */
+    @Test
+    void createNote_Success_CborRequest() throws Exception {
+        // Arrange
+        Map<String, Object> noteDTO = Map.of("noteTitle", "Test Note", "noteBody", "This is a test note.",
+                "userId", 1L, "categoryId", 2L, "createdDate", 1730462400000L);
+
+        Mockito.when(noteRepository.save(Mockito.any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        mockMvc.perform(post("/note")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .content(new CBORMapper().writeValueAsBytes(noteDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.noteTitle").value("Test Note"))
+                .andExpect(jsonPath("$.data.noteBody").value("This is a test note."));
+    }
+
+    /**
+     * Test case to verify that a matching If-None-Match is answered with 304 from the version alone.
+     */
+    @Test
+    void getNoteById_NotModified_WithMatchingETag() throws Exception {
+        // Arrange
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}", 1L)
+                .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(noteRepository, Mockito.never()).findDTOById(Mockito.anyLong());
+    }
+
+    /**
+     * Test case to verify that the ETag of the gzipped note validates If-None-Match and If-Match like the plain one.
+     */
+    @Test
+    void getNoteById_NotModified_WithGzipETag() throws Exception {
+        // Arrange
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}", 1L)
+                .header("If-None-Match", "\"3-gzip\""))
+                .andExpect(status().isNotModified());
+        assertEquals(3L, ETags.versionOf("\"3-cbor-gzip\""));
+        assertFalse(ETags.isPreconditionFailed("\"3-gzip\"", 3L));
+        assertTrue(ETags.isPreconditionFailed("\"2-gzip\"", 3L));
+    }
+
+    /**
+     * Test case to verify that a page is answered with 304 when its IDs and versions are unchanged.
+     */
+    @Test
+    void getAllNotes_NotModified_WithMatchingETag() throws Exception {
+        // Arrange
+        List<long[]> versions = List.of(new long[] {1L, 0L}, new long[] {2L, 5L});
+        Mockito.when(noteRepository.findPageVersions(Mockito.isNull(), Mockito.isNull(), Mockito.any(LocalDateTime.class),
+                Mockito.anyLong(), Mockito.any(Limit.class))).thenReturn(versions);
+
+        // Act & Assert
+        mockMvc.perform(get("/note")
+                .header("If-None-Match", ETags.ofPage(NoteView.FULL.name(), MediaType.APPLICATION_JSON, versions, false)))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(noteRepository, Mockito.never()).findPage(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.anyLong(), Mockito.any());
     }
 
     /**
@@ -145,7 +660,7 @@ public class NoteControllerTest {
     @Test
     void getNoteById_Failure_NotFound() throws Exception {
         // Arrange
-        Mockito.when(noteRepository.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(noteRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/note/{id}", 1L))
@@ -154,6 +669,64 @@ public class NoteControllerTest {
                 .andExpect(jsonPath("$.message").value("Note with ID 1 not found"));
     }
 
+    /**
+     * Test case to verify that the revisions of a note are listed.
+     */
+    @Test
+    void getNoteRevisions_Success() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<NoteRevisionDTO> revisions = List.of(
+                new NoteRevisionDTO(1L, 1L, "Second title", now.minusHours(1), now),
+                new NoteRevisionDTO(1L, 0L, "First title", now.minusHours(2), now.minusHours(1)));
+        Mockito.when(noteRevisionService.findRevisions(1L)).thenReturn(revisions);
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}/revisions", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].revision").value(1))
+                .andExpect(jsonPath("$.data[1].noteTitle").value("First title"));
+
+        Mockito.verify(noteRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    /**
+     * Test case to verify that listing the revisions of a missing note returns 404.
+     */
+    @Test
+    void getNoteRevisions_Failure_NoteNotFound() throws Exception {
+        // Arrange
+        Mockito.when(noteRevisionService.findRevisions(1L)).thenReturn(List.of());
+        Mockito.when(noteRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}/revisions", 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Note with ID 1 not found"));
+    }
+
+    /**
+     * Test case to verify that a note is read at a revision, and that a missing revision returns 404.
+     */
+    @Test
+    void getNoteRevision_SuccessAndNotFound() throws Exception {
+        // Arrange
+        NoteRevisionDTO revision = new NoteRevisionDTO(1L, 3L, "Old title", LocalDateTime.now(), LocalDateTime.now());
+        revision.setNoteBody("Old body");
+        Mockito.when(noteRevisionService.findRevision(1L, 3L)).thenReturn(Optional.of(revision));
+        Mockito.when(noteRevisionService.findRevision(1L, 4L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/note/{id}/revisions/{revision}", 1L, 3L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteTitle").value("Old title"))
+                .andExpect(jsonPath("$.data.noteBody").value("Old body"));
+        mockMvc.perform(get("/note/{id}/revisions/{revision}", 1L, 4L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Revision 4 of note with ID 1 not found"));
+    }
+
     /**
      * Test case to verify successful deletion of a note.
      */
@@ -209,7 +782,7 @@ public class NoteControllerTest {
 
         Mockito.when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
         Mockito.when(categoryRepository.existsById(3L)).thenReturn(true);
-        Mockito.when(categoryRepository.findById(3L)).thenReturn(Optional.of(newCategory));
+        Mockito.when(categoryRepository.getReferenceById(3L)).thenReturn(newCategory);
         Mockito.when(noteRepository.save(Mockito.any(Note.class))).thenReturn(note);
 
         String requestBody = objectMapper.writeValueAsString(java.util.Map.of("categoryId", 3L));
@@ -223,6 +796,29 @@ public class NoteControllerTest {
                 .andExpect(jsonPath("$.message").value("Note category updated successfully for note with ID 1"));
     }
 
+    /**
+     * Test case to verify that an update with an outdated If-Match is rejected with 412.
+     */
+    @Test
+    void updateNoteTitle_Failure_ETagMismatch() throws Exception {
+        // Arrange
+        Note note = new Note();
+        note.setNoteId(1L);
+        note.setNoteTitle("Test Note");
+        Mockito.when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+
+        // Act & Assert
+        mockMvc.perform(put("/note/{id}/notetitle", 1L)
+                .header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("noteTitle", "New Title"))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Note with ID 1 has been changed in the meantime"));
+
+        Mockito.verify(notePatchService, Mockito.never()).updateTitle(Mockito.any(Note.class), Mockito.anyString());
+    }
+
     /**
      * Test case to verify failure when attempting to update a note's category with a non-existent category ID.
      */
@@ -240,4 +836,316 @@ public class NoteControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Invalid category ID"));
     }
+
+    /**
+     * Test case to verify that a body delta returns the updated note with its preview instead of the body.
+     */
+    @Test
+    void applyNoteBodyDelta_Success_ReturnsPreview() throws Exception {
+        // Arrange
+        NoteBodyDeltaDTO delta = new NoteBodyDeltaDTO(3L, List.of(new NoteBodyEditDTO(5, 0, " world")));
+        NoteDTO updated = new NoteDTO(1L, "Title", "Hello world", LocalDateTime.now(), LocalDateTime.now(), 4L, 1L, 2L);
+        Mockito.when(notePatchService.applyBodyDelta(Mockito.eq(1L), Mockito.any(NoteBodyDeltaDTO.class))).thenReturn(Optional.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delta)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.notePreview").value("Hello world"))
+                .andExpect(jsonPath("$.data.noteBody").doesNotExist());
+
+        Mockito.verify(noteAutosaveService).discard(1L);
+    }
+
+    /**
+     * Test case to verify that the preview counts code points, so an emoji at its end is not cut in half.
+     */
+    @Test
+    void applyNoteBodyDelta_Success_PreviewKeepsSurrogatePairs() throws Exception {
+        // Arrange
+        String body = "a".repeat(Note.PREVIEW_LENGTH - 1) + "\uD83D\uDE00" + "b".repeat(10);
+        NoteBodyDeltaDTO delta = new NoteBodyDeltaDTO(3L, List.of(new NoteBodyEditDTO(0, 0, "a")));
+        NoteDTO updated = new NoteDTO(1L, "Title", body, LocalDateTime.now(), LocalDateTime.now(), 4L, 1L, 2L);
+        Mockito.when(notePatchService.applyBodyDelta(Mockito.eq(1L), Mockito.any(NoteBodyDeltaDTO.class))).thenReturn(Optional.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delta)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.notePreview").value("a".repeat(Note.PREVIEW_LENGTH - 1) + "\uD83D\uDE00"));
+
+        String emojis = "\uD83D\uDE00".repeat(150);
+        assertEquals(emojis, Note.previewOf(emojis));
+        assertEquals("\uD83D\uDE00".repeat(Note.PREVIEW_LENGTH), Note.previewOf(emojis + emojis));
+    }
+
+    /**
+     * Test case to verify that a body delta against an outdated version is rejected with 409.
+     */
+    @Test
+    void applyNoteBodyDelta_Failure_StaleBaseVersion() throws Exception {
+        // Arrange
+        NoteBodyDeltaDTO delta = new NoteBodyDeltaDTO(3L, List.of(new NoteBodyEditDTO(0, 1, "h")));
+        Mockito.when(notePatchService.applyBodyDelta(Mockito.eq(1L), Mockito.any(NoteBodyDeltaDTO.class))).thenReturn(Optional.empty());
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delta)))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Note with ID 1 has been changed since version 3"));
+    }
+
+    /**
+     * Test case to verify that edits beyond the end of the body are rejected.
+     */
+    @Test
+    void applyNoteBodyDelta_Failure_EditsDoNotFit() throws Exception {
+        // Arrange
+        NoteBodyDeltaDTO delta = new NoteBodyDeltaDTO(3L, List.of(new NoteBodyEditDTO(500, 1, "x")));
+        Mockito.when(notePatchService.applyBodyDelta(Mockito.eq(1L), Mockito.any(NoteBodyDeltaDTO.class))).thenReturn(Optional.empty());
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delta)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Edits do not fit the body of note with ID 1"));
+    }
+
+    /**
+     * Test case to verify that a body delta for a missing note returns 404.
+     */
+    @Test
+    void applyNoteBodyDelta_Failure_NoteNotFound() throws Exception {
+        // Arrange
+        NoteBodyDeltaDTO delta = new NoteBodyDeltaDTO(3L, List.of(new NoteBodyEditDTO(0, 1, "h")));
+        Mockito.when(notePatchService.applyBodyDelta(Mockito.eq(1L), Mockito.any(NoteBodyDeltaDTO.class))).thenReturn(Optional.empty());
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(delta)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Note with ID 1 not found"));
+    }
+
+    /**
+     * Test case to verify that a body delta without a base version is rejected.
+     */
+    @Test
+    void applyNoteBodyDelta_Failure_MissingBaseVersion() throws Exception {
+        mockMvc.perform(patch("/note/1/notebody")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"edits\": [{\"offset\": 0, \"insert\": \"x\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        Mockito.verifyNoInteractions(notePatchService);
+    }
+
+    /**
+     * Test case to verify that an autosave is acknowledged without touching the database.
+     */
+    @Test
+    void autosaveNoteBody_Success_Accepted() throws Exception {
+        // Arrange
+        Mockito.when(noteAutosaveService.submit(1L, "Draft")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(put("/note/1/notebody/autosave")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \"Draft\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Note body of note with ID 1 accepted for autosave"));
+
+        Mockito.verifyNoInteractions(noteRepository);
+    }
+
+    /**
+     * Test case to verify that a blank autosave is rejected.
+     */
+    @Test
+    void autosaveNoteBody_Failure_BlankBody() throws Exception {
+        mockMvc.perform(put("/note/1/notebody/autosave")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \" \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Note body cannot be blank"));
+
+        Mockito.verifyNoInteractions(noteAutosaveService);
+    }
+
+    /**
+     * Test case to verify that an autosave that does not fit the body column is rejected before it is buffered.
+     */
+    @Test
+    void autosaveNoteBody_Failure_TooLong() throws Exception {
+        // Arrange: two bytes per character in UTF-8
+        String noteBody = "\u00e9".repeat(Note.MAX_BODY_BYTES / 2 + 1);
+
+        // Act & Assert
+        mockMvc.perform(put("/note/1/notebody/autosave")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("noteBody", noteBody))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Note body cannot be longer than " + Note.MAX_BODY_BYTES + " bytes"));
+
+        Mockito.verifyNoInteractions(noteAutosaveService);
+    }
+
+    /**
+     * Test case to verify that an autosave is answered with 503 when the buffer is full.
+     */
+    @Test
+    void autosaveNoteBody_Failure_BufferFull() throws Exception {
+        // Arrange
+        Mockito.when(noteAutosaveService.submit(1L, "Draft")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(put("/note/1/notebody/autosave")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \"Draft\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    /**
+     * Test case to verify that a partial update returns the updated note without loading the entity.
+     */
+    @Test
+    void patchNote_Success_UpdatesGivenFields() throws Exception {
+        // Arrange
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setNoteTitle("New Title");
+        patch.setCategoryId(3L);
+        NoteDTO updated = new NoteDTO(1L, "New Title", "Body", LocalDateTime.now(), LocalDateTime.now(), 4L, 1L, 3L);
+        Mockito.when(notePatchService.patchNote(Mockito.eq(1L), Mockito.any(NotePatchDTO.class), Mockito.any())).thenReturn(Optional.of(updated));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.noteTitle").value("New Title"))
+                .andExpect(jsonPath("$.data.categoryId").value(3));
+
+        Mockito.verify(noteRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(categoryRepository, Mockito.never()).existsById(Mockito.anyLong());
+    }
+
+    /**
+     * Test case to verify that a partial update without any field is rejected.
+     */
+    @Test
+    void patchNote_Failure_NothingToUpdate() throws Exception {
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Nothing to update"));
+    }
+
+    /**
+     * Test case to verify that a blank title is rejected by a partial update.
+     */
+    @Test
+    void patchNote_Failure_BlankTitle() throws Exception {
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \" \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Title cannot be empty"));
+    }
+
+    /**
+     * Test case to verify that a partial update of a missing note returns 404.
+     */
+    @Test
+    void patchNote_Failure_NoteNotFound() throws Exception {
+        // Arrange
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setNoteBody("New body");
+        Mockito.when(notePatchService.patchNote(Mockito.eq(1L), Mockito.any(NotePatchDTO.class), Mockito.any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Note with ID 1 not found"));
+    }
+
+    /**
+     * Test case to verify that a partial update to a missing category returns 400.
+     */
+    @Test
+    void patchNote_Failure_InvalidCategory() throws Exception {
+        // Arrange
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setCategoryId(9L);
+        Mockito.when(notePatchService.patchNote(Mockito.eq(1L), Mockito.any(NotePatchDTO.class), Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(categoryRepository.existsById(9L)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid category ID"));
+    }
+
+    /**
+     * Test case to verify that a partial update with an outdated If-Match is rejected with 412.
+     */
+    @Test
+    void patchNote_Failure_VersionChanged() throws Exception {
+        // Arrange
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setNoteTitle("New Title");
+        Mockito.when(notePatchService.patchNote(Mockito.eq(1L), Mockito.any(NotePatchDTO.class), Mockito.eq(2L))).thenReturn(Optional.empty());
+        Mockito.when(noteRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Note with ID 1 has been changed in the meantime"));
+    }
+
+    /**
+     * Test case to verify that a partial update losing a lock conflict, such as a deadlock, is answered with 409.
+     */
+    @Test
+    void patchNote_Failure_LockConflict() throws Exception {
+        // Arrange
+        NotePatchDTO patch = new NotePatchDTO();
+        patch.setNoteTitle("New Title");
+        Mockito.when(notePatchService.patchNote(Mockito.eq(1L), Mockito.any(NotePatchDTO.class), Mockito.any()))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/note/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
 }
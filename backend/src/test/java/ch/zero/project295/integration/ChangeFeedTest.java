@@ -0,0 +1,177 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.zero.project295.controller.ChangeFeedController;
+import ch.zero.project295.service.ChangeFeedService;
+
+/**
+ * Integration tests for the change feed against an in-memory H2 database.
+ * <p>
+ * These tests validate that committed changes reach the feed of their owner only, that a reconnecting client
+ * gets the events it missed, and that a client that cannot resume is told to reload.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ChangeFeedTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    private long userId;
+    private long otherUserId;
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        NoteFixture fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        userId = fixture.insertUser("owner");
+        otherUserId = fixture.insertUser("other");
+        categoryId = fixture.insertCategory("First", userId);
+    }
+
+    /**
+     * Test that note and category changes are pushed to the feed of their owner and not to other feeds.
+     */
+    @Test
+    void feed_PushesChangesOfTheUser() throws Exception {
+        // Arrange
+        MockHttpServletResponse feed = openFeed(userId, null);
+        MockHttpServletResponse otherFeed = openFeed(otherUserId, null);
+
+        // Act
+        mockMvc.perform(post("/note").contentType(MediaType.APPLICATION_JSON).content(noteJson("Pushed")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/category/{id}", categoryId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Renamed\", \"userId\": " + userId + "}")).andExpect(status().isOk());
+
+        // Assert
+        String content = awaitContent(feed, body -> body.contains("event:category"));
+        assertTrue(content.contains("event:note"));
+        assertTrue(content.contains("\"changeType\":\"CREATED\""));
+        assertTrue(content.contains("\"noteTitle\":\"Pushed\""));
+        assertFalse(content.contains("\"noteBody\""), "notes are pushed as summaries");
+        assertTrue(content.contains("\"categoryName\":\"Renamed\""));
+        assertFalse(otherFeed.getContentAsString().contains("event:"));
+    }
+
+    /**
+     * Test that events are written as they happen to a client that accepts anything and gzip, as curl --compressed does.
+     */
+    @Test
+    void feed_AnyAcceptWithGzip_IsNotBuffered() throws Exception {
+        // Arrange
+        MockHttpServletResponse feed = mockMvc.perform(get("/feed").param("userId", String.valueOf(userId))
+                        .header(HttpHeaders.ACCEPT, "*/*")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(feed, body -> body.contains(":connected"));
+
+        // Act
+        mockMvc.perform(post("/note").contentType(MediaType.APPLICATION_JSON).content(noteJson("Unbuffered")))
+                .andExpect(status().isCreated());
+
+        // Assert
+        awaitContent(feed, body -> body.contains("\"noteTitle\":\"Unbuffered\""));
+        assertNull(feed.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    /**
+     * Test that a client reconnecting with Last-Event-ID gets the changes it missed.
+     */
+    @Test
+    void feed_ReplaysMissedChanges() throws Exception {
+        // Arrange
+        String lastEventId = changeFeedService.currentEventId();
+        mockMvc.perform(post("/note").contentType(MediaType.APPLICATION_JSON).content(noteJson("Missed")))
+                .andExpect(status().isCreated());
+
+        // Act
+        MockHttpServletResponse feed = openFeed(userId, lastEventId);
+
+        // Assert
+        String content = awaitContent(feed, body -> body.contains("event:note"));
+        assertTrue(content.contains("\"noteTitle\":\"Missed\""));
+        assertFalse(content.contains("event:reset"));
+    }
+
+    /**
+     * Test that a client that cannot resume, for example after a restart, is told to reload.
+     */
+    @Test
+    void feed_UnknownLastEventId_SendsReset() throws Exception {
+        // Act
+        MockHttpServletResponse feed = openFeed(userId, "earlier-run-12");
+
+        // Assert
+        String content = awaitContent(feed, body -> body.contains("event:reset"));
+        assertTrue(content.contains("id:" + changeFeedService.currentEventId()));
+    }
+
+    /**
+     * Test that the feed of a user that does not exist is not opened.
+     */
+    @Test
+    void feed_UserNotFound() throws Exception {
+        mockMvc.perform(get("/feed").param("userId", String.valueOf(otherUserId + 1000)).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletResponse openFeed(long feedUserId, String lastEventId) throws Exception {
+        var feedRequest = get("/feed").param("userId", String.valueOf(feedUserId)).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            feedRequest.header(ChangeFeedController.LAST_EVENT_ID, lastEventId);
+        }
+        MockHttpServletResponse response = mockMvc.perform(feedRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(response, body -> body.contains(":connected"));
+        return response;
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        String content = response.getContentAsString();
+        while (!condition.test(content)) {
+            String received = content;
+            assertTrue(System.nanoTime() < deadline, () -> "Feed did not receive the expected events: " + received);
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    private String noteJson(String title) {
+        return "{\"noteTitle\": \"" + title + "\", \"noteBody\": \"Body of the note\", \"userId\": " + userId
+                + ", \"categoryId\": " + categoryId + "}";
+    }
+}
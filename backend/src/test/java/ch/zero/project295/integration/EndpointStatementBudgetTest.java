@@ -0,0 +1,293 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.zero.project295.model.Note;
+import ch.zero.project295.service.NoteSearchIndex;
+
+/**
+ * Integration tests that run every endpoint against an in-memory H2 database and count its SQL statements.
+ * <p>
+ * The budgets below are the statements one call may prepare, no matter how many rows it returns or touches.
+ * The list and batch endpoints are additionally called with few and many rows, so an N+1 regression,
+ * such as an EAGER association or a lookup per element, fails even while it is still within the budget.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@StatementBudget(endpoint = "GET /note", max = 3)
+@StatementBudget(endpoint = "GET /note/{id}", max = 1)
+@StatementBudget(endpoint = "GET /note/{id}/revisions", max = 1)
+@StatementBudget(endpoint = "GET /note/{id}/revisions/{revision}", max = 1)
+@StatementBudget(endpoint = "GET /note/search", max = 1)
+@StatementBudget(endpoint = "POST /note", max = 1)
+@StatementBudget(endpoint = "POST /note/batch", max = 3)
+@StatementBudget(endpoint = "PUT /note/{id}/notetitle", max = 4)
+@StatementBudget(endpoint = "PUT /note/{id}/notebody", max = 4)
+@StatementBudget(endpoint = "PUT /note/{id}/notebody/autosave", max = 0)
+@StatementBudget(endpoint = "PATCH /note/{id}/notebody", max = 4)
+@StatementBudget(endpoint = "PUT /note/{id}/category", max = 3)
+@StatementBudget(endpoint = "PATCH /note/{id}", max = 4)
+@StatementBudget(endpoint = "DELETE /note/{id}", max = 2)
+@StatementBudget(endpoint = "GET /category", max = 1)
+@StatementBudget(endpoint = "GET /category/{id}", max = 1)
+@StatementBudget(endpoint = "POST /category", max = 1)
+@StatementBudget(endpoint = "PUT /category/{id}", max = 2)
+@StatementBudget(endpoint = "DELETE /category/{id}", max = 2)
+@StatementBudget(endpoint = "GET /feed", max = 1)
+@StatementBudget(endpoint = "GET /user", max = 1)
+@StatementBudget(endpoint = "GET /user/{id}", max = 1)
+@StatementBudget(endpoint = "POST /user/register", max = 1)
+@StatementBudget(endpoint = "PUT /user/{id}/username", max = 2)
+@StatementBudget(endpoint = "PUT /user/{id}/email", max = 2)
+@StatementBudget(endpoint = "PUT /user/{id}/password", max = 2)
+@StatementBudget(endpoint = "DELETE /user/{id}", max = 2)
+class EndpointStatementBudgetTest {
+
+    private static final AtomicLong NEXT_NOTE_ID = new AtomicLong(1_000_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    private StatementCountingMockMvc budgetedMockMvc;
+    private NoteFixture fixture;
+    private long userId;
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        budgetedMockMvc = new StatementCountingMockMvc(mockMvc, getClass());
+        fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        userId = fixture.insertUser("owner");
+        categoryId = fixture.insertCategory("First", userId);
+    }
+
+    /**
+     * Test that the note list does not need more statements for more notes, also filtered and as summary.
+     */
+    @Test
+    void getAllNotes_NoNPlusOne() throws Exception {
+        insertNotes(1);
+
+        budgetedMockMvc.assertNoNPlusOne(get("/note"), () -> insertNotes(40));
+        budgetedMockMvc.assertNoNPlusOne(get("/note").param("userId", String.valueOf(userId))
+                .param("categoryId", String.valueOf(categoryId)).param("view", "summary"), () -> insertNotes(40));
+    }
+
+    /**
+     * Test that a conditional note list request stays within the budget.
+     */
+    @Test
+    void getAllNotes_NotModified_WithinBudget() throws Exception {
+        insertNotes(10);
+        String etag = budgetedMockMvc.perform(get("/note")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        budgetedMockMvc.perform(get("/note").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Test that a single note, also conditionally, stays within the budget.
+     */
+    @Test
+    void getNoteById_WithinBudget() throws Exception {
+        long noteId = insertNotes(1).get(0);
+
+        String etag = budgetedMockMvc.perform(get("/note/{id}", noteId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        budgetedMockMvc.perform(get("/note/{id}", noteId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Test that the search results are loaded with a constant number of statements.
+     */
+    @Test
+    void searchNotes_NoNPlusOne() throws Exception {
+        createBatch(1);
+        noteSearchIndex.refresh();
+
+        budgetedMockMvc.assertNoNPlusOne(get("/note/search").param("q", "note"), () -> {
+            createBatch(40);
+            noteSearchIndex.refresh();
+        });
+    }
+
+    /**
+     * Test that creating a note stays within the budget.
+     */
+    @Test
+    void createNote_WithinBudget() throws Exception {
+        budgetedMockMvc.perform(post("/note").contentType(MediaType.APPLICATION_JSON).content(noteJson("Single")))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Test that a batch of many notes needs no more statements than a batch of one.
+     */
+    @Test
+    void createNotesBatch_NoNPlusOne() throws Exception {
+        createBatch(1);
+        int single = budgetedMockMvc.lastStatements();
+        createBatch(80);
+
+        assertTrue(budgetedMockMvc.lastStatements() <= single,
+                "POST /note/batch prepared " + single + " SQL statements for 1 note, "
+                        + budgetedMockMvc.lastStatements() + " for 80 notes");
+    }
+
+    /**
+     * Test that the note updates, reading their revisions and the delete stay within the budget.
+     */
+    @Test
+    void updateAndDeleteNote_WithinBudget() throws Exception {
+        long noteId = insertNotes(1).get(0);
+
+        budgetedMockMvc.perform(put("/note/{id}/notetitle", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \"New title\"}")).andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/note/{id}/notebody/autosave", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \"Autosaved body\"}")).andExpect(status().isAccepted());
+        // the autosave may have been flushed before the PUT discarded it, so the version is taken from the answer
+        String version = budgetedMockMvc.perform(put("/note/{id}/notebody", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \"New body\"}")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag").replace("\"", "");
+        budgetedMockMvc.perform(patch("/note/{id}/notebody", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": " + version + ", \"edits\": [{\"offset\": 0, \"delete\": 3, \"insert\": \"Edited\"}]}"))
+                .andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/note/{id}/category", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryId\": " + categoryId + "}")).andExpect(status().isOk());
+        budgetedMockMvc.perform(patch("/note/{id}", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \"Patched\", \"noteBody\": \"Patched body\"}")).andExpect(status().isOk());
+        budgetedMockMvc.perform(get("/note/{id}/revisions", noteId)).andExpect(status().isOk());
+        budgetedMockMvc.perform(get("/note/{id}/revisions/{revision}", noteId, 0)).andExpect(status().isOk());
+        budgetedMockMvc.perform(delete("/note/{id}", noteId)).andExpect(status().isNoContent());
+    }
+
+    /**
+     * Test that the category list does not need more statements for more categories.
+     */
+    @Test
+    void getAllCategories_NoNPlusOne() throws Exception {
+        budgetedMockMvc.assertNoNPlusOne(get("/category"), () -> {
+            for (int i = 0; i < 40; i++) {
+                fixture.insertCategory("Category " + i, userId);
+            }
+        });
+    }
+
+    /**
+     * Test that the category endpoints stay within the budget.
+     */
+    @Test
+    void categoryEndpoints_WithinBudget() throws Exception {
+        budgetedMockMvc.perform(post("/category").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Second\", \"userId\": " + userId + "}")).andExpect(status().isCreated());
+        budgetedMockMvc.perform(get("/category/{id}", categoryId)).andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/category/{id}", categoryId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Renamed\", \"userId\": " + userId + "}")).andExpect(status().isOk());
+        budgetedMockMvc.perform(delete("/category/{id}", categoryId)).andExpect(status().isOk());
+    }
+
+    /**
+     * Test that opening the change feed, which replaces polling the note list, stays within the budget.
+     */
+    @Test
+    void openFeed_WithinBudget() throws Exception {
+        budgetedMockMvc.perform(get("/feed").param("userId", String.valueOf(userId)).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    /**
+     * Test that the user list does not need more statements for more users.
+     */
+    @Test
+    void getAllUsers_NoNPlusOne() throws Exception {
+        budgetedMockMvc.assertNoNPlusOne(get("/user"), () -> {
+            for (int i = 0; i < 40; i++) {
+                fixture.insertUser("user" + i);
+            }
+        });
+    }
+
+    /**
+     * Test that the user endpoints stay within the budget.
+     */
+    @Test
+    void userEndpoints_WithinBudget() throws Exception {
+        budgetedMockMvc.perform(post("/user/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"newuser\", \"email\": \"new@example.com\", \"password\": \"secret!1\"}"))
+                .andExpect(status().isCreated());
+        long newUserId = jdbcTemplate.queryForObject("select user_id from user where username = 'newuser'", Long.class);
+
+        budgetedMockMvc.perform(get("/user/{id}", newUserId)).andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/user/{id}/username", newUserId).contentType(MediaType.TEXT_PLAIN)
+                .content("renamed")).andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/user/{id}/email", newUserId).contentType(MediaType.TEXT_PLAIN)
+                .content("renamed@example.com")).andExpect(status().isOk());
+        budgetedMockMvc.perform(put("/user/{id}/password", newUserId).contentType(MediaType.TEXT_PLAIN)
+                .content("secret!2")).andExpect(status().isOk());
+        budgetedMockMvc.perform(delete("/user/{id}", newUserId)).andExpect(status().isNoContent());
+    }
+
+    private List<Long> insertNotes(int count) {
+        List<Long> noteIds = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            long noteId = NEXT_NOTE_ID.incrementAndGet();
+            noteIds.add(noteId);
+            rows.add(new Object[] {noteId, "Note " + noteId, "Body", Note.previewOf("Body"), now, now, userId, categoryId});
+        }
+        jdbcTemplate.batchUpdate("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, user_id, category_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return noteIds;
+    }
+
+    private void createBatch(int count) throws Exception {
+        List<String> notes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            notes.add(noteJson("Note " + i));
+        }
+        budgetedMockMvc.perform(post("/note/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\": [" + String.join(", ", notes) + "]}"))
+                .andExpect(status().isCreated());
+    }
+
+    private String noteJson(String title) {
+        return "{\"noteTitle\": \"" + title + "\", \"noteBody\": \"Body of the note\", \"userId\": " + userId
+                + ", \"categoryId\": " + categoryId + "}";
+    }
+}
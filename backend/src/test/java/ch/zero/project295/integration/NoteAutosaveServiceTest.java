@@ -0,0 +1,146 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import ch.zero.project295.model.Note;
+import ch.zero.project295.service.NoteAutosaveService;
+
+/**
+ * Integration tests for the NoteAutosaveService class against an in-memory H2 database.
+ * <p>
+ * The periodic flush is set far in the future, so the tests decide when the buffer is written.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "note.autosave.flush-interval=1h",
+        "note.autosave.flush-threshold=5"
+})
+@ActiveProfiles("h2")
+class NoteAutosaveServiceTest {
+
+    @Autowired
+    private NoteAutosaveService noteAutosaveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        noteAutosaveService.flush();
+        NoteFixture fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        long userId = fixture.insertUser("owner");
+        long categoryId = fixture.insertCategory("First", userId);
+        for (long noteId = 1; noteId <= 10; noteId++) {
+            fixture.insertNote(noteId, "Note " + noteId, "Body", 0, userId, categoryId);
+        }
+    }
+
+    /**
+     * Test that repeated autosaves of a note are written once, with the latest body.
+     */
+    @Test
+    void flush_CoalescesRepeatedSaves() {
+        noteAutosaveService.submit(1L, "First draft");
+        noteAutosaveService.submit(1L, "Second draft");
+        noteAutosaveService.submit(1L, "Final draft");
+
+        assertEquals(1, noteAutosaveService.pendingCount());
+        assertEquals("Body", bodyOf(1L));
+
+        assertEquals(1, noteAutosaveService.flush());
+        Map<String, Object> note = jdbcTemplate.queryForMap("select note_body, note_preview, version from note where note_id = 1");
+        assertEquals("Final draft", note.get("note_body"));
+        assertEquals(Note.previewOf("Final draft"), note.get("note_preview"));
+        assertEquals(1L, ((Number) note.get("version")).longValue());
+        assertEquals(0, noteAutosaveService.pendingCount());
+    }
+
+    /**
+     * Test that a discarded autosave is not written.
+     */
+    @Test
+    void discard_DropsPendingBody() {
+        noteAutosaveService.submit(2L, "Draft");
+        noteAutosaveService.discard(2L);
+
+        assertEquals(0, noteAutosaveService.flush());
+        assertEquals("Body", bodyOf(2L));
+    }
+
+    /**
+     * Test that autosaves of notes that do not exist are dropped without failing the others.
+     */
+    @Test
+    void flush_DropsMissingNotes() {
+        noteAutosaveService.submit(3L, "Draft");
+        noteAutosaveService.submit(999L, "Lost");
+
+        assertEquals(1, noteAutosaveService.flush());
+        assertEquals("Draft", bodyOf(3L));
+        assertEquals(0, noteAutosaveService.pendingCount());
+    }
+
+    /**
+     * Test that reaching the flush threshold writes the buffer without waiting for the interval.
+     */
+    @Test
+    void submit_FlushesAtThreshold() throws InterruptedException {
+        for (long noteId = 4; noteId <= 8; noteId++) {
+            noteAutosaveService.submit(noteId, "Draft " + noteId);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"Draft 8".equals(bodyOf(8L)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (long noteId = 4; noteId <= 8; noteId++) {
+            assertEquals("Draft " + noteId, bodyOf(noteId));
+        }
+    }
+
+    /**
+     * Test that a body the database rejects is dropped without holding back the other autosaves of the batch.
+     */
+    @Test
+    void flush_RejectedBody_DoesNotBlockOthers() {
+        jdbcTemplate.execute("alter table note add constraint no_poison check (note_body <> 'Poison')");
+        try {
+            noteAutosaveService.submit(1L, "Draft 1");
+            noteAutosaveService.submit(2L, "Poison");
+            noteAutosaveService.submit(3L, "Draft 3");
+
+            assertEquals(2, noteAutosaveService.flush());
+            assertEquals("Draft 1", bodyOf(1L));
+            assertEquals("Body", bodyOf(2L));
+            assertEquals("Draft 3", bodyOf(3L));
+            assertEquals(0, noteAutosaveService.pendingCount());
+        } finally {
+            jdbcTemplate.execute("alter table note drop constraint no_poison");
+        }
+    }
+
+    /**
+     * Test that a body that does not fit the note_body column is not accepted.
+     */
+    @Test
+    void submit_RejectsTooLongBody() {
+        String noteBody = "\u00e9".repeat(Note.MAX_BODY_BYTES / 2 + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> noteAutosaveService.submit(1L, noteBody));
+        assertEquals(0, noteAutosaveService.pendingCount());
+    }
+
+    private String bodyOf(long noteId) {
+        return jdbcTemplate.queryForObject("select note_body from note where note_id = ?", String.class, noteId);
+    }
+}
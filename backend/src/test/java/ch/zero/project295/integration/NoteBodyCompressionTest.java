@@ -0,0 +1,217 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.zero.project295.model.Note;
+import ch.zero.project295.repository.NoteRepository;
+import ch.zero.project295.service.NoteBodyReencoder;
+import ch.zero.project295.util.NoteBodyCodec;
+
+/**
+ * Integration tests for the compression of note bodies against an in-memory H2 database.
+ * <p>
+ * These tests validate that long bodies are stored compressed by every write path, are returned decompressed,
+ * can still be edited with deltas, and that existing plain bodies are compressed by the re-encoding job.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "note.body.compression.enabled=true",
+        "note.body.compression.threshold=100",
+        "note.body.compression.reencode-batch-size=2"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class NoteBodyCompressionTest {
+
+    private static final String LONG_BODY = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(20);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteBodyReencoder noteBodyReencoder;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteBodyCodec noteBodyCodec;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private NoteFixture fixture;
+    private long userId;
+    private long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        userId = fixture.insertUser("owner");
+        categoryId = fixture.insertCategory("First", userId);
+    }
+
+    /**
+     * Test that a created long note is stored compressed and returned as written, while short notes stay plain.
+     */
+    @Test
+    void createNote_StoresLongBodyCompressed() throws Exception {
+        long noteId = createNote(LONG_BODY);
+        long shortNoteId = createNote("Short body");
+
+        assertEquals("", storedBody(noteId));
+        assertEquals(LONG_BODY, NoteBodyCodec.decompress(deflatedBody(noteId)));
+        assertEquals("Short body", storedBody(shortNoteId));
+        assertNull(deflatedBody(shortNoteId));
+        mockMvc.perform(get("/note/{id}", noteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(LONG_BODY));
+        mockMvc.perform(get("/note").param("view", "summary"))
+                .andExpect(jsonPath("$.data[0].notePreview").value(Note.previewOf(LONG_BODY)));
+    }
+
+    /**
+     * Test that the body update and the patch store long bodies compressed, and that revisions copy them compressed.
+     */
+    @Test
+    void updates_StoreLongBodyCompressed() throws Exception {
+        long noteId = createNote("Short body");
+
+        mockMvc.perform(put("/note/{id}/notebody", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(java.util.Map.of("noteBody", LONG_BODY))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(LONG_BODY));
+        assertEquals(LONG_BODY, NoteBodyCodec.decompress(deflatedBody(noteId)));
+
+        mockMvc.perform(patch("/note/{id}", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(java.util.Map.of("noteBody", LONG_BODY + "!"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(LONG_BODY + "!"));
+        assertEquals(LONG_BODY + "!", NoteBodyCodec.decompress(deflatedBody(noteId)));
+        assertEquals("", storedBody(noteId));
+        assertEquals(LONG_BODY, NoteBodyCodec.decompress(jdbcTemplate.queryForObject(
+                "select note_body_deflated from note_revision where note_id = ? and revision = 1", byte[].class, noteId)));
+    }
+
+    /**
+     * Test that writing a note whose body was not read, as the title update does, does not decompress the body.
+     */
+    @Test
+    void updateTitle_DoesNotDecompressBody() throws Exception {
+        long noteId = createNote(LONG_BODY);
+        long decompressedCount = noteBodyCodec.getDecompressedCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Note note = noteRepository.findById(noteId).orElseThrow();
+            note.setNoteTitle("Renamed");
+            noteRepository.saveAndFlush(note);
+        });
+
+        assertEquals(decompressedCount, noteBodyCodec.getDecompressedCount());
+        assertEquals("Renamed", jdbcTemplate.queryForObject("select note_title from note where note_id = ?", String.class, noteId));
+        assertEquals(LONG_BODY, NoteBodyCodec.decompress(deflatedBody(noteId)));
+    }
+
+    /**
+     * Test that a delta is applied to a compressed body, which stays compressed.
+     */
+    @Test
+    void applyDelta_CompressedBody() throws Exception {
+        long noteId = createNote(LONG_BODY);
+
+        mockMvc.perform(patch("/note/{id}/notebody", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 0, \"edits\": [{\"offset\": 0, \"delete\": 5, \"insert\": \"Hello\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        assertEquals("Hello" + LONG_BODY.substring(5), NoteBodyCodec.decompress(deflatedBody(noteId)));
+
+        mockMvc.perform(patch("/note/{id}/notebody", noteId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 0, \"edits\": [{\"offset\": 0, \"delete\": 5, \"insert\": \"Stale\"}]}"))
+                .andExpect(status().isConflict());
+    }
+
+    /**
+     * Test that deltas at the start of a plain body are spliced in as written, whatever text they leave in front.
+     */
+    @Test
+    void applyDelta_EditAtStart_IsStoredPlain() throws Exception {
+        long insertedId = createNote("Short body");
+        long exposedId = createNote("x\uE000dAAAA");
+
+        mockMvc.perform(patch("/note/{id}/notebody", insertedId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(java.util.Map.of("baseVersion", 0,
+                        "edits", java.util.List.of(java.util.Map.of("offset", 0, "delete", 0, "insert", "\uE000d"))))))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/note/{id}/notebody", exposedId).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 0, \"edits\": [{\"offset\": 0, \"delete\": 1, \"insert\": \"\"}]}"))
+                .andExpect(status().isOk());
+
+        assertEquals("\uE000dShort body", storedBody(insertedId));
+        mockMvc.perform(get("/note/{id}", insertedId))
+                .andExpect(jsonPath("$.data.noteBody").value("\uE000dShort body"));
+        mockMvc.perform(get("/note/{id}", exposedId))
+                .andExpect(jsonPath("$.data.noteBody").value("\uE000dAAAA"));
+    }
+
+    /**
+     * Test that the re-encoding job compresses long plain bodies without changing versions.
+     */
+    @Test
+    void reencodeAll_CompressesExistingBodies() throws Exception {
+        for (long noteId = 1; noteId <= 5; noteId++) {
+            fixture.insertNote(noteId, "Legacy", noteId == 3 ? "Short body" : LONG_BODY + noteId, 7, userId, categoryId);
+        }
+
+        assertEquals(4, noteBodyReencoder.reencodeAll());
+
+        for (long noteId = 1; noteId <= 5; noteId++) {
+            assertEquals(noteId != 3, deflatedBody(noteId) != null);
+        }
+        assertEquals(LONG_BODY + 2, NoteBodyCodec.decompress(deflatedBody(2)));
+        assertEquals("", storedBody(2));
+        assertEquals(7L, jdbcTemplate.queryForObject("select version from note where note_id = 2", Long.class));
+        assertEquals(0, noteBodyReencoder.reencodeAll());
+        mockMvc.perform(get("/note/{id}", 4))
+                .andExpect(jsonPath("$.data.noteBody").value(LONG_BODY + 4));
+    }
+
+    private long createNote(String noteBody) throws Exception {
+        String response = mockMvc.perform(post("/note").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(java.util.Map.of("noteTitle", "Title", "noteBody", noteBody,
+                                "userId", userId, "categoryId", categoryId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).path("data").path("noteId").asLong();
+    }
+
+    private String storedBody(long noteId) {
+        return jdbcTemplate.queryForObject("select note_body from note where note_id = ?", String.class, noteId);
+    }
+
+    private byte[] deflatedBody(long noteId) {
+        return jdbcTemplate.queryForObject("select note_body_deflated from note where note_id = ?", byte[].class, noteId);
+    }
+}
@@ -0,0 +1,100 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the body delta endpoint against an in-memory H2 database.
+ * <p>
+ * These tests validate that the edits are spliced into the stored body by the UPDATE statement itself.
+ * </p>
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class NoteBodyDeltaTest {
+
+    private static final String BODY = "The quick brown fox jumps over the lazy dog";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        NoteFixture fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        long userId = fixture.insertUser("owner");
+        long categoryId = fixture.insertCategory("First", userId);
+        fixture.insertNote(1, "Fox", BODY, 2, userId, categoryId);
+    }
+
+    /**
+     * Test that several edits at the start, in the middle and at the end are applied to the base body.
+     */
+    @Test
+    void applyDelta_SplicesEdits() throws Exception {
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 2, \"edits\": ["
+                        + "{\"offset\": 0, \"delete\": 3, \"insert\": \"A\"},"
+                        + "{\"offset\": 10, \"delete\": 5, \"insert\": \"red\"},"
+                        + "{\"offset\": 35, \"delete\": 0, \"insert\": \"very \"},"
+                        + "{\"offset\": 43, \"insert\": \"!\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.data.notePreview").value("A quick red fox jumps over the very lazy dog!"));
+
+        Map<String, Object> note = jdbcTemplate.queryForMap("select note_body, note_preview, version from note where note_id = 1");
+        assertEquals("A quick red fox jumps over the very lazy dog!", note.get("note_body"));
+        assertEquals("A quick red fox jumps over the very lazy dog!", note.get("note_preview"));
+        assertEquals(3L, ((Number) note.get("version")).longValue());
+    }
+
+    /**
+     * Test that a delta against an older version is rejected and leaves the body unchanged.
+     */
+    @Test
+    void applyDelta_StaleBase_Conflict() throws Exception {
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 1, \"edits\": [{\"offset\": 0, \"delete\": 3, \"insert\": \"A\"}]}"))
+                .andExpect(status().isConflict());
+
+        assertEquals(BODY, jdbcTemplate.queryForObject("select note_body from note where note_id = 1", String.class));
+    }
+
+    /**
+     * Test that edits past the end of the body, overlapping edits and edits leaving a blank body are rejected.
+     */
+    @Test
+    void applyDelta_InvalidEdits_BadRequest() throws Exception {
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 2, \"edits\": [{\"offset\": 40, \"delete\": 4}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 2, \"edits\": [{\"offset\": 4, \"delete\": 5}, {\"offset\": 6, \"insert\": \"x\"}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 2, \"edits\": [{\"offset\": 0, \"delete\": 43, \"insert\": \"  \"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Note body cannot be blank"));
+
+        Map<String, Object> note = jdbcTemplate.queryForMap("select note_body, version from note where note_id = 1");
+        assertEquals(BODY, note.get("note_body"));
+        assertEquals(2L, ((Number) note.get("version")).longValue());
+    }
+}
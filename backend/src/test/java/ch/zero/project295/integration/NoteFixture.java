@@ -0,0 +1,73 @@
+package ch.zero.project295.integration;
+
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.zero.project295.model.Note;
+
+/**
+ * Seeds the in-memory database of the integration tests with users, categories and notes.
+ * <p>
+ * Rows are written with plain SQL, so seeding neither goes through the code under test
+ * nor counts against the statement budgets of a request.
+ * </p>
+ */
+public class NoteFixture {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NoteFixture(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Deletes all revisions, notes, categories and users.
+     */
+    public void clear() {
+        jdbcTemplate.update("delete from note_revision");
+        jdbcTemplate.update("delete from note");
+        jdbcTemplate.update("delete from category");
+        jdbcTemplate.update("delete from user");
+    }
+
+    /**
+     * Inserts a user with the email {@code <username>@example.com}.
+     *
+     * @param username the username
+     * @return the ID of the new user
+     */
+    public long insertUser(String username) {
+        jdbcTemplate.update("insert into user (username, email, password) values (?, ?, 'secret!1')",
+                username, username + "@example.com");
+        return jdbcTemplate.queryForObject("select max(user_id) from user", Long.class);
+    }
+
+    /**
+     * Inserts a category.
+     *
+     * @param categoryName the name of the category
+     * @param userId       the ID of the owner
+     * @return the ID of the new category
+     */
+    public long insertCategory(String categoryName, long userId) {
+        jdbcTemplate.update("insert into category (category_name, user_id) values (?, ?)", categoryName, userId);
+        return jdbcTemplate.queryForObject("select max(category_id) from category", Long.class);
+    }
+
+    /**
+     * Inserts a note with a plain body.
+     *
+     * @param noteId     the ID of the note
+     * @param noteTitle  the title
+     * @param noteBody   the body, stored uncompressed
+     * @param version    the version
+     * @param userId     the ID of the owner
+     * @param categoryId the ID of the category
+     */
+    public void insertNote(long noteId, String noteTitle, String noteBody, long version, long userId, long categoryId) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into note (note_id, note_title, note_body, note_preview, created_date, modified_date, version, user_id, category_id)"
+                + " values (?, ?, ?, ?, ?, ?, ?, ?, ?)", noteId, noteTitle, noteBody, Note.previewOf(noteBody), now, now, version, userId, categoryId);
+    }
+}
@@ -0,0 +1,259 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.zero.project295.service.NoteAutosaveService;
+import ch.zero.project295.service.NoteRevisionCompactor;
+
+/**
+ * Integration tests for the revision history of notes against an in-memory H2 database.
+ * <p>
+ * These tests validate that every update path records the overwritten title and body, that each revision
+ * reads back unchanged before and after the compactor turned it into a delta, and the retention of revisions.
+ * The snapshot interval and the number of revisions per note are small, so both are reached by a few updates.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "note.revision.snapshot-interval=3",
+        "note.revision.max-per-note=5",
+        "note.revision.compaction-interval=1h"
+})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class NoteRevisionTest {
+
+    private static final String BODY = lines(0, 100);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NoteRevisionCompactor noteRevisionCompactor;
+
+    @Autowired
+    private NoteAutosaveService noteAutosaveService;
+
+    @BeforeEach
+    void setUp() {
+        NoteFixture fixture = new NoteFixture(jdbcTemplate);
+        fixture.clear();
+        long userId = fixture.insertUser("owner");
+        long categoryId = fixture.insertCategory("First", userId);
+        fixture.insertNote(1, "Title 0", BODY, 0, userId, categoryId);
+    }
+
+    /**
+     * Test that concurrent deltas against the same version leave one update and one revision,
+     * and that the others are rejected as conflicts instead of failing.
+     */
+    @Test
+    void concurrentUpdates_OneWins_OthersConflict() throws Exception {
+        int clients = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                String insert = "Client " + i + " ";
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"baseVersion\": 0, \"edits\": [{\"offset\": 0, \"delete\": 0, \"insert\": \"" + insert + "\"}]}"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, results.stream().filter(status -> status == 200).count(), results.toString());
+            assertEquals(clients - 1, results.stream().filter(status -> status == 409).count(), results.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from note where note_id = 1", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from note_revision where note_id = 1", Integer.class));
+    }
+
+    /**
+     * Test that the title and body PUTs and both PATCHes record revisions, which read back the same
+     * before and after compaction, and that compaction stores deltas with a snapshot every third revision.
+     */
+    @Test
+    void updates_RecordRevisions_ReadableAfterCompaction() throws Exception {
+        List<String[]> expected = new ArrayList<>();
+        expected.add(new String[] {"Title 0", BODY});
+        String body1 = BODY.replace("Line 50 ", "Line fifty ");
+        putBody(body1);
+        expected.add(new String[] {"Title 0", body1});
+        mockMvc.perform(put("/note/1/notetitle").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \"Title 2\"}")).andExpect(status().isOk());
+        expected.add(new String[] {"Title 2", body1});
+        String body3 = body1 + "Appended line\n";
+        putBody(body3);
+        expected.add(new String[] {"Title 2", body3});
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 3, \"edits\": [{\"offset\": 0, \"delete\": 4, \"insert\": \"Row\"}]}"))
+                .andExpect(status().isOk());
+        expected.add(new String[] {"Title 2", "Row" + body3.substring(4)});
+        mockMvc.perform(patch("/note/1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteBody\": \"Short body\"}")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/note/1/revisions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[0].revision").value(4))
+                .andExpect(jsonPath("$.data[0].noteTitle").value("Title 2"))
+                .andExpect(jsonPath("$.data[0].noteBody").doesNotExist())
+                .andExpect(jsonPath("$.data[4].revision").value(0));
+        assertRevisions(expected);
+
+        assertEquals(1, noteRevisionCompactor.compact());
+
+        Map<Long, String> kinds = new HashMap<>();
+        jdbcTemplate.query("select revision, kind from note_revision where note_id = 1",
+                rs -> { kinds.put(rs.getLong(1), rs.getString(2)); });
+        assertEquals(Map.of(4L, "NEW", 3L, "DELTA", 2L, "SNAPSHOT", 1L, "DELTA", 0L, "DELTA"), kinds);
+        int longestDelta = jdbcTemplate.queryForObject("select max(length(note_body)) from note_revision where kind = 'DELTA'", Integer.class);
+        assertTrue(longestDelta < 20, "Delta of " + longestDelta + " characters");
+        assertRevisions(expected);
+        assertEquals(0, noteRevisionCompactor.compact());
+    }
+
+    /**
+     * Test that a note keeps only its newest revisions, that old revisions expire and that
+     * the revisions of a deleted note are removed, and that autosaves record revisions too.
+     */
+    @Test
+    void compact_AppliesRetention() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            putBody(lines(0, 100 + i));
+        }
+        // an autosave right after an update records no revision, see autosaves_RecordOneRevisionPerInterval
+        jdbcTemplate.update("update note_revision set superseded_date = ?", LocalDateTime.now().minusHours(1));
+        assertTrue(noteAutosaveService.submit(1L, lines(0, 110)));
+        assertEquals(1, noteAutosaveService.flush());
+
+        noteRevisionCompactor.compact();
+
+        mockMvc.perform(get("/note/1/revisions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[0].revision").value(6))
+                .andExpect(jsonPath("$.data[4].revision").value(2));
+        mockMvc.perform(get("/note/1/revisions/1")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/note/1/revisions/6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(lines(0, 106)));
+        mockMvc.perform(get("/note/1/revisions/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(lines(0, 102)));
+
+        jdbcTemplate.update("update note_revision set superseded_date = ? where revision <= 3", LocalDateTime.now().minusDays(100));
+        noteRevisionCompactor.compact();
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from note_revision", Integer.class));
+
+        mockMvc.perform(delete("/note/1")).andExpect(status().isNoContent());
+        noteRevisionCompactor.compact();
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from note_revision", Integer.class));
+        mockMvc.perform(get("/note/1/revisions")).andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test that an editor autosaving every few seconds records one revision per autosave interval, not one per flush.
+     */
+    @Test
+    void autosaves_RecordOneRevisionPerInterval() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(noteAutosaveService.submit(1L, lines(0, 100 + i)));
+            assertEquals(1, noteAutosaveService.flush());
+        }
+        assertEquals(List.of(0L), jdbcTemplate.queryForList("select revision from note_revision order by revision", Long.class));
+
+        jdbcTemplate.update("update note_revision set superseded_date = ?", LocalDateTime.now().minusMinutes(11));
+        assertTrue(noteAutosaveService.submit(1L, lines(0, 110)));
+        assertEquals(1, noteAutosaveService.flush());
+
+        assertEquals(List.of(0L, 3L), jdbcTemplate.queryForList("select revision from note_revision order by revision", Long.class));
+        mockMvc.perform(get("/note/1/revisions/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.noteBody").value(lines(0, 103)));
+    }
+
+    /**
+     * Test that updates that do not happen, because the version is stale, the category does not exist
+     * or the edits do not fit the body, leave no revision behind.
+     */
+    @Test
+    void failedUpdates_RecordNoRevision() throws Exception {
+        mockMvc.perform(patch("/note/1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \"New title\", \"categoryId\": 999999}")).andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/note/1").header("If-Match", "\"7\"").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"noteTitle\": \"New title\"}")).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 0, \"edits\": [{\"offset\": 100000, \"delete\": 1, \"insert\": \"x\"}]}"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(patch("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"baseVersion\": 5, \"edits\": [{\"offset\": 0, \"delete\": 1, \"insert\": \"x\"}]}"))
+                .andExpect(status().isConflict());
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from note_revision", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select version from note where note_id = 1", Long.class));
+    }
+
+    private void putBody(String noteBody) throws Exception {
+        mockMvc.perform(put("/note/1/notebody").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("noteBody", noteBody)))).andExpect(status().isOk());
+    }
+
+    private void assertRevisions(List<String[]> expected) throws Exception {
+        for (int revision = 0; revision < expected.size(); revision++) {
+            mockMvc.perform(get("/note/1/revisions/{revision}", revision))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.revision").value(revision))
+                    .andExpect(jsonPath("$.data.noteTitle").value(expected.get(revision)[0]))
+                    .andExpect(jsonPath("$.data.noteBody").value(expected.get(revision)[1]));
+        }
+    }
+
+    private static String lines(int from, int to) {
+        StringBuilder body = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            body.append("Line ").append(i).append(" of a note that is edited over time\n");
+        }
+        return body.toString();
+    }
+}
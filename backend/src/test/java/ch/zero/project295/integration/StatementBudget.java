@@ -0,0 +1,33 @@
+package ch.zero.project295.integration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements one call of an endpoint may prepare.
+ * Placed on a test class that uses {@link StatementCountingMockMvc}, which checks every request against it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(StatementBudget.List.class)
+public @interface StatementBudget {
+
+    /**
+     * The endpoint as HTTP method and path pattern, e.g. {@code "GET /note/{id}"}.
+     */
+    String endpoint();
+
+    /**
+     * The maximum number of statements, independent of the number of rows involved.
+     */
+    int max();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @interface List {
+        StatementBudget[] value();
+    }
+}
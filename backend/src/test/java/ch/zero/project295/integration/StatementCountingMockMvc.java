@@ -0,0 +1,96 @@
+package ch.zero.project295.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.HandlerMapping;
+
+import ch.zero.project295.metrics.SqlStatementCounter;
+
+/**
+ * Wraps MockMvc to count the SQL statements of every request and check them against the
+ * {@link StatementBudget}s of the test class.
+ * <p>
+ * MockMvc runs the request on the test thread, so {@link SqlStatementCounter} sees exactly the statements
+ * of the request. Every request must hit an endpoint that has a budget.
+ * </p>
+ */
+public class StatementCountingMockMvc {
+
+    private final MockMvc mockMvc;
+    private final Map<String, Integer> budgets;
+    private int lastStatements;
+
+    public StatementCountingMockMvc(MockMvc mockMvc, Class<?> testClass) {
+        this.mockMvc = mockMvc;
+        this.budgets = Arrays.stream(testClass.getAnnotationsByType(StatementBudget.class))
+                .collect(Collectors.toMap(StatementBudget::endpoint, StatementBudget::max));
+    }
+
+    /**
+     * Performs a request and fails if it prepared more statements than the budget of its endpoint.
+     *
+     * @param request the request
+     * @return the result, for further expectations
+     * @throws Exception if the request fails
+     */
+    public ResultActions perform(RequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        ResultActions result = mockMvc.perform(request);
+        int statements = SqlStatementCounter.count();
+        lastStatements = statements;
+
+        String endpoint = endpointOf(result.andReturn());
+        Integer budget = budgets.get(endpoint);
+        assertNotNull(budget, () -> "No @StatementBudget declared for " + endpoint);
+        assertTrue(statements <= budget, () -> endpoint + " prepared " + statements + " SQL statements, the budget is " + budget);
+        return result;
+    }
+
+    /**
+     * Performs a request, adds rows and performs it again, failing if the second call needs more statements.
+     * This is how N+1 behavior shows: one more statement per loaded row or element.
+     *
+     * @param request the request, performed twice
+     * @param addRows adds rows that the second call has to return or process
+     * @throws Exception if a request fails
+     */
+    public void assertNoNPlusOne(RequestBuilder request, RowSeeder addRows) throws Exception {
+        perform(request);
+        int before = lastStatements;
+        addRows.addRows();
+        ResultActions result = perform(request);
+        int after = lastStatements;
+
+        assertTrue(after <= before, () -> endpointOf(result.andReturn()) + " prepared " + before + " SQL statements, "
+                + after + " after adding rows, which looks like N+1");
+    }
+
+    /**
+     * Returns the number of statements of the last request.
+     *
+     * @return the number of statements
+     */
+    public int lastStatements() {
+        return lastStatements;
+    }
+
+    /**
+     * Adds the rows between the two calls of {@link #assertNoNPlusOne}.
+     */
+    public interface RowSeeder {
+        void addRows() throws Exception;
+    }
+
+    private static String endpointOf(MvcResult result) {
+        return result.getRequest().getMethod() + " "
+                + result.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    }
+}
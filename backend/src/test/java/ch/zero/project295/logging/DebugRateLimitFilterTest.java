@@ -0,0 +1,68 @@
+package ch.zero.project295.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Unit tests for the DebugRateLimitFilter class.
+ * <p>
+ * These tests validate the per logger limit, the reset per second and that other levels pass unlimited.
+ * </p>
+ */
+class DebugRateLimitFilterTest {
+
+    private DebugRateLimitFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DebugRateLimitFilter();
+        filter.setMaxPerSecond(2);
+        logger = new LoggerContext().getLogger("test");
+        logger.setLevel(Level.DEBUG);
+    }
+
+    /**
+     * Test that debug events beyond the limit are denied within the same second.
+     */
+    @Test
+    void tryAcquire_DeniesBeyondLimit() {
+        assertTrue(filter.tryAcquire("test", 100));
+        assertTrue(filter.tryAcquire("test", 100));
+        assertFalse(filter.tryAcquire("test", 100));
+    }
+
+    /**
+     * Test that the limit starts over in the next second and is counted per logger.
+     */
+    @Test
+    void tryAcquire_ResetsPerSecondAndLogger() {
+        filter.tryAcquire("test", 100);
+        filter.tryAcquire("test", 100);
+
+        assertTrue(filter.tryAcquire("other", 100));
+        assertTrue(filter.tryAcquire("test", 101));
+    }
+
+    /**
+     * Test that info events and isDebugEnabled checks are never limited.
+     */
+    @Test
+    void decide_OnlyLimitsDebugEvents() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "info {}", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.DEBUG, null, null, null));
+        }
+        filter.decide(null, logger, Level.DEBUG, "debug {}", null, null);
+        filter.decide(null, logger, Level.DEBUG, "debug {}", null, null);
+
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.DEBUG, "debug {}", null, null));
+    }
+}
@@ -0,0 +1,45 @@
+package ch.zero.project295.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the StackTraceDeduplicator class.
+ * <p>
+ * These tests validate the fingerprint and that a stack trace is logged once per window.
+ * </p>
+ */
+class StackTraceDeduplicatorTest {
+
+    /**
+     * Test that the same failure with a different message has the same fingerprint.
+     */
+    @Test
+    void fingerprint_IgnoresMessage() {
+        String first = null;
+        for (int i = 0; i < 2; i++) {
+            String fingerprint = StackTraceDeduplicator.fingerprint(new IllegalStateException("Note " + i));
+            if (first == null) {
+                first = fingerprint;
+            }
+            assertEquals(first, fingerprint);
+        }
+        assertNotEquals(first, StackTraceDeduplicator.fingerprint(new IllegalArgumentException("Note 0")));
+    }
+
+    /**
+     * Test that a stack trace is logged again only after the window.
+     */
+    @Test
+    void shouldLogStackTrace_OncePerWindow() {
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(Duration.ofSeconds(10), 100);
+
+        assertTrue(deduplicator.shouldLogStackTrace("a", 0));
+        assertFalse(deduplicator.shouldLogStackTrace("a", 9_999));
+        assertTrue(deduplicator.shouldLogStackTrace("b", 9_999));
+        assertTrue(deduplicator.shouldLogStackTrace("a", 10_000));
+    }
+}
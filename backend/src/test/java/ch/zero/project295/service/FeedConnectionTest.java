@@ -0,0 +1,119 @@
+package ch.zero.project295.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for the FeedConnection class.
+ * <p>
+ * These tests validate that buffered events are written in order, that a client that falls behind is evicted,
+ * that heartbeats never evict a client and that a failed write closes the connection.
+ * </p>
+ */
+class FeedConnectionTest {
+
+    /**
+     * Test that events are written in the order they were offered.
+     */
+    @Test
+    void offer_WritesEventsInOrder() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        FeedConnection connection = new FeedConnection(1L, emitter, 4, Runnable::run, () -> fail("evicted"));
+
+        Set<DataWithMediaType> first = event("1");
+        Set<DataWithMediaType> second = event("2");
+
+        // Act
+        assertTrue(connection.offer(first));
+        assertTrue(connection.offer(second));
+
+        // Assert
+        assertEquals(List.of(first, second), emitter.sent);
+        assertEquals(0, connection.bufferedCount());
+    }
+
+    /**
+     * Test that a connection whose buffer is full is evicted and its stream completed.
+     */
+    @Test
+    void offer_EvictsWhenBufferIsFull() {
+        // Arrange: the sender never runs, as for a client that stopped reading
+        List<Runnable> senderTasks = new ArrayList<>();
+        AtomicInteger evictions = new AtomicInteger();
+        FeedConnection connection = new FeedConnection(1L, new RecordingEmitter(), 2, senderTasks::add, evictions::incrementAndGet);
+        assertTrue(connection.offer(event("1")));
+        assertTrue(connection.offer(event("2")));
+
+        // Act
+        boolean accepted = connection.offer(event("3"));
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(1, evictions.get());
+        assertTrue(connection.isClosed());
+        assertEquals(0, connection.bufferedCount());
+        assertEquals(2, senderTasks.size(), "one send task and the completion of the stream");
+        assertFalse(connection.offer(event("4")));
+    }
+
+    /**
+     * Test that a heartbeat is skipped instead of evicting a client whose buffer is full.
+     */
+    @Test
+    void offerIfRoom_SkipsWhenBufferIsFull() {
+        // Arrange
+        FeedConnection connection = new FeedConnection(1L, new RecordingEmitter(), 1, task -> { }, () -> fail("evicted"));
+        assertTrue(connection.offer(event("1")));
+
+        // Act & Assert
+        assertFalse(connection.offerIfRoom(event("heartbeat")));
+        assertFalse(connection.isClosed());
+        assertEquals(1, connection.bufferedCount());
+    }
+
+    /**
+     * Test that a failed write closes the connection and drops what is still buffered.
+     */
+    @Test
+    void offer_WriteFails_ClosesConnection() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.fail = true;
+        FeedConnection connection = new FeedConnection(1L, emitter, 4, Runnable::run, () -> fail("evicted"));
+
+        // Act
+        connection.offer(event("1"));
+
+        // Assert
+        assertTrue(connection.isClosed());
+        assertFalse(connection.offer(event("2")));
+    }
+
+    private static Set<DataWithMediaType> event(String id) {
+        return SseEmitter.event().id(id).data(id).build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> sent = new ArrayList<>();
+        private boolean fail;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(items);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ch.zero.project295.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the NoteSearchIndex class.
+ * <p>
+ * These tests validate ranking, prefix matching, the per-user scope, pagination and incremental updates.
+ * </p>
+ */
+class NoteSearchIndexTest {
+
+    private NoteSearchIndex noteSearchIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        noteSearchIndex = new NoteSearchIndex(new ByteBuffersDirectory());
+        noteSearchIndex.index(1L, 10L, "Shopping list", "Milk, bread and coffee");
+        noteSearchIndex.index(2L, 10L, "Coffee beans", "Order new coffee beans from the roastery");
+        noteSearchIndex.index(3L, 20L, "Meeting notes", "Discuss the coffee machine budget");
+        noteSearchIndex.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        noteSearchIndex.close();
+    }
+
+    /**
+     * Test that title matches rank above body matches.
+     */
+    @Test
+    void search_RanksTitleMatchesFirst() {
+        List<Long> noteIds = noteSearchIndex.search("coffee", null, 0, 10).getNoteIds();
+
+        assertEquals(3, noteIds.size());
+        assertEquals(2L, noteIds.get(0));
+    }
+
+    /**
+     * Test that the last word of the query also matches as a prefix.
+     */
+    @Test
+    void search_MatchesPrefixOfLastWord() {
+        assertEquals(List.of(2L), noteSearchIndex.search("roast", null, 0, 10).getNoteIds());
+    }
+
+    /**
+     * Test that every word of the query has to match.
+     */
+    @Test
+    void search_RequiresAllWords() {
+        assertEquals(List.of(3L), noteSearchIndex.search("coffee budget", null, 0, 10).getNoteIds());
+    }
+
+    /**
+     * Test that the user scope only returns the notes of that user.
+     */
+    @Test
+    void search_ScopedToUser() {
+        assertEquals(List.of(3L), noteSearchIndex.search("coffee", 20L, 0, 10).getNoteIds());
+    }
+
+    /**
+     * Test that results are paged with offset and limit.
+     */
+    @Test
+    void search_PagesResults() {
+        NoteSearchIndex.SearchResult firstPage = noteSearchIndex.search("coffee", null, 0, 2);
+        NoteSearchIndex.SearchResult secondPage = noteSearchIndex.search("coffee", null, 2, 2);
+
+        assertEquals(2, firstPage.getNoteIds().size());
+        assertTrue(firstPage.hasMore());
+        assertEquals(1, secondPage.getNoteIds().size());
+        assertFalse(secondPage.hasMore());
+    }
+
+    /**
+     * Test that updated and deleted notes are reflected after a refresh.
+     */
+    @Test
+    void search_ReflectsUpdatesAndDeletes() {
+        noteSearchIndex.index(1L, 10L, "Shopping list", "Milk and bread");
+        noteSearchIndex.delete(3L);
+        noteSearchIndex.refresh();
+
+        assertEquals(List.of(2L), noteSearchIndex.search("coffee", null, 0, 10).getNoteIds());
+    }
+}
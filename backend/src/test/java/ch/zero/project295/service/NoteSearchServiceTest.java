@@ -0,0 +1,109 @@
+package ch.zero.project295.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ch.zero.project295.dto.NoteDTO;
+import ch.zero.project295.event.NoteChangedEvent;
+import ch.zero.project295.repository.NoteRepository;
+
+/**
+ * Unit tests for the NoteSearchService class.
+ * <p>
+ * These tests validate that changes become visible through the background refresh and that changes
+ * made while the index is rebuilt are not overwritten by the notes the rebuild read before.
+ * </p>
+ */
+class NoteSearchServiceTest {
+
+    private NoteSearchIndex noteSearchIndex;
+    private NoteRepository noteRepository;
+    private NoteSearchService noteSearchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        noteSearchIndex = new NoteSearchIndex(new ByteBuffersDirectory());
+        noteRepository = Mockito.mock(NoteRepository.class);
+        noteSearchService = new NoteSearchService(noteSearchIndex, noteRepository,
+                Mockito.mock(PlatformTransactionManager.class), Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        noteSearchService.shutdown();
+        noteSearchIndex.close();
+    }
+
+    /**
+     * Test that a change is searchable after the background refresh, without refreshing on the writing thread.
+     */
+    @Test
+    void onNoteChanged_VisibleAfterBackgroundRefresh() throws Exception {
+        // Act
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(note(1L, "Coffee beans")));
+
+        // Assert
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (noteSearchService.search("coffee", null, 0, 10).getNoteIds().isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "change did not become visible");
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(1L), noteSearchService.search("coffee", null, 0, 10).getNoteIds());
+    }
+
+    /**
+     * Test that a note deleted while the rebuild streams the note table does not come back from the stream.
+     */
+    @Test
+    void rebuildIndex_NoteDeletedDuringRebuild_StaysDeleted() {
+        // Arrange: the stream has already read note 2 when it is deleted
+        NoteDTO kept = note(1L, "Coffee list");
+        NoteDTO deleted = note(2L, "Coffee beans");
+        Mockito.when(noteRepository.streamAll()).thenReturn(Stream.of(kept, deleted)
+                .peek(note -> {
+                    if (note == kept) {
+                        noteSearchService.onNoteChanged(NoteChangedEvent.deleted(deleted));
+                    }
+                }));
+
+        // Act
+        noteSearchService.rebuildIndex();
+
+        // Assert
+        assertEquals(List.of(1L), noteSearchService.search("coffee", null, 0, 10).getNoteIds());
+    }
+
+    /**
+     * Test that a note updated while the rebuild streams the note table keeps its new title.
+     */
+    @Test
+    void rebuildIndex_NoteUpdatedDuringRebuild_KeepsUpdate() {
+        // Arrange
+        NoteDTO before = note(1L, "Coffee beans");
+        Mockito.when(noteRepository.streamAll()).thenReturn(Stream.of(before)
+                .peek(note -> noteSearchService.onNoteChanged(NoteChangedEvent.updated(note(1L, "Tea leaves")))));
+
+        // Act
+        noteSearchService.rebuildIndex();
+
+        // Assert
+        assertTrue(noteSearchService.search("coffee", null, 0, 10).getNoteIds().isEmpty());
+        assertEquals(List.of(1L), noteSearchService.search("tea", null, 0, 10).getNoteIds());
+    }
+
+    private static NoteDTO note(long noteId, String noteTitle) {
+        LocalDateTime now = LocalDateTime.now();
+        return new NoteDTO(noteId, noteTitle, "Body of the note", now, now, 0, 10L, 20L);
+    }
+}
@@ -0,0 +1,65 @@
+package ch.zero.project295.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the NoteBodyCodec class.
+ * <p>
+ * These tests validate that long bodies are compressed to bytes and read back unchanged,
+ * and that short and incompressible bodies, and all bodies while compression is disabled, stay plain.
+ * </p>
+ */
+class NoteBodyCodecTest {
+
+    private static final String LONG_BODY = "Meeting notes: discuss the roadmap and the budget. ".repeat(40);
+
+    /**
+     * Test that a long body is compressed and decompressed to the same text.
+     */
+    @Test
+    void compress_LongBody_RoundTrips() {
+        NoteBodyCodec codec = new NoteBodyCodec(true, 1024);
+
+        byte[] compressed = codec.compress(LONG_BODY + "äöü 😀");
+
+        assertNotNull(compressed);
+        assertTrue(compressed.length < LONG_BODY.length() / 4);
+        assertEquals(LONG_BODY + "äöü 😀", NoteBodyCodec.decompress(compressed));
+        assertEquals(1, codec.getCompressedCount());
+        assertEquals((LONG_BODY + "äöü 😀").getBytes(StandardCharsets.UTF_8).length, codec.getUncompressedBytes());
+        assertEquals(compressed.length, codec.getCompressedBytes());
+    }
+
+    /**
+     * Test that short bodies, and all bodies while compression is disabled, are stored as they are.
+     */
+    @Test
+    void compress_BelowThresholdOrDisabled_KeepsPlain() {
+        assertNull(new NoteBodyCodec(true, 1024).compress("Short body"));
+        assertNull(new NoteBodyCodec(false, 1024).compress(LONG_BODY));
+    }
+
+    /**
+     * Test that a body that does not get smaller is stored as it is.
+     */
+    @Test
+    void compress_Incompressible_KeepsPlain() {
+        NoteBodyCodec codec = new NoteBodyCodec(true, 10);
+
+        // the zlib header and checksum alone take six bytes
+        assertNull(codec.compress("Tiny body!"));
+        assertEquals(0, codec.getCompressedCount());
+    }
+
+    /**
+     * Test that a corrupt compressed body fails loudly instead of returning garbage.
+     */
+    @Test
+    void decompress_Corrupt_Throws() {
+        assertThrows(IllegalStateException.class, () -> NoteBodyCodec.decompress(new byte[] {0, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,72 @@
+package ch.zero.project295.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the TextDiff class.
+ * <p>
+ * These tests validate that a text is rebuilt exactly from its base and delta, also when the texts
+ * differ inside a surrogate pair or one is a prefix of the other.
+ * </p>
+ */
+class TextDiffTest {
+
+    /**
+     * Test that a change in the middle is described by the changed text only.
+     */
+    @Test
+    void diff_DescribesChangedRegion() {
+        String base = "The quick brown fox";
+        String target = "The quick red fox";
+
+        int prefix = TextDiff.commonPrefix(base, target);
+        int suffix = TextDiff.commonSuffix(base, target, prefix);
+
+        assertEquals(10, prefix);
+        assertEquals(4, suffix);
+        assertEquals(target, TextDiff.apply(base, prefix, suffix, target.substring(prefix, target.length() - suffix)));
+    }
+
+    /**
+     * Test that prefix and suffix do not overlap when one text repeats the other.
+     */
+    @Test
+    void diff_PrefixAndSuffixDoNotOverlap() {
+        assertRoundTrip("aaaa", "aaaaaa");
+        assertRoundTrip("aaaaaa", "aa");
+        assertRoundTrip("", "abc");
+        assertRoundTrip("abc", "");
+    }
+
+    /**
+     * Test that texts differing in the second half of a surrogate pair keep the pair together.
+     */
+    @Test
+    void diff_KeepsSurrogatePairs() {
+        String base = "note 😀 end";
+        String target = "note 😁 end";
+
+        int prefix = TextDiff.commonPrefix(base, target);
+        int suffix = TextDiff.commonSuffix(base, target, prefix);
+
+        assertEquals("😁", target.substring(prefix, target.length() - suffix));
+        assertRoundTrip(base, target);
+        assertRoundTrip("x😀", "y😀");
+    }
+
+    /**
+     * Test that a delta longer than its base is rejected.
+     */
+    @Test
+    void apply_DeltaDoesNotFit_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> TextDiff.apply("abc", 2, 2, "x"));
+    }
+
+    private static void assertRoundTrip(String base, String target) {
+        int prefix = TextDiff.commonPrefix(base, target);
+        int suffix = TextDiff.commonSuffix(base, target, prefix);
+        assertEquals(target, TextDiff.apply(base, prefix, suffix, target.substring(prefix, target.length() - suffix)));
+    }
+}